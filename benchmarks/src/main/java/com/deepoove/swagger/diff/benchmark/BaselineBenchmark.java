@@ -0,0 +1,78 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+
+import io.swagger.models.Swagger;
+
+/**
+ * One old spec compared with many new specs: one {@link SwaggerDiff#compareV2(Swagger, Swagger)}
+ * per new spec, against a {@link SwaggerDiff.Baseline} indexed once, sequentially and on the
+ * common fork join pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaselineBenchmark {
+
+  @Param({"1000"})
+  public int paths;
+
+  @Param({"16"})
+  public int candidates;
+
+  private Swagger oldSpec;
+  private List<Swagger> newSpecs;
+  private SwaggerDiff.Baseline baseline;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(paths)
+        .definitions(200)
+        .changeRatio(0.05);
+    oldSpec = generator.generate();
+    newSpecs = new ArrayList<Swagger>(candidates);
+    for (int i = 0; i < candidates; i++) {
+      newSpecs.add(generator.generateChanged());
+    }
+    baseline = SwaggerDiff.baseline(oldSpec);
+  }
+
+  @Benchmark
+  public List<SwaggerDiff> compareEach() {
+    List<SwaggerDiff> diffs = new ArrayList<SwaggerDiff>(newSpecs.size());
+    for (Swagger newSpec : newSpecs) {
+      diffs.add(SwaggerDiff.compareV2(oldSpec, newSpec));
+    }
+    return diffs;
+  }
+
+  @Benchmark
+  public List<SwaggerDiff> baselineSequential() {
+    return baseline.compareAll(newSpecs, null);
+  }
+
+  @Benchmark
+  public List<SwaggerDiff> baselineParallel() {
+    return baseline.compareAll(newSpecs);
+  }
+}
@@ -0,0 +1,90 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.cli.BatchDiff;
+
+import io.swagger.util.Json;
+
+/**
+ * {@link BatchDiff} comparing directories of generated service specs, a fifth of them
+ * changed, with one thread or with the default pools.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchDiffBenchmark {
+
+  @Param({"200"})
+  public int services;
+
+  @Param({"50"})
+  public int paths;
+
+  private Path root;
+  private List<BatchDiff.SpecPair> pairs;
+  private final OutputStream sink = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  @Setup
+  public void setUp() throws IOException {
+    root = Files.createTempDirectory("batch-diff");
+    Path oldDir = Files.createDirectory(root.resolve("old"));
+    Path newDir = Files.createDirectory(root.resolve("new"));
+    for (int i = 0; i < services; i++) {
+      SpecGenerator generator = SpecGenerator.create().seed(i).paths(paths).changeRatio(0.2);
+      Json.mapper().writeValue(oldDir.resolve("service" + i + ".json").toFile(), generator.generate());
+      Json.mapper().writeValue(newDir.resolve("service" + i + ".json").toFile(),
+          i % 5 == 0 ? generator.generateChanged() : generator.generate());
+    }
+    pairs = BatchDiff.fromDirectories(oldDir, newDir);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(root)) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  @Benchmark
+  public BatchDiff.Summary sequential() throws IOException {
+    return BatchDiff.build(pairs).ioThreads(1).cpuThreads(1).run(sink);
+  }
+
+  @Benchmark
+  public BatchDiff.Summary pooled() throws IOException {
+    return BatchDiff.build(pairs).run(sink);
+  }
+}
@@ -0,0 +1,65 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+
+import io.swagger.models.Swagger;
+
+/**
+ * The full diff against {@link SwaggerDiff#hasBreakingChanges(Swagger, Swagger)}, for a spec whose
+ * only break is a removed operation on the first or the last path, or that has no break.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BreakingChangeBenchmark {
+
+  @Param({"10000"})
+  public int paths;
+
+  @Param({"first", "last", "none"})
+  public String breakAt;
+
+  private Swagger oldSpec;
+  private Swagger newSpec;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(paths)
+        .definitions(200);
+    oldSpec = generator.generate();
+    newSpec = generator.generate();
+    if (!"none".equals(breakAt)) {
+      String url = SpecGenerator.pathUrl("first".equals(breakAt) ? 0 : paths - 1);
+      newSpec.getPaths().get(url).setGet(null);
+    }
+  }
+
+  @Benchmark
+  public boolean compareV2() {
+    SwaggerDiff diff = SwaggerDiff.compareV2(oldSpec, newSpec);
+    return !diff.getMissingEndpoints().isEmpty();
+  }
+
+  @Benchmark
+  public boolean hasBreakingChanges() {
+    return SwaggerDiff.hasBreakingChanges(oldSpec, newSpec);
+  }
+}
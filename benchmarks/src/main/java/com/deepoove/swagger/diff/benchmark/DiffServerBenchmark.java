@@ -0,0 +1,109 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.server.DiffServer;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.util.Json;
+
+/**
+ * Round trips to a warm {@link DiffServer}: a diff of specs posted before, referred to by hash,
+ * and a diff of specs sent inline in the body, which the server parses, or finds in its cache
+ * by the hash of their tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffServerBenchmark {
+
+  @Param({"100", "1000"})
+  public int paths;
+
+  private DiffServer server;
+  private String diffByHash;
+  private byte[] inlineBody;
+  private final byte[] buffer = new byte[64 * 1024];
+
+  @Setup
+  public void setUp() throws IOException {
+    server = DiffServer.build(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0)).start();
+    SpecGenerator generator = SpecGenerator.create().paths(paths).changeRatio(0.1);
+    byte[] oldSpec = Json.mapper().writeValueAsBytes(generator.generate());
+    byte[] newSpec = Json.mapper().writeValueAsBytes(generator.generateChanged());
+    String oldHash = Json.mapper().readTree(post("/specs", oldSpec)).path("hash").asText();
+    String newHash = Json.mapper().readTree(post("/specs", newSpec)).path("hash").asText();
+    diffByHash = "/diff?old=" + oldHash + "&new=" + newHash;
+    ObjectNode body = Json.mapper().createObjectNode();
+    body.set("old", Json.mapper().readTree(oldSpec));
+    body.set("new", Json.mapper().readTree(newSpec));
+    inlineBody = Json.mapper().writeValueAsBytes(body);
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Benchmark
+  public int byHash() throws IOException {
+    return drain(post(diffByHash, null));
+  }
+
+  @Benchmark
+  public int inline() throws IOException {
+    return drain(post("/diff", inlineBody));
+  }
+
+  private InputStream post(String path, byte[] body) throws IOException {
+    InetSocketAddress address = server.getAddress();
+    URL url = new URL("http://" + address.getHostString() + ":" + address.getPort() + path);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod("POST");
+    if (null != body) {
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body);
+      }
+    }
+    if (200 != connection.getResponseCode()) {
+      throw new IOException("status " + connection.getResponseCode());
+    }
+    return connection.getInputStream();
+  }
+
+  private int drain(InputStream in) throws IOException {
+    int size = 0;
+    try {
+      for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+        size += n;
+      }
+    } finally {
+      in.close();
+    }
+    return size;
+  }
+}
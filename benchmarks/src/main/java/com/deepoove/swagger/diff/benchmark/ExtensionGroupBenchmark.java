@@ -0,0 +1,52 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+
+/**
+ * Growing a {@link ChangedExtensionGroup} tree of groups without differences and asking whether
+ * it has differences after each insert, like the diff does while merging its results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtensionGroupBenchmark {
+
+  @Param({"100", "1000"})
+  public int groups;
+
+  @Param({"5"})
+  public int responses;
+
+  @Benchmark
+  public boolean buildAndQuery() {
+    ChangedExtensionGroup root = new ChangedExtensionGroup();
+    boolean diff = false;
+    for (int i = 0; i < groups; i++) {
+      ChangedExtensionGroup responseGroup = new ChangedExtensionGroup();
+      for (int r = 0; r < responses; r++) {
+        responseGroup.putSubGroup(String.valueOf(200 + r), new ChangedExtensionGroup());
+      }
+      ChangedExtensionGroup operation = new ChangedExtensionGroup();
+      operation.putSubGroup("responses", responseGroup);
+      root.putSubGroup("operation" + i, operation);
+      diff |= root.vendorExtensionsAreDiff();
+    }
+    return diff;
+  }
+}
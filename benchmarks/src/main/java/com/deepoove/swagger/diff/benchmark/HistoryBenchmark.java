@@ -0,0 +1,75 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.SwaggerDiffHistory;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.swagger.util.Json;
+
+/**
+ * Diffing a release history: one {@link SwaggerDiff#compareV2(JsonNode, JsonNode)} per pair of
+ * consecutive versions, parsing the middle versions twice, against {@link SwaggerDiffHistory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryBenchmark {
+
+  @Param({"1000"})
+  public int paths;
+
+  @Param({"10"})
+  public int versions;
+
+  private List<JsonNode> specs;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(paths)
+        .definitions(200)
+        .changeRatio(0.05);
+    specs = new ArrayList<JsonNode>(versions);
+    for (int i = 0; i < versions; i++) {
+      specs.add(Json.mapper().valueToTree(i % 2 == 0 ? generator.generate() : generator.generateChanged()));
+    }
+  }
+
+  @Benchmark
+  public List<SwaggerDiff> pairwise() {
+    List<SwaggerDiff> diffs = new ArrayList<SwaggerDiff>(versions - 1);
+    for (int i = 1; i < specs.size(); i++) {
+      diffs.add(SwaggerDiff.compareV2(specs.get(i - 1), specs.get(i)));
+    }
+    return diffs;
+  }
+
+  @Benchmark
+  public SwaggerDiffHistory historySequential() {
+    return SwaggerDiffHistory.compareV2Trees(specs, false, null);
+  }
+
+  @Benchmark
+  public SwaggerDiffHistory historyParallel() {
+    return SwaggerDiffHistory.compareV2Trees(specs, false);
+  }
+}
@@ -0,0 +1,74 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.output.JsonReportWriter;
+
+import io.swagger.models.Swagger;
+
+/**
+ * {@link JsonReportWriter} writing the diff of generated specs, in both formats, to a stream
+ * that drops the bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonReportBenchmark {
+
+  @Param({"1000", "10000"})
+  public int paths;
+
+  @Param({"0.5"})
+  public double changeRatio;
+
+  private SwaggerDiff diff;
+  private final JsonReportWriter document = new JsonReportWriter();
+  private final JsonReportWriter ndjson = new JsonReportWriter(JsonReportWriter.Format.NDJSON);
+  private final OutputStream sink = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(paths)
+        .changeRatio(changeRatio);
+    Swagger oldSpec = generator.generate();
+    Swagger newSpec = generator.generateChanged();
+    diff = SwaggerDiff.compareV2(oldSpec, newSpec, true);
+  }
+
+  @Benchmark
+  public void document() throws IOException {
+    document.write(diff, sink);
+  }
+
+  @Benchmark
+  public void ndjson() throws IOException {
+    ndjson.write(diff, sink);
+  }
+}
@@ -0,0 +1,89 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.compare.MapDiff;
+import com.deepoove.swagger.diff.compare.VendorExtensionDiff;
+import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+
+import io.swagger.models.Operation;
+
+/**
+ * Vendor extensions holding large nested json, like code samples or policies, compared by
+ * {@link VendorExtensionDiff} and by plain {@code equals} through {@link MapDiff}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LargeExtensionBenchmark {
+
+  /**
+   * elements of each extension value, each an object of 20 members
+   */
+  @Param({"10", "1000"})
+  public int elements;
+
+  /**
+   * whether the last member of the last element differs
+   */
+  @Param({"false", "true"})
+  public boolean changed;
+
+  private Operation left;
+  private Operation right;
+
+  @Setup
+  public void setUp() {
+    left = operation(false);
+    right = operation(changed);
+  }
+
+  private Operation operation(boolean change) {
+    Operation operation = new Operation();
+    for (String name : new String[] {"x-code-samples", "x-policy", "x-examples"}) {
+      List<Object> value = new ArrayList<Object>(elements);
+      Map<String, Object> element = null;
+      for (int i = 0; i < elements; i++) {
+        element = new LinkedHashMap<String, Object>();
+        for (int j = 0; j < 20; j++) {
+          element.put("member" + j, j % 2 == 0 ? "value " + i + "." + j : (Object) (i * j));
+        }
+        value.add(element);
+      }
+      if (change) {
+        element.put("member19", "changed");
+      }
+      operation.setVendorExtension(name, value);
+    }
+    return operation;
+  }
+
+  @Benchmark
+  public ChangedExtensionGroup vendorExtensionDiff() {
+    return new VendorExtensionDiff(true).diff(left, right);
+  }
+
+  @Benchmark
+  public MapDiff<String, Object> equals() {
+    return MapDiff.diff(left.getVendorExtensions(), right.getVendorExtensions());
+  }
+}
@@ -0,0 +1,64 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.compare.MapDiff;
+import com.deepoove.swagger.diff.compare.MapKeyDiff;
+
+/**
+ * {@link MapKeyDiff#diff(Map, Map)} and {@link MapDiff#diff(Map, Map)} over two maps sharing most
+ * of their keys and values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapKeyDiffBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  public int size;
+
+  @Param({"0.05"})
+  public double changeRatio;
+
+  private Map<String, Object> left;
+  private Map<String, Object> right;
+
+  @Setup
+  public void setUp() {
+    left = new LinkedHashMap<String, Object>();
+    right = new LinkedHashMap<String, Object>();
+    int changed = (int) (size * changeRatio);
+    for (int i = 0; i < size; i++) {
+      Object value = Integer.valueOf(i);
+      left.put("key" + i, value);
+      right.put(i < changed ? "other" + i : "key" + i, value);
+    }
+  }
+
+  @Benchmark
+  public MapKeyDiff<String, Object> diff() {
+    return MapKeyDiff.diff(left, right);
+  }
+
+  @Benchmark
+  public MapDiff<String, Object> mapDiff() {
+    return MapDiff.diff(left, right);
+  }
+}
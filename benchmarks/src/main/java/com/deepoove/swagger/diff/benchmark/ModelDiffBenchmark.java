@@ -0,0 +1,68 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.compare.ModelDiff;
+import com.deepoove.swagger.diff.compare.ModelDiffResult;
+
+import io.swagger.models.Model;
+import io.swagger.models.Swagger;
+
+/**
+ * {@link ModelDiff} recursion from the head of a chain of {@code depth} definitions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelDiffBenchmark {
+
+  @Param({"10", "25", "50", "100"})
+  public int depth;
+
+  @Param({"0", "1"})
+  public int refCycles;
+
+  @Param({"20"})
+  public int propertiesPerDefinition;
+
+  private Swagger oldSpec;
+  private Swagger newSpec;
+  private Model leftHead;
+  private Model rightHead;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(0)
+        .definitions(depth)
+        .depth(depth)
+        .refCycles(refCycles)
+        .propertiesPerDefinition(propertiesPerDefinition)
+        .changeRatio(0.2);
+    oldSpec = generator.generate();
+    newSpec = generator.generateChanged();
+    leftHead = oldSpec.getDefinitions().get(SpecGenerator.definitionName(0));
+    rightHead = newSpec.getDefinitions().get(SpecGenerator.definitionName(0));
+  }
+
+  @Benchmark
+  public ModelDiffResult diff() {
+    return ModelDiff.build(oldSpec.getDefinitions(), newSpec.getDefinitions())
+        .diff(leftHead, rightHead, SpecGenerator.definitionName(0));
+  }
+}
@@ -0,0 +1,65 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.compare.ParameterDiff;
+import com.deepoove.swagger.diff.compare.ParameterDiffResult;
+
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.Parameter;
+
+/**
+ * {@link ParameterDiff#diff(List, List)} on a single operation with many parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterDiffBenchmark {
+
+  @Param({"10", "100", "300"})
+  public int parameters;
+
+  private Swagger oldSpec;
+  private Swagger newSpec;
+  private List<Parameter> left;
+  private List<Parameter> right;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(1)
+        .operationsPerPath(2)
+        .parametersPerOperation(parameters)
+        .definitions(20)
+        .depth(2);
+    oldSpec = generator.generate();
+    newSpec = generator.generate();
+    left = oldSpec.getPaths().get(SpecGenerator.pathUrl(0)).getPost().getParameters();
+    right = newSpec.getPaths().get(SpecGenerator.pathUrl(0)).getPost().getParameters();
+    // reverse the new side so that every lookup has to search for its match
+    Collections.reverse(right);
+    right.get(0).setDescription("changed");
+  }
+
+  @Benchmark
+  public ParameterDiffResult diff() {
+    return ParameterDiff.build(oldSpec.getDefinitions(), newSpec.getDefinitions()).diff(left, right);
+  }
+}
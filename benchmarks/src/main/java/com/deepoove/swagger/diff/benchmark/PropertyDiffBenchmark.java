@@ -0,0 +1,64 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.compare.PropertyDiff;
+import com.deepoove.swagger.diff.compare.PropertyDiffResult;
+
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+
+/**
+ * {@link PropertyDiff#diff(Property, Property)} on a 200-response referring to a definition chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyDiffBenchmark {
+
+  @Param({"3", "10"})
+  public int depth;
+
+  @Param({"10", "50"})
+  public int propertiesPerDefinition;
+
+  private Swagger oldSpec;
+  private Swagger newSpec;
+  private Property left;
+  private Property right;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(0)
+        .definitions(depth)
+        .depth(depth)
+        .propertiesPerDefinition(propertiesPerDefinition)
+        .changeRatio(0.5);
+    oldSpec = generator.generate();
+    newSpec = generator.generateChanged();
+    left = new RefProperty(SpecGenerator.definitionName(0));
+    right = new RefProperty(SpecGenerator.definitionName(0));
+  }
+
+  @Benchmark
+  public PropertyDiffResult diff() {
+    return PropertyDiff.build(oldSpec.getDefinitions(), newSpec.getDefinitions()).diff(left, right);
+  }
+}
@@ -0,0 +1,100 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.output.HtmlRender;
+import com.deepoove.swagger.diff.output.MarkdownRender;
+
+import io.swagger.models.Info;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+
+/**
+ * The renders writing a diff with the given number of changed properties, half of them added
+ * and half deleted from the response of one operation, to a writer that drops the chars. Run
+ * with {@code -prof gc}: the allocation per render stays the same whatever the size of the
+ * document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+  @Param({"1000", "100000"})
+  public int properties;
+
+  private SwaggerDiff diff;
+  private final MarkdownRender markdown = new MarkdownRender();
+  private final HtmlRender html = new HtmlRender();
+  private final Writer sink = new Writer() {
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  };
+
+  @Setup
+  public void setUp() {
+    diff = SwaggerDiff.compareV2(spec("old"), spec("new"));
+    if (properties != diff.getChangedEndpoints().get(0).getChangedOperations().values().iterator().next().getAddProps().size() * 2) {
+      throw new IllegalStateException("unexpected diff");
+    }
+  }
+
+  private Swagger spec(String prefix) {
+    ModelImpl model = new ModelImpl().type("object");
+    for (int i = 0; i < properties / 2; i++) {
+      model.property(prefix + "Property" + i, new StringProperty().description("property " + i));
+    }
+    Operation operation = new Operation().summary("get the resource")
+        .response(200, new Response().description("OK").schema(new RefProperty("Resource")));
+    Swagger swagger = new Swagger().info(new Info().title("render").version(prefix))
+        .path("/resource", new Path().get(operation));
+    swagger.addDefinition("Resource", model);
+    return swagger;
+  }
+
+  @Benchmark
+  public void markdown() throws IOException {
+    markdown.render(diff, sink);
+  }
+
+  @Benchmark
+  public void html() throws IOException {
+    html.render(diff, sink);
+  }
+}
@@ -0,0 +1,258 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import io.swagger.models.Info;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.AbstractSerializableParameter;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.HeaderParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.PathParameter;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.models.properties.LongProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+
+/**
+ * Seeded generator of synthetic swagger v2.0 specifications.
+ * <p>
+ * Definitions are laid out as chains of {@code depth} models where every model
+ * refers to the next one; the first {@code refCycles} chains point back to their
+ * head. Every call to {@link #generate()} returns a fresh object graph for the same
+ * seed, and {@link #generateChanged()} returns the same spec with a fraction of
+ * paths, operations, parameters and definitions mutated.
+ */
+public class SpecGenerator {
+
+  private static final String[] METHODS = {"get", "post", "put", "delete", "patch", "head", "options"};
+
+  private long seed = 42L;
+  private int paths = 100;
+  private int operationsPerPath = 2;
+  private int parametersPerOperation = 4;
+  private int definitions = 50;
+  private int propertiesPerDefinition = 6;
+  private int depth = 3;
+  private int refCycles = 0;
+  private int vendorExtensions = 2;
+  private double changeRatio = 0.05;
+
+  public static SpecGenerator create() {
+    return new SpecGenerator();
+  }
+
+  public SpecGenerator seed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  public SpecGenerator paths(int paths) {
+    this.paths = paths;
+    return this;
+  }
+
+  public SpecGenerator operationsPerPath(int operationsPerPath) {
+    this.operationsPerPath = Math.max(1, Math.min(METHODS.length, operationsPerPath));
+    return this;
+  }
+
+  public SpecGenerator parametersPerOperation(int parametersPerOperation) {
+    this.parametersPerOperation = parametersPerOperation;
+    return this;
+  }
+
+  public SpecGenerator definitions(int definitions) {
+    this.definitions = Math.max(1, definitions);
+    return this;
+  }
+
+  public SpecGenerator propertiesPerDefinition(int propertiesPerDefinition) {
+    this.propertiesPerDefinition = propertiesPerDefinition;
+    return this;
+  }
+
+  public SpecGenerator depth(int depth) {
+    this.depth = Math.max(1, depth);
+    return this;
+  }
+
+  public SpecGenerator refCycles(int refCycles) {
+    this.refCycles = refCycles;
+    return this;
+  }
+
+  public SpecGenerator vendorExtensions(int vendorExtensions) {
+    this.vendorExtensions = vendorExtensions;
+    return this;
+  }
+
+  public SpecGenerator changeRatio(double changeRatio) {
+    this.changeRatio = changeRatio;
+    return this;
+  }
+
+  public Swagger generate() {
+    Random random = new Random(seed);
+    Swagger swagger = new Swagger();
+    swagger.setSwagger("2.0");
+    swagger.info(new Info().title("generated").version("1.0.0"));
+    swagger.setVendorExtensions(extensions("spec", random));
+    swagger.setPaths(new LinkedHashMap<String, Path>());
+
+    for (int i = 0; i < definitions; i++) {
+      swagger.addDefinition(definitionName(i), definition(i));
+    }
+    for (int i = 0; i < paths; i++) {
+      Path path = new Path();
+      path.setVendorExtensions(extensions("path" + i, random));
+      for (int m = 0; m < operationsPerPath; m++) {
+        path.set(METHODS[m], operation(i, m, random));
+      }
+      swagger.path(pathUrl(i), path);
+    }
+    return swagger;
+  }
+
+  public Swagger generateChanged() {
+    Swagger swagger = generate();
+    Random random = new Random(seed ^ 0x5DEECE66DL);
+
+    List<String> urls = new ArrayList<String>(swagger.getPaths().keySet());
+    for (String url : urls) {
+      if (random.nextDouble() >= changeRatio) {
+        continue;
+      }
+      Path path = swagger.getPaths().get(url);
+      switch (random.nextInt(4)) {
+        case 0:
+          swagger.getPaths().remove(url);
+          swagger.path(url + "/v2", path);
+          break;
+        case 1:
+          path.setVendorExtension("x-changed", random.nextInt());
+          break;
+        default:
+          mutate(path.getOperations().get(random.nextInt(path.getOperations().size())), random);
+          break;
+      }
+    }
+
+    for (Map.Entry<String, Model> entry : swagger.getDefinitions().entrySet()) {
+      if (random.nextDouble() >= changeRatio) {
+        continue;
+      }
+      Map<String, Property> properties = entry.getValue().getProperties();
+      if (random.nextBoolean()) {
+        properties.put("added" + random.nextInt(1000), new StringProperty());
+      } else if (!properties.isEmpty()) {
+        properties.values().iterator().next().setDescription("changed " + random.nextInt());
+      }
+    }
+    return swagger;
+  }
+
+  public static String pathUrl(int index) {
+    return "/resource" + index + "/{id}";
+  }
+
+  public static String definitionName(int index) {
+    return "Model" + index;
+  }
+
+  private ModelImpl definition(int index) {
+    ModelImpl model = new ModelImpl().type("object");
+    for (int p = 0; p < propertiesPerDefinition; p++) {
+      Property property = p % 2 == 0 ? new StringProperty() : new LongProperty();
+      property.setDescription("property " + p + " of " + definitionName(index));
+      model.property("field" + p, property);
+    }
+
+    int positionInChain = index % depth;
+    int chainHead = index - positionInChain;
+    if (positionInChain < depth - 1 && index + 1 < definitions) {
+      model.property("child", new RefProperty(definitionName(index + 1)));
+    } else if (chainHead / depth < refCycles && chainHead != index) {
+      model.property("parent", new RefProperty(definitionName(chainHead)));
+    }
+    return model;
+  }
+
+  private Operation operation(int pathIndex, int methodIndex, Random random) {
+    Operation operation = new Operation()
+        .summary("operation " + methodIndex + " on path " + pathIndex)
+        .vendorExtensions(extensions("op", random));
+    operation.setOperationId(METHODS[methodIndex] + "Resource" + pathIndex);
+    operation.setDescription("generated operation");
+
+    if (parametersPerOperation > 0) {
+      operation.parameter(new PathParameter().name("id").type("string"));
+    }
+    for (int p = 1; p < parametersPerOperation; p++) {
+      if (p == 1 && methodIndex != 0) {
+        operation.parameter(new BodyParameter().name("body").schema(new RefModel(randomHead(random))));
+        continue;
+      }
+      AbstractSerializableParameter<?> parameter = p % 3 == 0 ? new HeaderParameter() : new QueryParameter();
+      parameter.setName("param" + p);
+      parameter.setType(p % 2 == 0 ? "string" : "integer");
+      parameter.setDescription("parameter " + p);
+      parameter.setRequired(p % 4 == 0);
+      operation.parameter(parameter);
+    }
+
+    Response ok = new Response().description("OK").schema(new RefProperty(randomHead(random)));
+    operation.response(200, ok);
+    operation.response(404, new Response().description("Not found"));
+    return operation;
+  }
+
+  private void mutate(Operation operation, Random random) {
+    List<Parameter> parameters = operation.getParameters();
+    switch (random.nextInt(4)) {
+      case 0:
+        if (!parameters.isEmpty()) {
+          parameters.remove(parameters.size() - 1);
+        }
+        break;
+      case 1:
+        operation.parameter(new QueryParameter().name("added" + random.nextInt(1000)).type("string"));
+        break;
+      case 2:
+        if (!parameters.isEmpty()) {
+          parameters.get(random.nextInt(parameters.size())).setDescription("changed");
+        }
+        break;
+      default:
+        operation.setVendorExtension("x-changed", random.nextInt());
+        break;
+    }
+  }
+
+  private String randomHead(Random random) {
+    int chains = (definitions + depth - 1) / depth;
+    return definitionName(random.nextInt(chains) * depth);
+  }
+
+  private Map<String, Object> extensions(String owner, Random random) {
+    Map<String, Object> extensions = new LinkedHashMap<String, Object>();
+    for (int i = 0; i < vendorExtensions; i++) {
+      Map<String, Object> value = new LinkedHashMap<String, Object>();
+      value.put("owner", owner);
+      value.put("weight", random.nextInt(100));
+      extensions.put("x-ext-" + i, value);
+    }
+    return extensions;
+  }
+}
@@ -0,0 +1,74 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.LruSpecCache;
+import com.deepoove.swagger.diff.SpecReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+
+/**
+ * Reading a serialized spec into the swagger model: through a JsonNode tree and
+ * {@link SwaggerParser}, against {@link SpecReader} binding it in one pass, and against taking
+ * it from a warm {@link LruSpecCache}, which only hashes the input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecReadBenchmark {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  @Param({"1000", "10000"})
+  public int paths;
+
+  @Param({"json", "yaml"})
+  public String format;
+
+  private byte[] spec;
+  private LruSpecCache cache;
+
+  @Setup
+  public void setUp() throws IOException {
+    Swagger swagger = SpecGenerator.create().paths(paths).definitions(200).generate();
+    spec = "yaml".equals(format) ? Yaml.mapper().writeValueAsBytes(swagger) : Json.mapper().writeValueAsBytes(swagger);
+    cache = LruSpecCache.maxEntries(1);
+    SpecReader.read(spec, cache);
+  }
+
+  @Benchmark
+  public Swagger readTreeThenParse() throws IOException {
+    ObjectMapper mapper = "yaml".equals(format) ? Yaml.mapper() : OBJECT_MAPPER;
+    return new SwaggerParser().read(mapper.readTree(spec), true);
+  }
+
+  @Benchmark
+  public Swagger specReader() throws IOException {
+    return SpecReader.read(spec);
+  }
+
+  @Benchmark
+  public Swagger specReaderCached() throws IOException {
+    return SpecReader.read(spec, cache);
+  }
+}
@@ -0,0 +1,57 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.output.JsonReportWriter;
+
+/**
+ * Time to the first result in a fresh JVM: reading, diffing and reporting the petstore
+ * fixtures once, with the classes of jackson and swagger loaded and initialized on the way and
+ * the JIT cold. Each fork is one sample, JVM boot itself is not measured. To measure with a
+ * class data sharing archive, dump one of an in-process run, then hand it to the forks:
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=startup.jsa -jar benchmarks.jar StartupBenchmark -f 0
+ * java -jar benchmarks.jar StartupBenchmark -jvmArgsAppend -XX:SharedArchiveFile=startup.jsa
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+  private final OutputStream sink = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  @Benchmark
+  public void firstResult() throws IOException {
+    try (InputStream oldSpec = StartupBenchmark.class.getResourceAsStream("/petstore_v2_1.json");
+        InputStream newSpec = StartupBenchmark.class.getResourceAsStream("/petstore_v2_2.json")) {
+      SwaggerDiff diff = SwaggerDiff.compareV2(oldSpec, newSpec);
+      new JsonReportWriter().write(diff, sink);
+    }
+  }
+}
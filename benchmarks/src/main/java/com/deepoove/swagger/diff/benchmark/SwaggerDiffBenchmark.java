@@ -0,0 +1,123 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.compare.DiffListener;
+import com.deepoove.swagger.diff.compare.InMemoryDiffMetrics;
+import com.deepoove.swagger.diff.compare.SpecFingerprint;
+import com.deepoove.swagger.diff.compare.SpecificationDiff;
+import com.deepoove.swagger.diff.compare.SpecificationDiffResult;
+import com.deepoove.swagger.diff.model.ChangedOperation;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Swagger;
+
+/**
+ * End-to-end {@link SwaggerDiff#compareV2(Swagger, Swagger, boolean)} over generated specs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwaggerDiffBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int paths;
+
+  @Param({"3"})
+  public int operationsPerPath;
+
+  @Param({"6"})
+  public int parametersPerOperation;
+
+  @Param({"200"})
+  public int definitions;
+
+  @Param({"4"})
+  public int depth;
+
+  @Param({"5"})
+  public int refCycles;
+
+  @Param({"0.05"})
+  public double changeRatio;
+
+  private Swagger oldSpec;
+  private Swagger newSpec;
+  private SpecFingerprint oldFingerprint;
+  private SpecFingerprint newFingerprint;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(paths)
+        .operationsPerPath(operationsPerPath)
+        .parametersPerOperation(parametersPerOperation)
+        .definitions(definitions)
+        .depth(depth)
+        .refCycles(refCycles)
+        .changeRatio(changeRatio);
+    oldSpec = generator.generate();
+    newSpec = generator.generateChanged();
+    oldFingerprint = SpecFingerprint.of(oldSpec);
+    newFingerprint = SpecFingerprint.of(newSpec);
+  }
+
+  @Benchmark
+  public SwaggerDiff compareV2() {
+    return SwaggerDiff.compareV2(oldSpec, newSpec, false);
+  }
+
+  @Benchmark
+  public SwaggerDiff compareV2WithExtensions() {
+    return SwaggerDiff.compareV2(oldSpec, newSpec, true);
+  }
+
+  /**
+   * {@link #compareV2()} timed and counted in memory, the difference is the cost of the metrics
+   */
+  @Benchmark
+  public SwaggerDiff compareV2WithMetrics() {
+    return SwaggerDiff.compareV2WithMetrics(oldSpec, newSpec, false, new InMemoryDiffMetrics());
+  }
+
+  /**
+   * Counts the changed operations without keeping the differences
+   */
+  @Benchmark
+  public int listener() {
+    int[] changed = new int[1];
+    SwaggerDiff.streamV2(oldSpec, newSpec, false, new DiffListener() {
+      @Override
+      public void onChangedOperation(String pathUrl, HttpMethod method, ChangedOperation operation) {
+        changed[0]++;
+      }
+    });
+    return changed[0];
+  }
+
+  @Benchmark
+  public SpecificationDiffResult fingerprintAndDiff() {
+    return SpecificationDiff.build(oldSpec, newSpec).fingerprint(true).diff();
+  }
+
+  @Benchmark
+  public SpecificationDiffResult diffFingerprinted() {
+    return SpecificationDiff.build(oldSpec, newSpec).fingerprints(oldFingerprint, newFingerprint).diff();
+  }
+}
@@ -0,0 +1,71 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.swagger.util.Json;
+
+/**
+ * {@link SwaggerDiff#compareV2(JsonNode, JsonNode)}, which parses both trees completely,
+ * against {@link SwaggerDiff#compareV2Tree(JsonNode, JsonNode)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeDiffBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int paths;
+
+  @Param({"200"})
+  public int definitions;
+
+  @Param({"4"})
+  public int depth;
+
+  @Param({"0.01", "0.05"})
+  public double changeRatio;
+
+  private JsonNode oldTree;
+  private JsonNode newTree;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(paths)
+        .operationsPerPath(3)
+        .parametersPerOperation(6)
+        .definitions(definitions)
+        .depth(depth)
+        .changeRatio(changeRatio);
+    oldTree = Json.mapper().valueToTree(generator.generate());
+    newTree = Json.mapper().valueToTree(generator.generateChanged());
+  }
+
+  @Benchmark
+  public SwaggerDiff compareV2Parsed() {
+    return SwaggerDiff.compareV2(oldTree, newTree);
+  }
+
+  @Benchmark
+  public SwaggerDiff compareV2Tree() {
+    return SwaggerDiff.compareV2Tree(oldTree, newTree);
+  }
+}
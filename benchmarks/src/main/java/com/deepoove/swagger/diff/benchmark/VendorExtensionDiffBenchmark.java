@@ -0,0 +1,67 @@
+package com.deepoove.swagger.diff.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.deepoove.swagger.diff.compare.VendorExtensionDiff;
+import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+
+import io.swagger.models.Operation;
+import io.swagger.models.Swagger;
+
+/**
+ * {@link VendorExtensionDiff} on operations and their responses, with extensions on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VendorExtensionDiffBenchmark {
+
+  @Param({"2", "50"})
+  public int vendorExtensions;
+
+  @Param({"true", "false"})
+  public boolean withExtensions;
+
+  private Operation left;
+  private Operation right;
+  private VendorExtensionDiff differ;
+
+  @Setup
+  public void setUp() {
+    SpecGenerator generator = SpecGenerator.create()
+        .paths(1)
+        .definitions(1)
+        .vendorExtensions(vendorExtensions);
+    Swagger oldSpec = generator.generate();
+    Swagger newSpec = generator.generate();
+    left = oldSpec.getPaths().get(SpecGenerator.pathUrl(0)).getGet();
+    right = newSpec.getPaths().get(SpecGenerator.pathUrl(0)).getGet();
+    right.setVendorExtension("x-added", "value");
+    differ = new VendorExtensionDiff(withExtensions);
+  }
+
+  @Benchmark
+  public ChangedExtensionGroup operation() {
+    return differ.diff(left, right);
+  }
+
+  @Benchmark
+  public ChangedExtensionGroup responses() {
+    return differ.diffResGroup(left.getResponses(), right.getResponses());
+  }
+}
@@ -0,0 +1,129 @@
+package com.deepoove.swagger.diff;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.swagger.models.Swagger;
+
+/**
+ * {@link SpecCache} evicting the least recently used specs once it holds more than a number of
+ * specs, or specs read from more than a number of bytes.
+ */
+public class LruSpecCache implements SpecCache {
+
+  private final int maxEntries;
+  private final long maxWeight;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+  private long weight;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  private LruSpecCache(int maxEntries, long maxWeight) {
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * @param maxEntries how many specs to keep at most
+   */
+  public static LruSpecCache maxEntries(int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+    }
+    return new LruSpecCache(maxEntries, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param maxWeight how many bytes of input the kept specs are read from at most, a spec read
+   *          from more is not cached
+   */
+  public static LruSpecCache maxWeight(long maxWeight) {
+    if (maxWeight < 1) {
+      throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+    }
+    return new LruSpecCache(Integer.MAX_VALUE, maxWeight);
+  }
+
+  @Override
+  public Swagger get(String key) {
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(key);
+    }
+    if (null == entry) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry.spec;
+  }
+
+  @Override
+  public synchronized void put(String key, Swagger spec, long weight) {
+    if (weight > maxWeight) {
+      return;
+    }
+    Entry previous = entries.put(key, new Entry(spec, weight));
+    if (null != previous) {
+      this.weight -= previous.weight;
+    }
+    this.weight += weight;
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (entries.size() > maxEntries || this.weight > maxWeight) {
+      this.weight -= eldest.next().weight;
+      eldest.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    weight = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  @Override
+  public String toString() {
+    Map<String, Long> stats = new LinkedHashMap<String, Long>();
+    stats.put("size", (long) size());
+    stats.put("weight", getWeight());
+    stats.put("hits", getHitCount());
+    stats.put("misses", getMissCount());
+    stats.put("evictions", getEvictionCount());
+    return "LruSpecCache" + stats;
+  }
+
+  private static final class Entry {
+    private final Swagger spec;
+    private final long weight;
+
+    private Entry(Swagger spec, long weight) {
+      this.spec = spec;
+      this.weight = weight;
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.deepoove.swagger.diff;
+
+import io.swagger.models.Swagger;
+
+/**
+ * Parsed specs keyed by the SHA-256 of their input, see {@link SpecDigest#getKey()}.
+ * <p>
+ * A cached spec is shared by every diff that reads the same input, possibly on several threads
+ * at once. Diffs only read specs, callers must not modify a spec they got from a cache.
+ * Implementations must be thread safe.
+ */
+public interface SpecCache {
+
+  /**
+   * @return the spec cached under the given key, or null
+   */
+  Swagger get(String key);
+
+  /**
+   * @param weight size of the input the spec was read from, in bytes
+   */
+  void put(String key, Swagger spec, long weight);
+}
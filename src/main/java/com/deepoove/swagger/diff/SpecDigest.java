@@ -0,0 +1,94 @@
+package com.deepoove.swagger.diff;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * SHA-256 keys of spec inputs for a {@link SpecCache}.
+ * <p>
+ * Raw input is hashed as is. A tree is hashed in its compact json form, so trees read from
+ * documents that only differ in whitespace get the same key. Field order is kept, it decides
+ * the order of the diff results.
+ */
+public final class SpecDigest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final String key;
+  private final long length;
+
+  private SpecDigest(String key, long length) {
+    this.key = key;
+    this.length = length;
+  }
+
+  public static SpecDigest of(byte[] spec) {
+    MessageDigest digest = newDigest();
+    digest.update(spec);
+    return new SpecDigest(hex(digest.digest()), spec.length);
+  }
+
+  public static SpecDigest of(JsonNode spec) {
+    final MessageDigest digest = newDigest();
+    final long[] length = new long[1];
+    OutputStream out = new OutputStream() {
+      @Override
+      public void write(int b) {
+        digest.update((byte) b);
+        length[0]++;
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        digest.update(b, off, len);
+        length[0] += len;
+      }
+    };
+    try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+      MAPPER.writeTree(generator, spec);
+    } catch (IOException e) {
+      // the stream only feeds the digest
+      throw new IllegalStateException(e);
+    }
+    return new SpecDigest(hex(digest.digest()), length[0]);
+  }
+
+  /**
+   * @return the SHA-256 of the input in hex
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * @return the size of the hashed input in bytes
+   */
+  public long getLength() {
+    return length;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+      chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+    }
+    return new String(chars);
+  }
+}
@@ -0,0 +1,141 @@
+package com.deepoove.swagger.diff;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import com.deepoove.swagger.diff.event.DiffEvents;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.Swagger;
+import io.swagger.models.auth.AuthorizationValue;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.parser.SwaggerResolver;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+
+/**
+ * Read swagger v2.0 docs in json or yaml straight into the swagger model.
+ * <p>
+ * The doc is bound to the model in one pass over a Jackson parser, with the mappers the swagger
+ * parser uses, and then resolved like {@link io.swagger.parser.SwaggerParser#read(com.fasterxml.jackson.databind.JsonNode, boolean)}
+ * does. No tree of the whole doc is built on the way.
+ */
+public final class SpecReader {
+
+  /**
+   * How far to look for the first token of a stream to tell json from yaml
+   */
+  private static final int SNIFF_LIMIT = 8192;
+
+  private SpecReader() {
+  }
+
+  public static Swagger read(byte[] spec) throws IOException {
+    return read(new ByteArrayInputStream(spec));
+  }
+
+  public static Swagger read(Path spec) throws IOException {
+    try (InputStream in = Files.newInputStream(spec)) {
+      return read(in);
+    }
+  }
+
+  /**
+   * Read a doc, or take it from the cache if a doc with the same bytes was read before.
+   *
+   * @return the resolved doc, shared with other readers of the cache, or null if the doc is empty
+   */
+  public static Swagger read(byte[] spec, SpecCache cache) throws IOException {
+    SpecDigest digest = SpecDigest.of(spec);
+    Swagger swagger = cache.get(digest.getKey());
+    if (null == swagger) {
+      swagger = read(spec);
+      if (null != swagger) {
+        cache.put(digest.getKey(), swagger, digest.getLength());
+      }
+    }
+    return swagger;
+  }
+
+  public static Swagger read(Path spec, SpecCache cache) throws IOException {
+    return read(Files.readAllBytes(spec), cache);
+  }
+
+  /**
+   * Parse a doc tree like {@link SwaggerParser#read(JsonNode, boolean)}, or take it from the cache
+   * if an equal tree was parsed before.
+   *
+   * @return the resolved doc, shared with other readers of the cache, or null if the tree is no doc
+   */
+  public static Swagger read(JsonNode spec, SpecCache cache) {
+    SpecDigest digest = SpecDigest.of(spec);
+    Swagger swagger = cache.get(digest.getKey());
+    if (null == swagger) {
+      Object event = DiffEvents.beginParse();
+      swagger = new SwaggerParser().read(spec, true);
+      DiffEvents.endParse(event, "tree", swagger);
+      if (null != swagger) {
+        cache.put(digest.getKey(), swagger, digest.getLength());
+      }
+    }
+    return swagger;
+  }
+
+  /**
+   * Read a doc from the given stream, the stream is not closed.
+   *
+   * @return the resolved doc, or null if the stream is empty
+   */
+  public static Swagger read(InputStream spec) throws IOException {
+    Object event = DiffEvents.beginParse();
+    InputStream in = spec.markSupported() ? spec : new BufferedInputStream(spec);
+    boolean json = isJson(in);
+    ObjectMapper mapper = json ? Json.mapper() : Yaml.mapper();
+    JsonParser parser = mapper.getFactory().createParser(in);
+    parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    Swagger swagger;
+    try {
+      if (null == parser.nextToken()) {
+        return null;
+      }
+      swagger = mapper.readValue(parser, Swagger.class);
+    } finally {
+      parser.close();
+    }
+    if (null == swagger) {
+      return null;
+    }
+    swagger = new SwaggerResolver(swagger, new ArrayList<AuthorizationValue>()).resolve();
+    DiffEvents.endParse(event, json ? "json" : "yaml", swagger);
+    return swagger;
+  }
+
+  /**
+   * A json doc starts with an object, everything else is read as yaml, which is slower to parse.
+   */
+  private static boolean isJson(InputStream in) throws IOException {
+    in.mark(SNIFF_LIMIT);
+    try {
+      for (int i = 0; i < SNIFF_LIMIT; i++) {
+        int b = in.read();
+        if (b == '{') {
+          return true;
+        }
+        // whitespace and the utf-8 byte order mark
+        if (b != ' ' && b != '\t' && b != '\r' && b != '\n' && b != 0xEF && b != 0xBB && b != 0xBF) {
+          return false;
+        }
+      }
+      return false;
+    } finally {
+      in.reset();
+    }
+  }
+}
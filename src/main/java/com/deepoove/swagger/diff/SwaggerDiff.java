@@ -1,12 +1,26 @@
 package com.deepoove.swagger.diff;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.deepoove.swagger.diff.compare.SpecificationDiff;
 import com.deepoove.swagger.diff.compare.SpecificationDiffResult;
+import com.deepoove.swagger.diff.compare.BreakingChangeCheck;
+import com.deepoove.swagger.diff.compare.DiffListener;
+import com.deepoove.swagger.diff.compare.DiffMetrics;
+import com.deepoove.swagger.diff.compare.SpecIndex;
+import com.deepoove.swagger.diff.compare.SpecificationTreeDiff;
+import com.deepoove.swagger.diff.event.DiffEvents;
 import com.deepoove.swagger.diff.model.ChangedEndpoint;
 import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
 import com.deepoove.swagger.diff.model.Endpoint;
@@ -30,6 +44,7 @@ public class SwaggerDiff {
 
   private ChangedExtensionGroup changedVendorExtensions;
 
+  private boolean hasContractChanges;
   private boolean hasOnlyCosmeticChanges;
 
   /**
@@ -46,6 +61,114 @@ public class SwaggerDiff {
     return new SwaggerDiff(oldSpec, newSpec).compare(withExtensions);
   }
 
+  /**
+   * Compare two swagger v2.0 docs by JsonNode, diffing the shared paths in parallel
+   *
+   * @param executor executor running the per path diffs, e.g. a {@link java.util.concurrent.ForkJoinPool},
+   *        or null to diff sequentially
+   */
+  public static SwaggerDiff compareV2Parallel(JsonNode oldSpec, JsonNode newSpec, boolean withExtensions, Executor executor) {
+    return new SwaggerDiff(oldSpec, newSpec).compare(withExtensions, executor);
+  }
+
+  /**
+   * Compare two swagger v2.0 docs by JsonNode, reporting the parsing and the diff to the metrics
+   *
+   * @param metrics receives the timings and counts, or null to report nothing
+   */
+  public static SwaggerDiff compareV2WithMetrics(JsonNode oldSpec, JsonNode newSpec, boolean withExtensions, DiffMetrics metrics) {
+    metrics = orNoop(metrics);
+    return new SwaggerDiff(oldSpec, newSpec, metrics).compare(withExtensions, null, metrics);
+  }
+
+  /**
+   * Compare two swagger v2.0 docs by JsonNode without parsing them completely: paths that
+   * are equal in both docs are never converted to swagger models. The result is the one of
+   * {@link #compareV2(JsonNode, JsonNode)}, but the docs it keeps are sparse: they hold the
+   * paths that differ only, their info is complete. Both docs must declare {@code "swagger": "2.0"}.
+   *
+   * @param oldSpec old Swagger specification document in v2.0 format as a JsonNode
+   * @param newSpec new Swagger specification document in v2.0 format as a JsonNode
+   */
+  public static SwaggerDiff compareV2Tree(JsonNode oldSpec, JsonNode newSpec) {
+    return compareV2Tree(oldSpec, newSpec, false);
+  }
+
+  public static SwaggerDiff compareV2Tree(JsonNode oldSpec, JsonNode newSpec, boolean withExtensions) {
+    return compareV2Tree(oldSpec, newSpec, withExtensions, null);
+  }
+
+  public static SwaggerDiff compareV2Tree(JsonNode oldSpec, JsonNode newSpec, boolean withExtensions, Executor executor) {
+    if (null == oldSpec || null == newSpec) {
+      throw new RuntimeException(
+          "cannot read api-doc from spec.");
+    }
+    SpecificationTreeDiff treeDiff = SpecificationTreeDiff.build(oldSpec, newSpec, withExtensions)
+        .executor(executor);
+    SpecificationDiffResult diff = treeDiff.diff();
+    return new SwaggerDiff(treeDiff.getOldSpec(), treeDiff.getNewSpec()).apply(diff);
+  }
+
+  /**
+   * Compare two swagger v2.0 docs in json or yaml, each read into the swagger model in one
+   * streaming pass
+   *
+   * @param oldSpec old Swagger specification document in v2.0 format, the stream is not closed
+   * @param newSpec new Swagger specification document in v2.0 format, the stream is not closed
+   */
+  public static SwaggerDiff compareV2(InputStream oldSpec, InputStream newSpec) throws IOException {
+    return compareV2(oldSpec, newSpec, false);
+  }
+
+  public static SwaggerDiff compareV2(InputStream oldSpec, InputStream newSpec, boolean withExtensions) throws IOException {
+    return compareV2(SpecReader.read(oldSpec), SpecReader.read(newSpec), withExtensions);
+  }
+
+  public static SwaggerDiff compareV2(Path oldSpec, Path newSpec) throws IOException {
+    return compareV2(oldSpec, newSpec, false);
+  }
+
+  public static SwaggerDiff compareV2(Path oldSpec, Path newSpec, boolean withExtensions) throws IOException {
+    return compareV2(SpecReader.read(oldSpec), SpecReader.read(newSpec), withExtensions);
+  }
+
+  /**
+   * Compare two swagger v2.0 docs read from files, reporting the reading and the diff to the metrics
+   */
+  public static SwaggerDiff compareV2WithMetrics(Path oldSpec, Path newSpec, boolean withExtensions, DiffMetrics metrics) throws IOException {
+    metrics = orNoop(metrics);
+    long start = metrics.nanoTime();
+    Swagger oldSwagger = SpecReader.read(oldSpec);
+    Swagger newSwagger = SpecReader.read(newSpec);
+    metrics.onPhase(DiffMetrics.Phase.PARSE, metrics.nanoTime() - start);
+    return compareV2WithMetrics(oldSwagger, newSwagger, withExtensions, metrics);
+  }
+
+  public static SwaggerDiff compareV2(byte[] oldSpec, byte[] newSpec) throws IOException {
+    return compareV2(oldSpec, newSpec, false);
+  }
+
+  public static SwaggerDiff compareV2(byte[] oldSpec, byte[] newSpec, boolean withExtensions) throws IOException {
+    return compareV2(SpecReader.read(oldSpec), SpecReader.read(newSpec), withExtensions);
+  }
+
+  /**
+   * Compare two swagger v2.0 docs, reusing the docs parsed before from equal input
+   *
+   * @param cache parsed docs, shared by concurrent and later compares
+   */
+  public static SwaggerDiff compareV2Cached(JsonNode oldSpec, JsonNode newSpec, boolean withExtensions, SpecCache cache) {
+    return compareV2(SpecReader.read(oldSpec, cache), SpecReader.read(newSpec, cache), withExtensions);
+  }
+
+  public static SwaggerDiff compareV2Cached(Path oldSpec, Path newSpec, boolean withExtensions, SpecCache cache) throws IOException {
+    return compareV2(SpecReader.read(oldSpec, cache), SpecReader.read(newSpec, cache), withExtensions);
+  }
+
+  public static SwaggerDiff compareV2Cached(byte[] oldSpec, byte[] newSpec, boolean withExtensions, SpecCache cache) throws IOException {
+    return compareV2(SpecReader.read(oldSpec, cache), SpecReader.read(newSpec, cache), withExtensions);
+  }
+
   public static SwaggerDiff compareV2(Swagger oldSpec, Swagger newSpec) {
     return compareV2(oldSpec, newSpec, false);
   }
@@ -54,6 +177,76 @@ public class SwaggerDiff {
     return new SwaggerDiff(oldSpec, newSpec).compare(withExtensions);
   }
 
+  /**
+   * @see #compareV2Parallel(JsonNode, JsonNode, boolean, Executor)
+   */
+  public static SwaggerDiff compareV2Parallel(Swagger oldSpec, Swagger newSpec, boolean withExtensions, Executor executor) {
+    return new SwaggerDiff(oldSpec, newSpec).compare(withExtensions, executor);
+  }
+
+  /**
+   * Compare two swagger v2.0 docs, reporting the phase timings and work counts of the diff to the metrics
+   */
+  public static SwaggerDiff compareV2WithMetrics(Swagger oldSpec, Swagger newSpec, boolean withExtensions, DiffMetrics metrics) {
+    return new SwaggerDiff(oldSpec, newSpec).compare(withExtensions, null, orNoop(metrics));
+  }
+
+  private static DiffMetrics orNoop(DiffMetrics metrics) {
+    return null == metrics ? DiffMetrics.NOOP : metrics;
+  }
+
+  /**
+   * Compare two swagger v2.0 docs, sending the differences to the listener as they are found
+   * instead of collecting them
+   */
+  public static void streamV2(Swagger oldSpec, Swagger newSpec, boolean withExtensions, DiffListener listener) {
+    if (null == oldSpec || null == newSpec) {
+      throw new RuntimeException(
+          "cannot read api-doc from spec.");
+    }
+    SpecificationDiff.build(oldSpec, newSpec, withExtensions).diff(listener);
+  }
+
+  /**
+   * Tell whether the new doc breaks clients of the old one: a missing endpoint, parameter or
+   * property, or with extensions a differing vendor extension. Stops at the first break without
+   * building the diff.
+   */
+  public static boolean hasBreakingChanges(Swagger oldSpec, Swagger newSpec) {
+    return hasBreakingChanges(oldSpec, newSpec, false);
+  }
+
+  public static boolean hasBreakingChanges(Swagger oldSpec, Swagger newSpec, boolean withExtensions) {
+    if (null == oldSpec || null == newSpec) {
+      throw new RuntimeException(
+          "cannot read api-doc from spec.");
+    }
+    return BreakingChangeCheck.build(oldSpec, newSpec, withExtensions).check();
+  }
+
+  public static boolean hasBreakingChanges(JsonNode oldSpec, JsonNode newSpec, boolean withExtensions) {
+    SwaggerParser swaggerParser = new SwaggerParser();
+    return hasBreakingChanges(swaggerParser.read(oldSpec, true), swaggerParser.read(newSpec, true), withExtensions);
+  }
+
+  /**
+   * Prepare an old swagger v2.0 doc to be compared with many new docs. The baseline is
+   * immutable and can be shared by concurrent compares.
+   *
+   * @param oldSpec old Swagger specification document, must not be modified afterwards
+   */
+  public static Baseline baseline(Swagger oldSpec) {
+    return baseline(oldSpec, false);
+  }
+
+  public static Baseline baseline(Swagger oldSpec, boolean withExtensions) {
+    if (null == oldSpec) {
+      throw new RuntimeException(
+          "cannot read api-doc from spec.");
+    }
+    return new Baseline(SpecIndex.of(oldSpec), withExtensions);
+  }
+
   private SwaggerDiff(Swagger oldSpec, Swagger newSpec) {
     this.oldSpec = oldSpec;
     this.newSpec = newSpec;
@@ -64,21 +257,54 @@ public class SwaggerDiff {
   }
 
   private SwaggerDiff(JsonNode oldSpec, JsonNode newSpec) {
+    this(oldSpec, newSpec, DiffMetrics.NOOP);
+  }
+
+  private SwaggerDiff(JsonNode oldSpec, JsonNode newSpec, DiffMetrics metrics) {
+    long start = metrics.nanoTime();
     SwaggerParser swaggerParser = new SwaggerParser();
-    this.oldSpec = swaggerParser.read(oldSpec, true);
-    this.newSpec = swaggerParser.read(newSpec, true);
+    this.oldSpec = read(swaggerParser, oldSpec);
+    this.newSpec = read(swaggerParser, newSpec);
+    metrics.onPhase(DiffMetrics.Phase.PARSE, metrics.nanoTime() - start);
     if (null == this.oldSpec || null == this.newSpec) {
       throw new RuntimeException(
           "cannot read api-doc from spec.");
     }
   }
 
+  private static Swagger read(SwaggerParser swaggerParser, JsonNode spec) {
+    Object event = DiffEvents.beginParse();
+    Swagger swagger = swaggerParser.read(spec, true);
+    DiffEvents.endParse(event, "tree", swagger);
+    return swagger;
+  }
+
   private SwaggerDiff compare(boolean withExtensions) {
-    SpecificationDiffResult diff = SpecificationDiff.build(oldSpec, newSpec, withExtensions).diff();
+    return compare(withExtensions, null);
+  }
+
+  private SwaggerDiff compare(boolean withExtensions, Executor executor) {
+    return compare(withExtensions, executor, DiffMetrics.NOOP);
+  }
+
+  private SwaggerDiff compare(boolean withExtensions, Executor executor, DiffMetrics metrics) {
+    SpecificationDiffResult diff = SpecificationDiff.build(oldSpec, newSpec, withExtensions)
+        .executor(executor)
+        .metrics(metrics)
+        .diff();
+    return apply(diff);
+  }
+
+  private SwaggerDiff compare(SpecIndex oldIndex, boolean withExtensions) {
+    return apply(SpecificationDiff.build(oldIndex, newSpec, withExtensions).diff());
+  }
+
+  private SwaggerDiff apply(SpecificationDiffResult diff) {
     this.newEndpoints = diff.getNewEndpoints();
     this.missingEndpoints = diff.getMissingEndpoints();
     this.changedEndpoints = diff.getChangedEndpoints();
     this.changedVendorExtensions = diff;
+    this.hasContractChanges = diff.hasContractChanges();
     this.hasOnlyCosmeticChanges = diff.hasOnlyCosmeticChanges();
     return this;
   }
@@ -99,15 +325,95 @@ public class SwaggerDiff {
     return changedVendorExtensions;
   }
 
+  /**
+   * @return the version of the old spec, or null if it has no info
+   */
   public String getOldVersion() {
-    return oldSpec.getInfo().getVersion();
+    return version(oldSpec);
   }
 
+  /**
+   * @return the version of the new spec, or null if it has no info
+   */
   public String getNewVersion() {
-    return newSpec.getInfo().getVersion();
+    return version(newSpec);
+  }
+
+  private static String version(Swagger spec) {
+    return null == spec.getInfo() ? null : spec.getInfo().getVersion();
+  }
+
+  public boolean hasContractChanges() {
+    return hasContractChanges;
   }
 
   public boolean hasOnlyCosmeticChanges() {
     return hasOnlyCosmeticChanges;
   }
+
+  /**
+   * An old doc indexed once, to be compared with many new docs
+   */
+  public static final class Baseline {
+
+    private final SpecIndex index;
+    private final boolean withExtensions;
+
+    private Baseline(SpecIndex index, boolean withExtensions) {
+      this.index = index;
+      this.withExtensions = withExtensions;
+    }
+
+    public SwaggerDiff compare(Swagger newSpec) {
+      return new SwaggerDiff(index.getSpec(), newSpec).compare(index, withExtensions);
+    }
+
+    /**
+     * @see SwaggerDiff#hasBreakingChanges(Swagger, Swagger, boolean)
+     */
+    public boolean hasBreakingChanges(Swagger newSpec) {
+      return SwaggerDiff.hasBreakingChanges(index.getSpec(), newSpec, withExtensions);
+    }
+
+    /**
+     * Compare with each of the new docs, concurrently on the common fork join pool
+     *
+     * @return the diffs in the order of the new docs
+     */
+    public List<SwaggerDiff> compareAll(List<Swagger> newSpecs) {
+      return compareAll(newSpecs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor executor running one compare per new doc, or null to compare sequentially
+     */
+    public List<SwaggerDiff> compareAll(List<Swagger> newSpecs, Executor executor) {
+      List<SwaggerDiff> diffs = new ArrayList<SwaggerDiff>(newSpecs.size());
+      if (null == executor) {
+        for (Swagger newSpec : newSpecs) {
+          diffs.add(compare(newSpec));
+        }
+        return diffs;
+      }
+      List<CompletableFuture<SwaggerDiff>> futures = new ArrayList<CompletableFuture<SwaggerDiff>>(newSpecs.size());
+      for (Swagger newSpec : newSpecs) {
+        futures.add(CompletableFuture.supplyAsync(() -> compare(newSpec), executor));
+      }
+      for (CompletableFuture<SwaggerDiff> future : futures) {
+        try {
+          diffs.add(future.join());
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw e;
+        }
+      }
+      return diffs;
+    }
+
+    public Swagger getOldSpec() {
+      return index.getSpec();
+    }
+  }
 }
@@ -0,0 +1,219 @@
+package com.deepoove.swagger.diff;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+
+/**
+ * The diffs between consecutive versions of a swagger v2.0 doc, e.g. v1 to v2, v2 to v3 and so on.
+ * <p>
+ * Every version is parsed once, and each diff starts as soon as both of its versions are parsed,
+ * concurrently with the other parses and diffs. A version is shared by the diffs on both of its
+ * sides, diffs only read the specs.
+ */
+public class SwaggerDiffHistory {
+
+  private final List<SwaggerDiff> diffs;
+  private final List<Step> steps;
+
+  private SwaggerDiffHistory(List<SwaggerDiff> diffs) {
+    List<Step> steps = new ArrayList<Step>(diffs.size());
+    for (SwaggerDiff diff : diffs) {
+      steps.add(new Step(diff));
+    }
+    this.diffs = Collections.unmodifiableList(diffs);
+    this.steps = Collections.unmodifiableList(steps);
+  }
+
+  /**
+   * Compare each doc with the next one, on the common fork join pool
+   *
+   * @param specs docs ordered from the oldest to the newest version
+   */
+  public static SwaggerDiffHistory compareV2(List<Swagger> specs, boolean withExtensions) {
+    return compareV2(specs, withExtensions, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param executor executor running the diffs, or null to run them one after another
+   */
+  public static SwaggerDiffHistory compareV2(List<Swagger> specs, boolean withExtensions, Executor executor) {
+    return history(specs, Function.identity(), withExtensions, executor);
+  }
+
+  public static SwaggerDiffHistory compareV2Trees(List<JsonNode> specs, boolean withExtensions) {
+    return compareV2Trees(specs, withExtensions, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param executor executor running the parses and diffs, or null to run them one after another
+   */
+  public static SwaggerDiffHistory compareV2Trees(List<JsonNode> specs, boolean withExtensions, Executor executor) {
+    return history(specs, spec -> new SwaggerParser().read(spec, true), withExtensions, executor);
+  }
+
+  /**
+   * Compare docs in json or yaml files
+   */
+  public static SwaggerDiffHistory compareV2Paths(List<Path> specs, boolean withExtensions) throws IOException {
+    return compareV2Paths(specs, withExtensions, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * @param executor executor running the reads and diffs, or null to run them one after another
+   */
+  public static SwaggerDiffHistory compareV2Paths(List<Path> specs, boolean withExtensions, Executor executor) throws IOException {
+    try {
+      return history(specs, spec -> {
+        try {
+          return SpecReader.read(spec);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }, withExtensions, executor);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static <T> SwaggerDiffHistory history(List<T> specs, Function<T, Swagger> parser, boolean withExtensions,
+                                                Executor executor) {
+    List<SwaggerDiff> diffs = new ArrayList<SwaggerDiff>(Math.max(0, specs.size() - 1));
+    if (null == executor) {
+      Swagger previous = null;
+      for (int i = 0; i < specs.size(); i++) {
+        Swagger spec = parser.apply(specs.get(i));
+        if (i > 0) {
+          diffs.add(SwaggerDiff.compareV2(previous, spec, withExtensions));
+        }
+        previous = spec;
+      }
+      return new SwaggerDiffHistory(diffs);
+    }
+
+    List<CompletableFuture<Swagger>> parsed = new ArrayList<CompletableFuture<Swagger>>(specs.size());
+    for (T spec : specs) {
+      parsed.add(CompletableFuture.supplyAsync(() -> parser.apply(spec), executor));
+    }
+    List<CompletableFuture<SwaggerDiff>> futures = new ArrayList<CompletableFuture<SwaggerDiff>>(diffs.size());
+    for (int i = 1; i < parsed.size(); i++) {
+      futures.add(parsed.get(i - 1).thenCombineAsync(parsed.get(i),
+          (oldSpec, newSpec) -> SwaggerDiff.compareV2(oldSpec, newSpec, withExtensions), executor));
+    }
+    for (CompletableFuture<SwaggerDiff> future : futures) {
+      diffs.add(join(future));
+    }
+    // a single version has no diff waiting for its parse
+    for (CompletableFuture<Swagger> future : parsed) {
+      join(future);
+    }
+    return new SwaggerDiffHistory(diffs);
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * @return the diff of each version with the next one, oldest first
+   */
+  public List<SwaggerDiff> getDiffs() {
+    return diffs;
+  }
+
+  /**
+   * @return the endpoint counts of each diff, oldest first
+   */
+  public List<Step> getSteps() {
+    return steps;
+  }
+
+  public int getNewEndpointCount() {
+    int count = 0;
+    for (Step step : steps) {
+      count += step.getNewEndpointCount();
+    }
+    return count;
+  }
+
+  public int getMissingEndpointCount() {
+    int count = 0;
+    for (Step step : steps) {
+      count += step.getMissingEndpointCount();
+    }
+    return count;
+  }
+
+  public int getChangedEndpointCount() {
+    int count = 0;
+    for (Step step : steps) {
+      count += step.getChangedEndpointCount();
+    }
+    return count;
+  }
+
+  /**
+   * The endpoint counts of the diff between two consecutive versions
+   */
+  public static class Step {
+    private final String oldVersion;
+    private final String newVersion;
+    private final int newEndpointCount;
+    private final int missingEndpointCount;
+    private final int changedEndpointCount;
+
+    private Step(SwaggerDiff diff) {
+      this.oldVersion = diff.getOldVersion();
+      this.newVersion = diff.getNewVersion();
+      this.newEndpointCount = diff.getNewEndpoints().size();
+      this.missingEndpointCount = diff.getMissingEndpoints().size();
+      this.changedEndpointCount = diff.getChangedEndpoints().size();
+    }
+
+    /**
+     * @return the version of the old spec, or null if it has no info
+     */
+    public String getOldVersion() {
+      return oldVersion;
+    }
+
+    /**
+     * @return the version of the new spec, or null if it has no info
+     */
+    public String getNewVersion() {
+      return newVersion;
+    }
+
+    public int getNewEndpointCount() {
+      return newEndpointCount;
+    }
+
+    public int getMissingEndpointCount() {
+      return missingEndpointCount;
+    }
+
+    public int getChangedEndpointCount() {
+      return changedEndpointCount;
+    }
+  }
+}
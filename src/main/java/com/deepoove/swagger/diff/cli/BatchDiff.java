@@ -0,0 +1,476 @@
+package com.deepoove.swagger.diff.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.deepoove.swagger.diff.SpecReader;
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.model.ChangedEndpoint;
+import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+
+/**
+ * Compares many pairs of specs, one pair per service, and writes one NDJSON line per service.
+ * <p>
+ * The files are read on a small pool of I/O threads and parsed and compared on a pool of one
+ * thread per processor. At most two pairs per thread are in flight, so memory is bounded by
+ * the largest specs whatever the number of services. A pair whose files have the same bytes
+ * is reported unchanged without being parsed. Lines come in the order the services finish.
+ */
+public class BatchDiff {
+
+  /**
+   * No service has breaking changes
+   */
+  public static final int EXIT_OK = 0;
+  /**
+   * A service has breaking changes or its new spec is missing
+   */
+  public static final int EXIT_BREAKING = 1;
+  /**
+   * A spec could not be read or compared, or the arguments were wrong
+   */
+  public static final int EXIT_ERROR = 2;
+
+  private static final String[] SPEC_SUFFIXES = {".json", ".yaml", ".yml"};
+
+  private final List<SpecPair> pairs;
+  private boolean withExtensions;
+  private int ioThreads = 4;
+  private int cpuThreads = Runtime.getRuntime().availableProcessors();
+
+  private BatchDiff(List<SpecPair> pairs) {
+    this.pairs = pairs;
+  }
+
+  public static BatchDiff build(List<SpecPair> pairs) {
+    return new BatchDiff(pairs);
+  }
+
+  public BatchDiff withExtensions(boolean withExtensions) {
+    this.withExtensions = withExtensions;
+    return this;
+  }
+
+  public BatchDiff ioThreads(int ioThreads) {
+    this.ioThreads = Math.max(1, ioThreads);
+    return this;
+  }
+
+  public BatchDiff cpuThreads(int cpuThreads) {
+    this.cpuThreads = Math.max(1, cpuThreads);
+    return this;
+  }
+
+  /**
+   * Pairs the spec files of two directories by file name. A file found in one directory only
+   * is paired with null.
+   */
+  public static List<SpecPair> fromDirectories(Path oldDir, Path newDir) throws IOException {
+    Map<String, Path[]> files = new TreeMap<String, Path[]>();
+    listSpecs(oldDir, files, 0);
+    listSpecs(newDir, files, 1);
+    List<SpecPair> pairs = new ArrayList<SpecPair>(files.size());
+    for (Map.Entry<String, Path[]> entry : files.entrySet()) {
+      pairs.add(new SpecPair(serviceName(entry.getKey()), entry.getValue()[0], entry.getValue()[1]));
+    }
+    return pairs;
+  }
+
+  /**
+   * Reads a manifest of one service per line: its name, the path of its old spec and the path
+   * of its new spec, separated by whitespace. Relative paths are resolved against the
+   * directory of the manifest, blank lines and lines starting with {@code #} are skipped.
+   */
+  public static List<SpecPair> fromManifest(Path manifest) throws IOException {
+    Path base = manifest.toAbsolutePath().getParent();
+    List<SpecPair> pairs = new ArrayList<SpecPair>();
+    try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+      int number = 0;
+      for (String line = reader.readLine(); null != line; line = reader.readLine()) {
+        number++;
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] fields = line.split("\\s+");
+        if (3 != fields.length) {
+          throw new IllegalArgumentException(manifest + ":" + number + ": expected <service> <old spec> <new spec>");
+        }
+        pairs.add(new SpecPair(fields[0], base.resolve(fields[1]), base.resolve(fields[2])));
+      }
+    }
+    return pairs;
+  }
+
+  /**
+   * Compares every pair and writes its line, then a last line summing them up
+   *
+   * @param out the stream to write to, flushed but not closed
+   */
+  public Summary run(OutputStream out) throws IOException {
+    Summary summary = new Summary();
+    long start = System.nanoTime();
+    ExecutorService ioPool = Executors.newFixedThreadPool(ioThreads, threadFactory("swagger-diff-io"));
+    ExecutorService cpuPool = Executors.newFixedThreadPool(cpuThreads, threadFactory("swagger-diff-cpu"));
+    try (JsonGenerator generator = createGenerator(out)) {
+      run(generator, summary, ioPool, cpuPool);
+      summary.millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      writeSummary(generator, summary);
+    } finally {
+      ioPool.shutdownNow();
+      cpuPool.shutdownNow();
+    }
+    return summary;
+  }
+
+  private void run(JsonGenerator generator, Summary summary, ExecutorService ioPool, ExecutorService cpuPool) throws IOException {
+    Semaphore inFlight = new Semaphore(2 * (ioThreads + cpuThreads));
+    List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>(pairs.size());
+    for (SpecPair pair : pairs) {
+      inFlight.acquireUninterruptibly();
+      futures.add(CompletableFuture.supplyAsync(() -> read(pair), ioPool)
+          .thenApplyAsync(this::compare, cpuPool)
+          .exceptionally(e -> Result.error(pair, e instanceof CompletionException ? e.getCause() : e))
+          .thenAccept(result -> {
+            try {
+              synchronized (generator) {
+                summary.add(result);
+                writeResult(generator, result);
+              }
+            } finally {
+              inFlight.release();
+            }
+          }));
+    }
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static JsonGenerator createGenerator(OutputStream out) throws IOException {
+    JsonGenerator generator = Json.mapper().getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    generator.setRootValueSeparator(null);
+    return generator;
+  }
+
+  private Result read(SpecPair pair) {
+    Result result = new Result(pair);
+    long start = System.nanoTime();
+    try {
+      result.oldBytes = null == pair.oldSpec ? null : Files.readAllBytes(pair.oldSpec);
+      result.newBytes = null == pair.newSpec ? null : Files.readAllBytes(pair.newSpec);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    result.readNanos = System.nanoTime() - start;
+    return result;
+  }
+
+  private Result compare(Result result) {
+    long start = System.nanoTime();
+    if (null == result.oldBytes) {
+      result.status = Status.ADDED;
+    } else if (null == result.newBytes) {
+      result.status = Status.REMOVED;
+    } else if (Arrays.equals(result.oldBytes, result.newBytes)) {
+      result.status = Status.UNCHANGED;
+    } else {
+      try {
+        Swagger oldSpec = SpecReader.read(result.oldBytes);
+        Swagger newSpec = SpecReader.read(result.newBytes);
+        // the bytes are no longer needed while the specs are compared
+        result.oldBytes = null;
+        result.newBytes = null;
+        SwaggerDiff diff = SwaggerDiff.compareV2(oldSpec, newSpec, withExtensions);
+        result.newEndpoints = diff.getNewEndpoints().size();
+        result.missingEndpoints = diff.getMissingEndpoints().size();
+        result.changedEndpoints = diff.getChangedEndpoints().size();
+        result.hasOnlyCosmeticChanges = diff.hasOnlyCosmeticChanges();
+        if (breaks(diff)) {
+          result.status = Status.BREAKING;
+        } else if (0 == result.newEndpoints + result.missingEndpoints + result.changedEndpoints
+            && !diff.getChangedVendorExtensions().vendorExtensionsAreDiff()) {
+          result.status = Status.UNCHANGED;
+        } else {
+          result.status = Status.CHANGED;
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    result.oldBytes = null;
+    result.newBytes = null;
+    result.diffNanos = System.nanoTime() - start;
+    return result;
+  }
+
+  /**
+   * Read a break, as {@link SwaggerDiff#hasBreakingChanges(Swagger, Swagger, boolean)} tells it,
+   * from the diff already made instead of going through both specs again
+   */
+  static boolean breaks(SwaggerDiff diff) {
+    if (!diff.getMissingEndpoints().isEmpty()) {
+      return true;
+    }
+    for (ChangedEndpoint changedEndpoint : diff.getChangedEndpoints()) {
+      for (ChangedOperation changedOperation : changedEndpoint.getChangedOperations().values()) {
+        if (!changedOperation.getMissingParameters().isEmpty() || !changedOperation.getMissingProps().isEmpty()) {
+          return true;
+        }
+        for (ChangedParameter changedParameter : changedOperation.getChangedParameters()) {
+          if (!changedParameter.getMissing().isEmpty()) {
+            return true;
+          }
+        }
+      }
+    }
+    // vendor extensions are only compared with extensions, and those of tags are no break
+    ChangedExtensionGroup extensions = diff.getChangedVendorExtensions();
+    if (extensions.vendorExtensionsAreDiffShallow()) {
+      return true;
+    }
+    for (Map.Entry<String, ChangedExtensionGroup> entry : extensions.getChangedSubGroups().entrySet()) {
+      if (!"tags".equals(entry.getKey()) && entry.getValue().vendorExtensionsAreDiff()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void writeResult(JsonGenerator generator, Result result) {
+    try {
+      generator.writeStartObject();
+      generator.writeStringField("service", result.pair.service);
+      generator.writeStringField("status", result.status.toString().toLowerCase(Locale.ROOT));
+      if (null != result.pair.oldSpec) {
+        generator.writeStringField("old", result.pair.oldSpec.toString());
+      }
+      if (null != result.pair.newSpec) {
+        generator.writeStringField("new", result.pair.newSpec.toString());
+      }
+      if (Status.ERROR == result.status) {
+        generator.writeStringField("error", String.valueOf(result.error));
+      } else if (Status.CHANGED == result.status || Status.BREAKING == result.status) {
+        generator.writeNumberField("newEndpoints", result.newEndpoints);
+        generator.writeNumberField("missingEndpoints", result.missingEndpoints);
+        generator.writeNumberField("changedEndpoints", result.changedEndpoints);
+        generator.writeBooleanField("hasOnlyCosmeticChanges", result.hasOnlyCosmeticChanges);
+      }
+      generator.writeNumberField("readMillis", TimeUnit.NANOSECONDS.toMillis(result.readNanos));
+      generator.writeNumberField("diffMillis", TimeUnit.NANOSECONDS.toMillis(result.diffNanos));
+      generator.writeEndObject();
+      generator.writeRaw('\n');
+      generator.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeSummary(JsonGenerator generator, Summary summary) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("status", "summary");
+    generator.writeNumberField("services", summary.services);
+    generator.writeNumberField("unchanged", summary.unchanged);
+    generator.writeNumberField("changed", summary.changed);
+    generator.writeNumberField("breaking", summary.breaking);
+    generator.writeNumberField("errors", summary.errors);
+    generator.writeNumberField("millis", summary.millis);
+    generator.writeNumberField("exitCode", summary.exitCode());
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+    generator.flush();
+  }
+
+  private static void listSpecs(Path dir, Map<String, Path[]> files, int side) throws IOException {
+    // not a try-with-resources: findbugs takes the null check javac adds before close() for a redundant one
+    DirectoryStream<Path> stream = Files.newDirectoryStream(dir);
+    try {
+      for (Path file : stream) {
+        String name = String.valueOf(file.getFileName());
+        if (Files.isRegularFile(file) && null != serviceName(name)) {
+          files.computeIfAbsent(name, key -> new Path[2])[side] = file;
+        }
+      }
+    } finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * @return the file name without its spec suffix, or null if it is no spec
+   */
+  private static String serviceName(String fileName) {
+    for (String suffix : SPEC_SUFFIXES) {
+      if (fileName.endsWith(suffix)) {
+        return fileName.substring(0, fileName.length() - suffix.length());
+      }
+    }
+    return null;
+  }
+
+  private static ThreadFactory threadFactory(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * The old and the new spec of a service, either may be null when the service was added or
+   * removed
+   */
+  public static final class SpecPair {
+
+    private final String service;
+    private final Path oldSpec;
+    private final Path newSpec;
+
+    public SpecPair(String service, Path oldSpec, Path newSpec) {
+      this.service = service;
+      this.oldSpec = oldSpec;
+      this.newSpec = newSpec;
+    }
+
+    public String getService() {
+      return service;
+    }
+
+    public Path getOldSpec() {
+      return oldSpec;
+    }
+
+    public Path getNewSpec() {
+      return newSpec;
+    }
+  }
+
+  enum Status {
+    UNCHANGED, CHANGED, BREAKING, ADDED, REMOVED, ERROR
+  }
+
+  private static final class Result {
+    private final SpecPair pair;
+    private Status status;
+    private String error;
+    private byte[] oldBytes;
+    private byte[] newBytes;
+    private int newEndpoints;
+    private int missingEndpoints;
+    private int changedEndpoints;
+    private boolean hasOnlyCosmeticChanges;
+    private long readNanos;
+    private long diffNanos;
+
+    private Result(SpecPair pair) {
+      this.pair = pair;
+    }
+
+    private static Result error(SpecPair pair, Throwable e) {
+      Result result = new Result(pair);
+      result.status = Status.ERROR;
+      result.error = null == e.getMessage() ? e.toString() : e.getMessage();
+      return result;
+    }
+  }
+
+  /**
+   * How many services ended in each status
+   */
+  public static final class Summary {
+
+    private int services;
+    private int unchanged;
+    private int changed;
+    private int breaking;
+    private int errors;
+    private long millis;
+
+    private void add(Result result) {
+      services++;
+      switch (result.status) {
+        case UNCHANGED:
+          unchanged++;
+          break;
+        case BREAKING:
+        case REMOVED:
+          breaking++;
+          break;
+        case ERROR:
+          errors++;
+          break;
+        default:
+          changed++;
+          break;
+      }
+    }
+
+    public int getServices() {
+      return services;
+    }
+
+    public int getUnchanged() {
+      return unchanged;
+    }
+
+    public int getChanged() {
+      return changed;
+    }
+
+    public int getBreaking() {
+      return breaking;
+    }
+
+    public int getErrors() {
+      return errors;
+    }
+
+    public long getMillis() {
+      return millis;
+    }
+
+    /**
+     * @return {@link #EXIT_ERROR} if a spec could not be compared, else {@link #EXIT_BREAKING}
+     *         if a service breaks, else {@link #EXIT_OK}
+     */
+    public int exitCode() {
+      if (errors > 0) {
+        return EXIT_ERROR;
+      }
+      return breaking > 0 ? EXIT_BREAKING : EXIT_OK;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.deepoove.swagger.diff.cli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Command line entry point, comparing one pair of specs or a whole batch of them in one JVM.
+ * Writes one NDJSON line per service and a summary line to stdout, and exits with
+ * {@link BatchDiff#EXIT_OK}, {@link BatchDiff#EXIT_BREAKING} or {@link BatchDiff#EXIT_ERROR}.
+ */
+public final class SwaggerDiffCli {
+
+  static final String USAGE = "usage: swagger-diff [options] <old spec> <new spec>\n"
+      + "       swagger-diff [options] --batch <old dir> <new dir>\n"
+      + "       swagger-diff [options] --manifest <file>\n"
+      + "options:\n"
+      + "  --extensions       compare vendor extensions too\n"
+      + "  --io-threads <n>   threads reading spec files, 4 by default\n"
+      + "  --cpu-threads <n>  threads parsing and comparing specs, one per processor by default\n";
+
+  private SwaggerDiffCli() {
+  }
+
+  public static void main(String[] args) {
+    System.exit(run(args, System.out, System.err));
+  }
+
+  /**
+   * @return the exit code
+   */
+  static int run(String[] args, OutputStream out, PrintStream err) {
+    BatchDiff batch;
+    try {
+      batch = parse(args);
+    } catch (IllegalArgumentException | IOException e) {
+      err.println(e.getMessage());
+      err.print(USAGE);
+      return BatchDiff.EXIT_ERROR;
+    }
+    try {
+      return batch.run(out).exitCode();
+    } catch (IOException e) {
+      err.println(e.getMessage());
+      return BatchDiff.EXIT_ERROR;
+    }
+  }
+
+  private static BatchDiff parse(String[] args) throws IOException {
+    boolean withExtensions = false;
+    boolean batch = false;
+    String manifest = null;
+    int ioThreads = 4;
+    int cpuThreads = Runtime.getRuntime().availableProcessors();
+    List<String> operands = new ArrayList<String>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--extensions":
+          withExtensions = true;
+          break;
+        case "--batch":
+          batch = true;
+          break;
+        case "--manifest":
+          manifest = value(args, ++i);
+          break;
+        case "--io-threads":
+          ioThreads = number(args, ++i);
+          break;
+        case "--cpu-threads":
+          cpuThreads = number(args, ++i);
+          break;
+        default:
+          if (args[i].startsWith("--")) {
+            throw new IllegalArgumentException("unknown option " + args[i]);
+          }
+          operands.add(args[i]);
+          break;
+      }
+    }
+    List<BatchDiff.SpecPair> pairs;
+    if (null != manifest) {
+      if (batch || !operands.isEmpty()) {
+        throw new IllegalArgumentException("--manifest takes no other specs");
+      }
+      pairs = BatchDiff.fromManifest(Paths.get(manifest));
+    } else if (2 != operands.size()) {
+      throw new IllegalArgumentException("expected an old and a new " + (batch ? "directory" : "spec"));
+    } else if (batch) {
+      pairs = BatchDiff.fromDirectories(Paths.get(operands.get(0)), Paths.get(operands.get(1)));
+    } else {
+      Path newSpec = Paths.get(operands.get(1));
+      pairs = Collections.singletonList(new BatchDiff.SpecPair(String.valueOf(newSpec.getFileName()),
+          Paths.get(operands.get(0)), newSpec));
+    }
+    return BatchDiff.build(pairs)
+        .withExtensions(withExtensions)
+        .ioThreads(ioThreads)
+        .cpuThreads(cpuThreads);
+  }
+
+  private static String value(String[] args, int i) {
+    if (i >= args.length) {
+      throw new IllegalArgumentException(args[i - 1] + " needs a value");
+    }
+    return args[i];
+  }
+
+  private static int number(String[] args, int i) {
+    try {
+      return Integer.parseInt(value(args, i));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(args[i - 1] + " needs a number");
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.auth.SecuritySchemeDefinition;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+
+/**
+ * Tell whether a new spec breaks clients of the old one, without building a diff result.
+ * <p>
+ * The check stops at the first break, so it costs as much as the specs up to that break.
+ * A break is what {@link SpecificationDiff} reports as a missing endpoint, a missing parameter
+ * or a missing property, or with extensions a differing vendor extension. Like in the diff, the
+ * vendor extensions of tags are not a break.
+ */
+public class BreakingChangeCheck {
+
+  private static final HttpMethod[] METHODS = HttpMethod.values();
+
+  private Swagger oldSpec;
+  private Swagger newSpec;
+  private boolean withExtensions;
+
+  private BreakingChangeCheck(Swagger oldSpec, Swagger newSpec, boolean withExtensions) {
+    this.oldSpec = oldSpec;
+    this.newSpec = newSpec;
+    this.withExtensions = withExtensions;
+  }
+
+  public static BreakingChangeCheck build(Swagger oldSpec, Swagger newSpec) {
+    return build(oldSpec, newSpec, false);
+  }
+
+  public static BreakingChangeCheck build(Swagger oldSpec, Swagger newSpec, boolean withExtensions) {
+    return new BreakingChangeCheck(oldSpec, newSpec, withExtensions);
+  }
+
+  /**
+   * @return true at the first break found
+   */
+  public boolean check() {
+    if (null == oldSpec || null == newSpec) {
+      throw new IllegalArgumentException("cannot diff null spec.");
+    }
+    if (withExtensions && extensionsBreak()) {
+      return true;
+    }
+    Map<String, Path> oldPaths = oldSpec.getPaths();
+    Map<String, Path> newPaths = newSpec.getPaths();
+    if (null == oldPaths) {
+      return false;
+    }
+    for (Entry<String, Path> entry : oldPaths.entrySet()) {
+      Path newPath = null == newPaths ? null : newPaths.get(entry.getKey());
+      if (pathBreaks(entry.getValue(), newPath)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean extensionsBreak() {
+    if (differ(oldSpec.getVendorExtensions(), newSpec.getVendorExtensions())) {
+      return true;
+    }
+    if (null != oldSpec.getInfo() && null != newSpec.getInfo()
+        && differ(oldSpec.getInfo().getVendorExtensions(), newSpec.getInfo().getVendorExtensions())) {
+      return true;
+    }
+    Map<String, SecuritySchemeDefinition> oldSecurity = oldSpec.getSecurityDefinitions();
+    Map<String, SecuritySchemeDefinition> newSecurity = newSpec.getSecurityDefinitions();
+    if (null != oldSecurity && null != newSecurity) {
+      for (Entry<String, SecuritySchemeDefinition> entry : oldSecurity.entrySet()) {
+        SecuritySchemeDefinition newScheme = newSecurity.get(entry.getKey());
+        if (null != newScheme && differ(entry.getValue().getVendorExtensions(), newScheme.getVendorExtensions())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean pathBreaks(Path oldPath, Path newPath) {
+    for (HttpMethod method : METHODS) {
+      Operation oldOperation = operation(oldPath, method);
+      if (null == oldOperation) {
+        continue;
+      }
+      Operation newOperation = null == newPath ? null : operation(newPath, method);
+      if (null == newOperation || operationBreaks(oldOperation, newOperation)) {
+        return true;
+      }
+    }
+    return withExtensions && null != newPath && differ(oldPath.getVendorExtensions(), newPath.getVendorExtensions());
+  }
+
+  private boolean operationBreaks(Operation oldOperation, Operation newOperation) {
+    if (withExtensions && differ(oldOperation.getVendorExtensions(), newOperation.getVendorExtensions())) {
+      return true;
+    }
+    if (parametersBreak(oldOperation.getParameters(), newOperation.getParameters())) {
+      return true;
+    }
+    Property oldProperty = responseProperty(oldOperation);
+    Property newProperty = responseProperty(newOperation);
+    if ((null == oldProperty || oldProperty instanceof RefProperty) && (null == newProperty || newProperty instanceof RefProperty)
+        && definitionLosesProperties(null == oldProperty ? null : ((RefProperty) oldProperty).getSimpleRef(),
+            null == newProperty ? null : ((RefProperty) newProperty).getSimpleRef())) {
+      return true;
+    }
+    if (withExtensions && null != oldOperation.getResponses() && null != newOperation.getResponses()) {
+      for (Entry<String, Response> entry : oldOperation.getResponses().entrySet()) {
+        Response newResponse = newOperation.getResponses().get(entry.getKey());
+        if (null != newResponse && differ(entry.getValue().getVendorExtensions(), newResponse.getVendorExtensions())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Parameters are matched like {@link ParameterDiff} does, through a {@link ParameterIndex}
+   */
+  private boolean parametersBreak(List<Parameter> oldParameters, List<Parameter> newParameters) {
+    if (null == oldParameters) {
+      return false;
+    }
+    if (null == newParameters) {
+      newParameters = Collections.emptyList();
+    }
+    // while both lists have the same keys in the same order, the n-th old parameter is matched
+    // with the n-th new one; the rest of the new list is only indexed when they stop agreeing
+    ParameterIndex newIndex = null;
+    for (int i = 0; i < oldParameters.size(); i++) {
+      Parameter oldParameter = oldParameters.get(i);
+      Parameter newParameter;
+      if (null == newIndex && i < newParameters.size() && sameKey(newParameters.get(i), oldParameter)) {
+        newParameter = newParameters.get(i);
+      } else {
+        if (null == newIndex) {
+          newIndex = new ParameterIndex(newParameters.subList(Math.min(i, newParameters.size()), newParameters.size()));
+        }
+        newParameter = newIndex.match(oldParameter);
+      }
+      if (null == newParameter || parameterBreaks(oldParameter, newParameter)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean parameterBreaks(Parameter oldParameter, Parameter newParameter) {
+    if (withExtensions && differ(oldParameter.getVendorExtensions(), newParameter.getVendorExtensions())) {
+      return true;
+    }
+    if (oldParameter instanceof BodyParameter && newParameter instanceof BodyParameter) {
+      Model oldSchema = ((BodyParameter) oldParameter).getSchema();
+      Model newSchema = ((BodyParameter) newParameter).getSchema();
+      if (oldSchema instanceof RefModel && newSchema instanceof RefModel) {
+        return definitionLosesProperties(((RefModel) oldSchema).getSimpleRef(), ((RefModel) newSchema).getSimpleRef());
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Like the diff, only the top level properties of the definitions are compared
+   */
+  private boolean definitionLosesProperties(String oldRef, String newRef) {
+    Model oldModel = definition(oldSpec.getDefinitions(), oldRef);
+    Model newModel = definition(newSpec.getDefinitions(), newRef);
+    Map<String, Property> oldProperties = null == oldModel ? null : oldModel.getProperties();
+    if (null == oldProperties) {
+      return false;
+    }
+    Map<String, Property> newProperties = null == newModel ? null : newModel.getProperties();
+    if (null == newProperties) {
+      return !oldProperties.isEmpty();
+    }
+    for (String name : oldProperties.keySet()) {
+      if (!newProperties.containsKey(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Model definition(Map<String, Model> definitions, String ref) {
+    return null == ref || null == definitions ? null : definitions.get(ref);
+  }
+
+  private static Operation operation(Path path, HttpMethod method) {
+    switch (method) {
+      case GET:
+        return path.getGet();
+      case PUT:
+        return path.getPut();
+      case POST:
+        return path.getPost();
+      case DELETE:
+        return path.getDelete();
+      case PATCH:
+        return path.getPatch();
+      case HEAD:
+        return path.getHead();
+      case OPTIONS:
+        return path.getOptions();
+      default:
+        return null;
+    }
+  }
+
+  private static Property responseProperty(Operation operation) {
+    Map<String, Response> responses = operation.getResponses();
+    if (responses == null) {
+      return null;
+    }
+    Response response = responses.get("200");
+    return null == response ? null : response.getSchema();
+  }
+
+  private static boolean sameKey(Parameter left, Parameter right) {
+    return Objects.equals(left.getIn(), right.getIn()) && Objects.equals(left.getName(), right.getName());
+  }
+
+  /**
+   * Vendor extensions differ like in {@link VendorExtensionDiff}: a key only on one side, or
+   * values that are not the same json
+   */
+  private boolean differ(Map<String, Object> oldExts, Map<String, Object> newExts) {
+    if (null == oldExts || null == newExts) {
+      return (null == oldExts ? 0 : oldExts.size()) != (null == newExts ? 0 : newExts.size());
+    }
+    if (oldExts.size() != newExts.size()) {
+      return true;
+    }
+    for (Entry<String, Object> entry : oldExts.entrySet()) {
+      if (!newExts.containsKey(entry.getKey()) || !ExtensionValues.same(entry.getValue(), newExts.get(entry.getKey()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
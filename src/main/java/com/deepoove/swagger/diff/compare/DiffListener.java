@@ -0,0 +1,70 @@
+package com.deepoove.swagger.diff.compare;
+
+import com.deepoove.swagger.diff.model.ChangedEndpoint;
+import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.deepoove.swagger.diff.model.ElProperty;
+import com.deepoove.swagger.diff.model.Endpoint;
+
+import io.swagger.models.HttpMethod;
+
+/**
+ * Receives the differences of two specs as {@link SpecificationDiff} finds them, instead of
+ * collecting them all in a {@link SpecificationDiffResult}, which is itself one listener.
+ * <p>
+ * Events come on the thread calling {@link SpecificationDiff#diff(DiffListener)} in the order
+ * of a sequential diff, also when the paths are diffed on an executor. The differences of a
+ * path come together once the path is diffed: its changed parameters and properties, then its
+ * changed operations, then the changed endpoint holding them. Nothing is kept once an event
+ * returns, so a listener that does not keep them either diffs with memory bounded by the
+ * largest path.
+ */
+public interface DiffListener {
+
+  /**
+   * An operation of the new spec only, on a new path or on a path of both specs
+   */
+  default void onNewEndpoint(Endpoint endpoint) {
+  }
+
+  /**
+   * An operation of the old spec only, on a missing path or on a path of both specs
+   */
+  default void onMissingEndpoint(Endpoint endpoint) {
+  }
+
+  /**
+   * A changed parameter of an operation of both specs
+   */
+  default void onChangedParameter(String pathUrl, HttpMethod method, ChangedParameter parameter) {
+  }
+
+  /**
+   * A changed property of the 200 response or of a body parameter of an operation of both specs
+   */
+  default void onPropertyChanged(String pathUrl, HttpMethod method, ElProperty property) {
+  }
+
+  default void onChangedOperation(String pathUrl, HttpMethod method, ChangedOperation operation) {
+  }
+
+  /**
+   * A path of both specs with changed operations or vendor extensions
+   */
+  default void onChangedEndpoint(ChangedEndpoint endpoint) {
+  }
+
+  /**
+   * The vendor extension differences of the spec itself, with a null key, and of its
+   * {@code info}, {@code tags} and {@code securityDefinitions}, whether they differ or not
+   */
+  default void onVendorExtensionChanged(String key, ChangedExtensionGroup group) {
+  }
+
+  /**
+   * The diff is over
+   */
+  default void onComplete(boolean hasContractChanges, boolean hasOnlyCosmeticChanges) {
+  }
+}
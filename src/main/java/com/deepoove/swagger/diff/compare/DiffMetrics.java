@@ -0,0 +1,79 @@
+package com.deepoove.swagger.diff.compare;
+
+/**
+ * Receives the timings and work counts of a diff, e.g. to find out whether a slow diff was
+ * spent parsing, matching paths, recursing into models or comparing vendor extensions.
+ * <p>
+ * With an executor, the paths are diffed concurrently and so are the calls, an implementation
+ * must be thread safe. {@link #NOOP} reads no clock and counts nothing, it is the default of
+ * every differ.
+ *
+ * @see InMemoryDiffMetrics
+ */
+public interface DiffMetrics {
+
+  DiffMetrics NOOP = new DiffMetrics() {
+    @Override
+    public long nanoTime() {
+      return 0L;
+    }
+  };
+
+  enum Phase {
+    /** reading both specs into swagger models */
+    PARSE,
+    /** matching the paths and the operations of both specs by key */
+    PATH_MATCHING,
+    /** comparing the definitions referred to by parameters and responses */
+    MODEL_DIFF,
+    /** comparing the vendor extensions */
+    VENDOR_EXTENSIONS,
+    /** the whole diff of the parsed specs, including the phases above but parsing */
+    DIFF
+  }
+
+  /**
+   * The clock of the reported durations
+   */
+  default long nanoTime() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Time spent in a phase, reported once per piece of work, so a phase is reported many times
+   * per diff
+   */
+  default void onPhase(Phase phase, long nanos) {
+  }
+
+  /**
+   * A path of both specs was diffed, in nanos including its operations and models
+   */
+  default void onPath(String pathUrl, long nanos) {
+  }
+
+  /**
+   * An operation of both specs was diffed
+   */
+  default void onOperation() {
+  }
+
+  /**
+   * The parameters of an operation were matched, count of the old and added ones
+   */
+  default void onParameters(int count) {
+  }
+
+  /**
+   * A model was diffed at the given recursion depth, 1 for a model referred to by a parameter
+   * or a response
+   */
+  default void onModel(int depth) {
+  }
+
+  /**
+   * A referred model was not walked, it is deeper than the max depth of the model diff
+   */
+  default void onModelTruncated(String simpleRef, int depth) {
+  }
+}
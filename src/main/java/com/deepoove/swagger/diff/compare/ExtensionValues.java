@@ -0,0 +1,312 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Compares vendor extension values as json, whether they are java maps and lists or jackson
+ * trees: objects by their members whatever their order, arrays element by element and numbers
+ * by value.
+ * <p>
+ * Values are walked once, structurally, up to their first difference.
+ */
+final class ExtensionValues {
+
+  private static final double LONG_RANGE = 0x1p63;
+
+  private ExtensionValues() {
+  }
+
+  static boolean same(Object left, Object right) {
+    return left == right || !differ(left, right, null);
+  }
+
+  /**
+   * @return the json path of the first member or element that differs, {@code $} when the
+   *         values themselves differ, or null when they are the same
+   */
+  static String firstDifference(Object left, Object right) {
+    List<Object> trail = new ArrayList<Object>();
+    if (!differ(left, right, trail)) {
+      return null;
+    }
+    StringBuilder path = new StringBuilder("$");
+    for (int i = trail.size() - 1; i >= 0; i--) {
+      Object step = trail.get(i);
+      if (step instanceof Integer) {
+        path.append('[').append(step).append(']');
+      } else {
+        appendKey(path, (String) step);
+      }
+    }
+    return path.toString();
+  }
+
+  /**
+   * One walk of both values, left at their first difference
+   *
+   * @param trail receives the member names and element indexes leading to the difference,
+   *        innermost first, or null when only the answer is wanted
+   */
+  private static boolean differ(Object left, Object right, List<Object> trail) {
+    // values read by the swagger parser are maps, lists and scalars of one class, walked as such
+    if (isPlain(left)) {
+      if (null != right && left.getClass() == right.getClass()) {
+        return !left.equals(right);
+      }
+    } else if (left instanceof Map && right instanceof Map) {
+      return differ((Map<?, ?>) left, (Map<?, ?>) right, trail);
+    } else if (left instanceof List && right instanceof List) {
+      return differ((List<?>) left, (List<?>) right, trail);
+    }
+    return differAsJson(left, right, trail);
+  }
+
+  private static boolean differAsJson(Object left, Object right, List<Object> trail) {
+    left = unwrap(left);
+    right = unwrap(right);
+    if (left == right) {
+      return false;
+    }
+    if (null == left || null == right) {
+      return true;
+    }
+    if (left instanceof String) {
+      return !left.equals(right);
+    }
+    if (left instanceof Number) {
+      return !(right instanceof Number) || !numberEqual((Number) left, (Number) right);
+    }
+    if (isObject(left)) {
+      if (!isObject(right)) {
+        return true;
+      }
+      for (Iterator<? extends Entry<?, ?>> members = members(left); members.hasNext();) {
+        Entry<?, ?> member = members.next();
+        String key = String.valueOf(member.getKey());
+        Object rightValue = member(right, key);
+        if (null == rightValue && !hasMember(right, key) || differ(member.getValue(), rightValue, trail)) {
+          return step(trail, key);
+        }
+      }
+      if (size(left) == size(right)) {
+        return false;
+      }
+      for (Iterator<? extends Entry<?, ?>> members = members(right); members.hasNext();) {
+        String key = String.valueOf(members.next().getKey());
+        if (!hasMember(left, key)) {
+          return step(trail, key);
+        }
+      }
+      return true;
+    }
+    if (isArray(left)) {
+      if (!isArray(right)) {
+        return true;
+      }
+      int leftSize = size(left);
+      int rightSize = size(right);
+      for (int i = 0; i < Math.min(leftSize, rightSize); i++) {
+        if (differ(element(left, i), element(right, i), trail)) {
+          return step(trail, i);
+        }
+      }
+      return leftSize != rightSize && step(trail, Math.min(leftSize, rightSize));
+    }
+    return !left.equals(right);
+  }
+
+  private static boolean differ(Map<?, ?> left, Map<?, ?> right, List<Object> trail) {
+    for (Entry<?, ?> member : left.entrySet()) {
+      Object key = member.getKey();
+      Object leftValue = member.getValue();
+      Object rightValue = right.get(key);
+      // most members are equal scalars, passed over without a call
+      if (isPlain(leftValue) && leftValue.equals(rightValue)) {
+        continue;
+      }
+      if (null == rightValue && !right.containsKey(key) || differ(leftValue, rightValue, trail)) {
+        return step(trail, String.valueOf(key));
+      }
+    }
+    if (left.size() == right.size()) {
+      return false;
+    }
+    for (Object key : right.keySet()) {
+      if (!left.containsKey(key)) {
+        return step(trail, String.valueOf(key));
+      }
+    }
+    return true;
+  }
+
+  private static boolean differ(List<?> left, List<?> right, List<Object> trail) {
+    Iterator<?> leftElements = left.iterator();
+    Iterator<?> rightElements = right.iterator();
+    int index = 0;
+    for (; leftElements.hasNext() && rightElements.hasNext(); index++) {
+      if (differ(leftElements.next(), rightElements.next(), trail)) {
+        return step(trail, index);
+      }
+    }
+    return leftElements.hasNext() != rightElements.hasNext() && step(trail, index);
+  }
+
+  /**
+   * @return true for the scalars equal to the values of their class exactly when they are the
+   *         same json
+   */
+  private static boolean isPlain(Object value) {
+    Class<?> type = null == value ? null : value.getClass();
+    return type == String.class || type == Integer.class || type == Long.class || type == Boolean.class;
+  }
+
+  private static boolean step(List<Object> trail, Object step) {
+    if (null != trail) {
+      trail.add(step);
+    }
+    return true;
+  }
+
+  private static void appendKey(StringBuilder path, String key) {
+    boolean plain = !key.isEmpty() && !Character.isDigit(key.charAt(0));
+    for (int i = 0; plain && i < key.length(); i++) {
+      char c = key.charAt(i);
+      plain = c == '_' || c < 128 && Character.isLetterOrDigit(c);
+    }
+    if (plain) {
+      path.append('.').append(key);
+    } else {
+      path.append("['").append(key.replace("\\", "\\\\").replace("'", "\\'")).append("']");
+    }
+  }
+
+  /**
+   * @return the java value of a jackson scalar, or the value itself
+   */
+  private static Object unwrap(Object value) {
+    if (!(value instanceof JsonNode)) {
+      return value;
+    }
+    JsonNode node = (JsonNode) value;
+    if (node.isContainerNode()) {
+      return node;
+    }
+    if (node.isNull() || node.isMissingNode()) {
+      return null;
+    }
+    if (node.isNumber()) {
+      return node.numberValue();
+    }
+    if (node.isTextual()) {
+      return node.textValue();
+    }
+    if (node.isBoolean()) {
+      return node.booleanValue();
+    }
+    return node;
+  }
+
+  private static boolean isIntegral(Number number) {
+    return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+  }
+
+  private static boolean numberEqual(Number left, Number right) {
+    if (isIntegral(left) && isIntegral(right)) {
+      return left.longValue() == right.longValue();
+    }
+    return canonicalNumber(left).equals(canonicalNumber(right));
+  }
+
+  /**
+   * Numbers equal in value get the same representation: a long when they are integral and fit
+   * in one, a decimal without trailing zeros otherwise.
+   */
+  private static Object canonicalNumber(Number number) {
+    if (isIntegral(number)) {
+      return number.longValue();
+    }
+    BigDecimal decimal;
+    if (number instanceof Double || number instanceof Float) {
+      double value = number.doubleValue();
+      if (Double.isNaN(value) || Double.isInfinite(value)) {
+        return value;
+      }
+      if (value == Math.rint(value) && value >= -LONG_RANGE && value < LONG_RANGE) {
+        return (long) value;
+      }
+      decimal = new BigDecimal(value);
+    } else if (number instanceof BigDecimal) {
+      decimal = (BigDecimal) number;
+    } else if (number instanceof BigInteger) {
+      decimal = new BigDecimal((BigInteger) number);
+    } else {
+      try {
+        decimal = new BigDecimal(number.toString());
+      } catch (NumberFormatException e) {
+        return number;
+      }
+    }
+    if (0 == decimal.signum()) {
+      return 0L;
+    }
+    decimal = decimal.stripTrailingZeros();
+    if (decimal.scale() <= 0 && decimal.toBigInteger().bitLength() < 64) {
+      return decimal.longValue();
+    }
+    return decimal;
+  }
+
+  private static boolean isObject(Object value) {
+    return value instanceof Map || value instanceof JsonNode && ((JsonNode) value).isObject();
+  }
+
+  private static boolean isArray(Object value) {
+    return value instanceof List || value instanceof JsonNode && ((JsonNode) value).isArray();
+  }
+
+  private static int size(Object container) {
+    if (container instanceof Map) {
+      return ((Map<?, ?>) container).size();
+    }
+    if (container instanceof List) {
+      return ((List<?>) container).size();
+    }
+    return ((JsonNode) container).size();
+  }
+
+  private static Iterator<? extends Entry<?, ?>> members(Object object) {
+    if (object instanceof Map) {
+      return ((Map<?, ?>) object).entrySet().iterator();
+    }
+    return ((JsonNode) object).fields();
+  }
+
+  private static boolean hasMember(Object object, String key) {
+    if (object instanceof Map) {
+      return ((Map<?, ?>) object).containsKey(key);
+    }
+    return ((JsonNode) object).has(key);
+  }
+
+  private static Object member(Object object, String key) {
+    if (object instanceof Map) {
+      return ((Map<?, ?>) object).get(key);
+    }
+    return ((JsonNode) object).get(key);
+  }
+
+  private static Object element(Object array, int index) {
+    if (array instanceof List) {
+      return ((List<?>) array).get(index);
+    }
+    return ((JsonNode) array).get(index);
+  }
+}
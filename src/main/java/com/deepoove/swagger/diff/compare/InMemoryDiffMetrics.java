@@ -0,0 +1,159 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sums the metrics of one or many diffs in memory, and keeps the most expensive paths. Safe to
+ * share by concurrent diffs; read it once they are done, or poll it to bridge the numbers to
+ * another metrics system.
+ */
+public class InMemoryDiffMetrics implements DiffMetrics {
+
+  private static final Comparator<PathCost> BY_NANOS = Comparator.comparingLong(PathCost::getNanos);
+
+  private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+  private final LongAdder paths = new LongAdder();
+  private final LongAdder operations = new LongAdder();
+  private final LongAdder parameters = new LongAdder();
+  private final LongAdder models = new LongAdder();
+  private final LongAdder truncatedModels = new LongAdder();
+  private final AtomicInteger maxDepth = new AtomicInteger();
+  private final int topPaths;
+  // the cheapest of the kept paths first
+  private final PriorityQueue<PathCost> slowestPaths;
+
+  public InMemoryDiffMetrics() {
+    this(10);
+  }
+
+  /**
+   * @param topPaths count of the most expensive paths to keep
+   */
+  public InMemoryDiffMetrics(int topPaths) {
+    this.topPaths = topPaths;
+    this.slowestPaths = new PriorityQueue<PathCost>(Math.max(1, topPaths), BY_NANOS);
+    for (int i = 0; i < phaseNanos.length; i++) {
+      phaseNanos[i] = new LongAdder();
+    }
+  }
+
+  @Override
+  public void onPhase(Phase phase, long nanos) {
+    phaseNanos[phase.ordinal()].add(nanos);
+  }
+
+  @Override
+  public void onPath(String pathUrl, long nanos) {
+    paths.increment();
+    if (topPaths <= 0) {
+      return;
+    }
+    synchronized (slowestPaths) {
+      if (slowestPaths.size() < topPaths) {
+        slowestPaths.add(new PathCost(pathUrl, nanos));
+      } else if (slowestPaths.peek().getNanos() < nanos) {
+        slowestPaths.poll();
+        slowestPaths.add(new PathCost(pathUrl, nanos));
+      }
+    }
+  }
+
+  @Override
+  public void onOperation() {
+    operations.increment();
+  }
+
+  @Override
+  public void onParameters(int count) {
+    parameters.add(count);
+  }
+
+  @Override
+  public void onModel(int depth) {
+    models.increment();
+    int max = maxDepth.get();
+    while (depth > max && !maxDepth.compareAndSet(max, depth)) {
+      max = maxDepth.get();
+    }
+  }
+
+  @Override
+  public void onModelTruncated(String simpleRef, int depth) {
+    truncatedModels.increment();
+  }
+
+  public long getPhaseNanos(Phase phase) {
+    return phaseNanos[phase.ordinal()].sum();
+  }
+
+  public long getPaths() {
+    return paths.sum();
+  }
+
+  public long getOperations() {
+    return operations.sum();
+  }
+
+  public long getParameters() {
+    return parameters.sum();
+  }
+
+  public long getModels() {
+    return models.sum();
+  }
+
+  public int getMaxDepth() {
+    return maxDepth.get();
+  }
+
+  /**
+   * @return the count of referred models left out for being deeper than the max depth
+   */
+  public long getTruncatedModels() {
+    return truncatedModels.sum();
+  }
+
+  /**
+   * @return the most expensive paths, the most expensive first
+   */
+  public List<PathCost> getSlowestPaths() {
+    List<PathCost> slowest;
+    synchronized (slowestPaths) {
+      slowest = new ArrayList<PathCost>(slowestPaths);
+    }
+    Collections.sort(slowest, Collections.reverseOrder(BY_NANOS));
+    return slowest;
+  }
+
+  /**
+   * A diffed path and the time spent on it
+   */
+  public static final class PathCost {
+    private final String pathUrl;
+    private final long nanos;
+
+    private PathCost(String pathUrl, long nanos) {
+      this.pathUrl = pathUrl;
+      this.nanos = nanos;
+    }
+
+    public String getPathUrl() {
+      return pathUrl;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+
+    @Override
+    public String toString() {
+      return pathUrl + "=" + nanos + "ns";
+    }
+  }
+}
@@ -1,16 +1,25 @@
 package com.deepoove.swagger.diff.compare;
 
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.BiPredicate;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+import com.deepoove.swagger.diff.model.LazyCollections;
 
+/**
+ * compare two Maps by key and value
+ * <p>
+ * Like {@link MapKeyDiff} the increased and missing maps are read-only views over the given
+ * maps. By default a value is changed unless it is equal to the other one and of a compatible
+ * class.
+ */
 public class MapDiff<K, V> {
-  private Map<K, V> increased = new LinkedHashMap<K, V>();
-  private Map<K, V> missing = new LinkedHashMap<K, V>();
-  private Map<K, Pair<V, V>> changed = new LinkedHashMap<K, Pair<V, V>>();
+  private Map<K, V> increased = Collections.emptyMap();
+  private Map<K, V> missing = Collections.emptyMap();
+  private Map<K, Pair<V, V>> changed = Collections.emptyMap();
 
 
   private MapDiff() {
@@ -19,6 +28,17 @@ public class MapDiff<K, V> {
 
   public static <K, V> MapDiff<K, V> diff(Map<K, V> mapLeft,
                                           Map<K, V> mapRight) {
+    return diff(mapLeft, mapRight, MapDiff::same);
+  }
+
+  /**
+   * @param same tells whether the values of a shared key are the same, never given identical
+   *        values. It is asked in the order of the left map, and a pair it rejects is the next
+   *        one put in the changed map.
+   */
+  public static <K, V> MapDiff<K, V> diff(Map<K, V> mapLeft,
+                                          Map<K, V> mapRight,
+                                          BiPredicate<? super V, ? super V> same) {
     MapDiff<K, V> instance = new MapDiff<K, V>();
     if (null == mapLeft && null == mapRight) {
       return instance;
@@ -34,25 +54,31 @@ public class MapDiff<K, V> {
       return instance;
     }
 
-    instance.increased.putAll(mapRight);
-
+    int shared = 0;
     for (Entry<K, V> entry : mapLeft.entrySet()) {
       K leftKey = entry.getKey();
       V leftValue = entry.getValue();
+      V rightValue = mapRight.get(leftKey);
 
-      if (mapRight.containsKey(leftKey)) {
-        instance.increased.remove(leftKey);
-
-        if (!(mapRight.get(leftKey).getClass().isInstance(leftValue) && mapRight.get(leftKey).equals(leftValue))) {
-          instance.changed.put(leftKey, Pair.of(leftValue, mapRight.get(leftKey)));
+      if (null != rightValue || mapRight.containsKey(leftKey)) {
+        shared++;
+        if (leftValue != rightValue && !same.test(leftValue, rightValue)) {
+          instance.changed = LazyCollections.put(instance.changed, leftKey, Pair.of(leftValue, rightValue));
         }
-      } else {
-        instance.missing.put(leftKey, leftValue);
       }
     }
+    instance.increased = UnsharedEntries.of(mapRight, mapLeft, mapRight.size() - shared);
+    instance.missing = UnsharedEntries.of(mapLeft, mapRight, mapLeft.size() - shared);
     return instance;
   }
 
+  private static boolean same(Object left, Object right) {
+    if (null == left || null == right) {
+      return false;
+    }
+    return right.getClass().isInstance(left) && right.equals(left);
+  }
+
   public Map<K, V> getIncreased() {
     return increased;
   }
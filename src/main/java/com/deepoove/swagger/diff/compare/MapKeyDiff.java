@@ -1,13 +1,15 @@
 package com.deepoove.swagger.diff.compare;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * compare two Maps by key
+ * <p>
+ * The keys of both maps are compared in one pass over the left map. The increased and missing
+ * maps are read-only views over the given maps, which must not change afterwards.
  *
  * @author Sayi
  */
@@ -18,7 +20,7 @@ public class MapKeyDiff<K, V> {
   private List<K> sharedKey;
 
   private MapKeyDiff() {
-    this.sharedKey = new ArrayList<K>();
+    this.sharedKey = Collections.emptyList();
   }
 
   public static <K, V> MapKeyDiff<K, V> diff(Map<K, V> mapLeft,
@@ -35,19 +37,18 @@ public class MapKeyDiff<K, V> {
       instance.missing = mapLeft;
       return instance;
     }
-    instance.increased = new LinkedHashMap<K, V>(mapRight);
-    instance.missing = new LinkedHashMap<K, V>();
-    for (Entry<K, V> entry : mapLeft.entrySet()) {
-      K leftKey = entry.getKey();
-      V leftValue = entry.getValue();
+    List<K> sharedKey = Collections.emptyList();
+    for (K leftKey : mapLeft.keySet()) {
       if (mapRight.containsKey(leftKey)) {
-        instance.increased.remove(leftKey);
-        instance.sharedKey.add(leftKey);
-      } else {
-        instance.missing.put(leftKey, leftValue);
+        if (sharedKey.isEmpty()) {
+          sharedKey = new ArrayList<K>(Math.min(mapLeft.size(), mapRight.size()));
+        }
+        sharedKey.add(leftKey);
       }
-
     }
+    instance.sharedKey = sharedKey;
+    instance.increased = UnsharedEntries.of(mapRight, mapLeft, mapRight.size() - sharedKey.size());
+    instance.missing = UnsharedEntries.of(mapLeft, mapRight, mapLeft.size() - sharedKey.size());
     return instance;
   }
 
@@ -1,15 +1,17 @@
 package com.deepoove.swagger.diff.compare;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import com.deepoove.swagger.diff.event.DiffEvents;
 import com.deepoove.swagger.diff.model.ElProperty;
 
 import io.swagger.models.Model;
@@ -23,86 +25,245 @@ import io.swagger.models.properties.RefProperty;
  */
 public class ModelDiff {
 
+  /**
+   * The default depth below which the referred models are not walked, the model given to diff
+   * is at depth 1
+   */
+  public static final int DEFAULT_MAX_DEPTH = 128;
+
   private Map<String, Model> oldDefinitions;
   private Map<String, Model> newDefinitions;
+  private ModelDiffCache cache;
+  private DiffMetrics metrics = DiffMetrics.NOOP;
+  private int maxDepth = DEFAULT_MAX_DEPTH;
 
-  private ModelDiff(Map<String, Model> left, Map<String, Model> right) {
+  private ModelDiff(Map<String, Model> left, Map<String, Model> right, ModelDiffCache cache) {
     this.oldDefinitions = left;
     this.newDefinitions = right;
+    this.cache = cache;
   }
 
   public static ModelDiff build(Map<String, Model> left, Map<String, Model> right) {
-    return new ModelDiff(left, right);
+    return new ModelDiff(left, right, null);
   }
 
-  public ModelDiffResult diff(Model leftModel, Model rightModel) {
-    return this.diff(leftModel, rightModel, null, null, new HashSet<Model>());
+  public static ModelDiff build(Map<String, Model> left, Map<String, Model> right, ModelDiffCache cache) {
+    return new ModelDiff(left, right, cache);
   }
 
-  public ModelDiffResult diff(Model leftModel, Model rightModel, String parentModel) {
-    return this.diff(leftModel, rightModel, null, parentModel, new HashSet<Model>());
+  /**
+   * Report the diffed models and the time spent diffing them to the metrics
+   */
+  public ModelDiff metrics(DiffMetrics metrics) {
+    this.metrics = null == metrics ? DiffMetrics.NOOP : metrics;
+    return this;
   }
 
-  private ModelDiffResult diff(Model leftModel, Model rightModel, String parentEl, String parentModel, Set<Model> visited) {
-    ModelDiffResult modelDiffResult = new ModelDiffResult();
+  /**
+   * Walk the referred models down to the given depth only, deeper models are left out and the
+   * result is marked truncated. The differences of referred models are not reported at any
+   * depth, the max depth only bounds the work and the metrics of a walk.
+   */
+  public ModelDiff maxDepth(int maxDepth) {
+    this.maxDepth = maxDepth;
+    return this;
+  }
 
-    // Stop recursing if both models are null
-    // OR either model is already contained in the visiting history
-    if ((null == leftModel && null == rightModel) || visited.contains(leftModel) || visited.contains(rightModel)) {
-      return modelDiffResult;
+  /**
+   * Compare the definitions referred to by leftRef and rightRef. With a cache the result is
+   * computed once per pair and shared, so callers must not modify it. Only the computed
+   * diffs are reported to the metrics, not the cache hits.
+   */
+  public ModelDiffResult diffRefs(String leftRef, String rightRef, String parentModel) {
+    if (null == cache) {
+      return diff(leftRef, rightRef, definition(oldDefinitions, leftRef), definition(newDefinitions, rightRef), parentModel);
+    }
+    if (cache.identical(leftRef, rightRef)) {
+      return new ModelDiffResult();
     }
+    ModelDiffResult result = cache.get(leftRef, rightRef, parentModel);
+    if (null == result) {
+      result = diff(leftRef, rightRef, definition(oldDefinitions, leftRef), definition(newDefinitions, rightRef), parentModel);
+      result = cache.putIfAbsent(leftRef, rightRef, parentModel, result);
+    }
+    return result;
+  }
 
-    Map<String, Property> leftProperties = null == leftModel ? null : leftModel.getProperties();
-    Map<String, Property> rightProperties = null == rightModel ? null : rightModel.getProperties();
+  private static Model definition(Map<String, Model> definitions, String ref) {
+    return null == ref || null == definitions ? null : definitions.get(ref);
+  }
 
-    // Diff the properties
-    MapKeyDiff<String, Property> propertyDiff = MapKeyDiff.diff(leftProperties, rightProperties);
+  public ModelDiffResult diff(Model leftModel, Model rightModel) {
+    return this.diff(leftModel, rightModel, null);
+  }
+
+  public ModelDiffResult diff(Model leftModel, Model rightModel, String parentModel) {
+    return diff(null, null, leftModel, rightModel, parentModel);
+  }
+
+  private ModelDiffResult diff(String leftRef, String rightRef, Model leftModel, Model rightModel, String parentModel) {
+    long start = metrics.nanoTime();
+    ModelDiffResult result = walk(leftRef, rightRef, leftModel, rightModel, parentModel);
+    metrics.onPhase(DiffMetrics.Phase.MODEL_DIFF, metrics.nanoTime() - start);
+    return result;
+  }
 
-    modelDiffResult.addIncreased(convert2ElPropertys(propertyDiff.getIncreased(), parentEl, parentModel));
-    modelDiffResult.addMissing(convert2ElPropertys(propertyDiff.getMissing(), parentEl, parentModel));
+  /**
+   * The models on the current walked path, compared by identity: definitions are shared
+   * instances, and Model.equals/hashCode walk whole property maps.
+   */
+  private static Set<Model> newVisitedPath() {
+    return Collections.newSetFromMap(new IdentityHashMap<Model, Boolean>());
+  }
 
-    // Recursively find the diff between properties
-    List<String> sharedKey = propertyDiff.getSharedKey();
-    for (String key : sharedKey) {
-      Property left = leftProperties.get(key);
-      Property right = rightProperties.get(key);
+  /**
+   * Walk the pair and the pairs of models their shared ref properties refer to, depth first
+   * with an explicit stack, so a deep schema takes no Java stack. Only the properties of the
+   * given pair are reported: the referred models are walked, for the metrics and events, but
+   * their differences are not collected, as with the recursive diff before. A walk stops at a
+   * model already on the walked path, and is cut below the max depth, which marks the result
+   * truncated. Properties the cache knows to be identical in both definitions are skipped.
+   *
+   * @param leftName the definition name of the left model, or null if not known
+   */
+  private ModelDiffResult walk(String leftName, String rightName, Model leftModel, Model rightModel, String parentModel) {
+    ModelDiffResult modelDiffResult = new ModelDiffResult();
+    Set<Model> visited = newVisitedPath();
+    Deque<Frame> stack = new ArrayDeque<Frame>();
+    if (!skipped(leftModel, rightModel, visited)) {
+      stack.push(enter(leftName, rightName, leftModel, rightModel, parentModel, 1, visited, modelDiffResult));
+    }
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      if (frame.next == frame.sharedKey.size()) {
+        stack.pop();
+        exit(frame, visited);
+        continue;
+      }
+      String key = frame.sharedKey.get(frame.next++);
+      if (null != cache && cache.identicalProperty(frame.leftRef, frame.rightRef, key)) {
+        continue;
+      }
+      Property left = frame.leftProperties.get(key);
+      Property right = frame.rightProperties.get(key);
 
       if ((left instanceof RefProperty) && (right instanceof RefProperty)) {
         String leftRef = ((RefProperty) left).getSimpleRef();
         String rightRef = ((RefProperty) right).getSimpleRef();
+        if (null != cache && cache.identical(leftRef, rightRef)) {
+          continue;
+        }
+        Model leftChild = oldDefinitions.get(leftRef);
+        Model rightChild = newDefinitions.get(rightRef);
+        if (skipped(leftChild, rightChild, visited)) {
+          continue;
+        }
+        if (frame.depth >= maxDepth) {
+          modelDiffResult.setTruncated(true);
+          metrics.onModelTruncated(leftRef, frame.depth + 1);
+          continue;
+        }
+        stack.push(enter(leftRef, rightRef, leftChild, rightChild, leftRef, frame.depth + 1, visited, null));
 
-        diff(oldDefinitions.get(leftRef), newDefinitions.get(rightRef),
-            buildElString(parentEl, key), leftRef,
-            copyAndAdd(visited, leftModel, rightModel));
-
-      } else if (left != null && right != null && !left.equals(right)) {
-        if (modelDiffResult.getIncreased().isEmpty() && modelDiffResult.getMissing().isEmpty()) {
-          if (PropertyDiff.hasOnlyCosmeticChanges(left, right) && !modelDiffResult.hasContractChanges()) {
-            modelDiffResult.setHasOnlyCosmeticChanges(true);
+      } else if (null != frame.result && left != null && right != null && !left.equals(right)) {
+        ModelDiffResult result = frame.result;
+        if (result.getIncreased().isEmpty() && result.getMissing().isEmpty()) {
+          if (PropertyDiff.hasOnlyCosmeticChanges(left, right) && !result.hasContractChanges()) {
+            result.setHasOnlyCosmeticChanges(true);
           } else {
-            modelDiffResult.setHasOnlyCosmeticChanges(false);
-            modelDiffResult.setHasContractChanges(true);
+            result.setHasOnlyCosmeticChanges(false);
+            result.setHasContractChanges(true);
           }
         } else {
-          modelDiffResult.setHasOnlyCosmeticChanges(false);
-          modelDiffResult.setHasContractChanges(true);
+          result.setHasOnlyCosmeticChanges(false);
+          result.setHasContractChanges(true);
         }
 
         // Add a changed ElProperty if not a Reference
-        modelDiffResult.addChanged(Collections.singleton(convert2ElProperty(key, parentEl, parentModel, left)));
+        result.addChanged(Collections.singleton(convert2ElProperty(key, null, frame.parentModel, left)));
       }
     }
-
     return modelDiffResult;
   }
 
+  /**
+   * Stop if both models are null OR either model is already on the walked path
+   */
+  private static boolean skipped(Model leftModel, Model rightModel, Set<Model> visited) {
+    return (null == leftModel && null == rightModel) || visited.contains(leftModel) || visited.contains(rightModel);
+  }
+
+  /**
+   * @param result the result to report the properties of the pair to, or null to only walk it
+   */
+  private Frame enter(String leftRef, String rightRef, Model leftModel, Model rightModel, String parentModel,
+                      int depth, Set<Model> visited, ModelDiffResult result) {
+    metrics.onModel(depth);
+    Frame frame = new Frame(parentModel, depth, result, DiffEvents.beginModel());
+    frame.leftRef = leftRef;
+    frame.rightRef = rightRef;
+    frame.leftModel = leftModel;
+    frame.rightModel = rightModel;
+    frame.pushedLeft = visited.add(leftModel);
+    frame.pushedRight = visited.add(rightModel);
+
+    frame.leftProperties = null == leftModel ? null : leftModel.getProperties();
+    frame.rightProperties = null == rightModel ? null : rightModel.getProperties();
+
+    // Diff the properties
+    MapKeyDiff<String, Property> propertyDiff = MapKeyDiff.diff(frame.leftProperties, frame.rightProperties);
+    if (null != result) {
+      result.addIncreased(convert2ElPropertys(propertyDiff.getIncreased(), null, parentModel));
+      result.addMissing(convert2ElPropertys(propertyDiff.getMissing(), null, parentModel));
+    }
+    frame.sharedKey = propertyDiff.getSharedKey();
+    return frame;
+  }
+
+  private static void exit(Frame frame, Set<Model> visited) {
+    if (frame.pushedLeft) {
+      visited.remove(frame.leftModel);
+    }
+    if (frame.pushedRight) {
+      visited.remove(frame.rightModel);
+    }
+    DiffEvents.endModel(frame.event, frame.parentModel, frame.depth);
+  }
+
+  /**
+   * A pair of models being walked, and the next of their shared properties to compare
+   */
+  private static final class Frame {
+    private final String parentModel;
+    private final int depth;
+    private final ModelDiffResult result;
+    private final Object event;
+    private String leftRef;
+    private String rightRef;
+    private Model leftModel;
+    private Model rightModel;
+    private boolean pushedLeft;
+    private boolean pushedRight;
+    private Map<String, Property> leftProperties;
+    private Map<String, Property> rightProperties;
+    private List<String> sharedKey;
+    private int next;
+
+    private Frame(String parentModel, int depth, ModelDiffResult result, Object event) {
+      this.parentModel = parentModel;
+      this.depth = depth;
+      this.result = result;
+      this.event = event;
+    }
+  }
+
   private Collection<? extends ElProperty> convert2ElPropertys(
       Map<String, Property> propMap, String parentEl, String parentModel) {
 
-    List<ElProperty> result = new ArrayList<ElProperty>();
-    if (null == propMap) {
-      return result;
+    if (null == propMap || propMap.isEmpty()) {
+      return Collections.emptyList();
     }
+    List<ElProperty> result = new ArrayList<ElProperty>(propMap.size());
 
     for (Entry<String, Property> entry : propMap.entrySet()) {
       result.add(convert2ElProperty(entry.getKey(), parentEl, parentModel, entry.getValue()));
@@ -121,10 +282,4 @@ public class ModelDiff {
     pWithPath.setParentModelName(parentModel);
     return pWithPath;
   }
-
-  private <T> Set<T> copyAndAdd(Set<T> set, T... add) {
-    Set<T> newSet = new HashSet<T>(set);
-    newSet.addAll(Arrays.asList(add));
-    return newSet;
-  }
 }
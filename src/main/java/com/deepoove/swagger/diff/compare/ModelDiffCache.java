@@ -0,0 +1,93 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Results of model diffs keyed by the (old simpleRef, new simpleRef) pair they were computed for.
+ * <p>
+ * A cache is only valid for one pair of definition maps, so it is created per
+ * {@link SpecificationDiff#diff()} and shared by every differ of that run. It is safe to use
+ * from the threads of a parallel diff.
+ * <p>
+ * When built with the fingerprints of both specs, pairs of structurally identical definitions,
+ * and identical properties of changed definitions, are known to diff to nothing without being
+ * diffed at all.
+ */
+public class ModelDiffCache {
+
+  private final ConcurrentMap<Key, ModelDiffResult> results = new ConcurrentHashMap<Key, ModelDiffResult>();
+  private final SpecFingerprint oldFingerprint;
+  private final SpecFingerprint newFingerprint;
+
+  public ModelDiffCache() {
+    this(null, null);
+  }
+
+  public ModelDiffCache(SpecFingerprint oldFingerprint, SpecFingerprint newFingerprint) {
+    this.oldFingerprint = oldFingerprint;
+    this.newFingerprint = newFingerprint;
+  }
+
+  /**
+   * @return true if both definitions are known to be structurally identical
+   */
+  public boolean identical(String leftRef, String rightRef) {
+    return null != oldFingerprint && null != newFingerprint
+        && SpecFingerprint.same(oldFingerprint.definition(leftRef), newFingerprint.definition(rightRef));
+  }
+
+  /**
+   * @return true if the property is known to be structurally identical in both definitions
+   */
+  public boolean identicalProperty(String leftRef, String rightRef, String property) {
+    return null != oldFingerprint && null != newFingerprint
+        && SpecFingerprint.same(oldFingerprint.property(leftRef, property), newFingerprint.property(rightRef, property));
+  }
+
+  public ModelDiffResult get(String leftRef, String rightRef, String parentModel) {
+    return results.get(new Key(leftRef, rightRef, parentModel));
+  }
+
+  public ModelDiffResult putIfAbsent(String leftRef, String rightRef, String parentModel, ModelDiffResult result) {
+    ModelDiffResult previous = results.putIfAbsent(new Key(leftRef, rightRef, parentModel), result);
+    return null == previous ? result : previous;
+  }
+
+  public int size() {
+    return results.size();
+  }
+
+  private static final class Key {
+    private final String leftRef;
+    private final String rightRef;
+    // the name reported as parent model of the top level properties, part of the result
+    private final String parentModel;
+
+    private Key(String leftRef, String rightRef, String parentModel) {
+      this.leftRef = leftRef;
+      this.rightRef = rightRef;
+      this.parentModel = parentModel;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Objects.equals(leftRef, key.leftRef)
+          && Objects.equals(rightRef, key.rightRef)
+          && Objects.equals(parentModel, key.parentModel);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(leftRef, rightRef, parentModel);
+    }
+  }
+}
@@ -1,10 +1,11 @@
 package com.deepoove.swagger.diff.compare;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.deepoove.swagger.diff.model.ElProperty;
+import com.deepoove.swagger.diff.model.LazyCollections;
 
 public class ModelDiffResult {
 
@@ -14,11 +15,12 @@ public class ModelDiffResult {
 
   private boolean hasOnlyCosmeticChanges;
   private boolean hasContractChanges;
+  private boolean truncated;
 
   public ModelDiffResult() {
-    this.increased = new ArrayList<ElProperty>();
-    this.missing = new ArrayList<ElProperty>();
-    this.changed = new ArrayList<ElProperty>();
+    this.increased = Collections.emptyList();
+    this.missing = Collections.emptyList();
+    this.changed = Collections.emptyList();
     this.hasOnlyCosmeticChanges = false;
     this.hasContractChanges = false;
   }
@@ -28,11 +30,11 @@ public class ModelDiffResult {
   }
 
   public void setIncreased(List<ElProperty> increased) {
-    this.increased = increased;
+    this.increased = LazyCollections.copyOf(increased);
   }
 
   public void addIncreased(Collection<? extends ElProperty> increased) {
-    this.increased.addAll(increased);
+    this.increased = LazyCollections.addAll(this.increased, increased);
   }
 
   public List<ElProperty> getMissing() {
@@ -40,11 +42,11 @@ public class ModelDiffResult {
   }
 
   public void setMissing(List<ElProperty> missing) {
-    this.missing = missing;
+    this.missing = LazyCollections.copyOf(missing);
   }
 
   public void addMissing(Collection<? extends ElProperty> missing) {
-    this.missing.addAll(missing);
+    this.missing = LazyCollections.addAll(this.missing, missing);
   }
 
   public List<ElProperty> getChanged() {
@@ -52,11 +54,11 @@ public class ModelDiffResult {
   }
 
   public void setChanged(List<ElProperty> changed) {
-    this.changed = changed;
+    this.changed = LazyCollections.copyOf(changed);
   }
 
   public void addChanged(Collection<? extends ElProperty> changed) {
-    this.changed.addAll(changed);
+    this.changed = LazyCollections.addAll(this.changed, changed);
   }
 
   public boolean hasOnlyCosmeticChanges() {
@@ -74,4 +76,15 @@ public class ModelDiffResult {
   public void setHasContractChanges(boolean hasContractChanges) {
     this.hasContractChanges = hasContractChanges;
   }
+
+  /**
+   * @return true if models deeper than the max depth of the {@link ModelDiff} were not walked
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  public void setTruncated(boolean truncated) {
+    this.truncated = truncated;
+  }
 }
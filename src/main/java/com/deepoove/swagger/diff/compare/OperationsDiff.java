@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import com.deepoove.swagger.diff.event.DiffEvents;
 import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
 import com.deepoove.swagger.diff.model.ChangedOperation;
 import com.deepoove.swagger.diff.model.ChangedParameter;
@@ -24,25 +25,74 @@ public class OperationsDiff {
   private VendorExtensionDiff extDiffer;
   private ParameterDiff paramDiffer;
   private PropertyDiff propertyDiffer;
+  private SpecFingerprint oldFingerprint;
+  private SpecFingerprint newFingerprint;
+  private DiffMetrics metrics = DiffMetrics.NOOP;
+  private String pathUrl;
 
   private OperationsDiff(Map<HttpMethod, Operation> oldOperations, Map<HttpMethod, Operation> newOperations,
-                         Map<String, Model> oldDefinitions, Map<String, Model> newDefinitions, VendorExtensionDiff extDiffer) {
+                         Map<String, Model> oldDefinitions, Map<String, Model> newDefinitions, VendorExtensionDiff extDiffer,
+                         ModelDiffCache modelCache) {
     this.oldOperations = oldOperations;
     this.newOperations = newOperations;
     this.extDiffer = extDiffer;
-    this.paramDiffer = ParameterDiff.build(oldDefinitions, newDefinitions);
-    this.propertyDiffer = PropertyDiff.build(oldDefinitions, newDefinitions);
+    this.paramDiffer = ParameterDiff.build(oldDefinitions, newDefinitions, modelCache);
+    this.propertyDiffer = PropertyDiff.build(oldDefinitions, newDefinitions, modelCache);
   }
 
   public static OperationsDiff build(Map<HttpMethod, Operation> oldOperations, Map<HttpMethod, Operation> newOperations,
                                      Map<String, Model> oldDefinitions, Map<String, Model> newDefinitions, VendorExtensionDiff extDiffer) {
-    return new OperationsDiff(oldOperations, newOperations, oldDefinitions, newDefinitions, extDiffer);
+    return new OperationsDiff(oldOperations, newOperations, oldDefinitions, newDefinitions, extDiffer, null);
+  }
+
+  public static OperationsDiff build(Map<HttpMethod, Operation> oldOperations, Map<HttpMethod, Operation> newOperations,
+                                     Map<String, Model> oldDefinitions, Map<String, Model> newDefinitions, VendorExtensionDiff extDiffer,
+                                     ModelDiffCache modelCache) {
+    return new OperationsDiff(oldOperations, newOperations, oldDefinitions, newDefinitions, extDiffer, modelCache);
+  }
+
+  /**
+   * Skip the shared operations whose fingerprints are equal, they diff to nothing
+   */
+  public OperationsDiff fingerprints(SpecFingerprint oldFingerprint, SpecFingerprint newFingerprint) {
+    this.oldFingerprint = oldFingerprint;
+    this.newFingerprint = newFingerprint;
+    return this;
+  }
+
+  /**
+   * Report the diffed operations, parameters and models to the metrics
+   */
+  public OperationsDiff metrics(DiffMetrics metrics) {
+    this.metrics = null == metrics ? DiffMetrics.NOOP : metrics;
+    paramDiffer.metrics(metrics);
+    propertyDiffer.metrics(metrics);
+    return this;
+  }
+
+  /**
+   * @see ModelDiff#maxDepth(int)
+   */
+  public OperationsDiff maxModelDepth(int maxModelDepth) {
+    paramDiffer.maxModelDepth(maxModelDepth);
+    propertyDiffer.maxModelDepth(maxModelDepth);
+    return this;
+  }
+
+  /**
+   * The url of the path of the operations, for the profiling events
+   */
+  public OperationsDiff path(String pathUrl) {
+    this.pathUrl = pathUrl;
+    return this;
   }
 
   public OperationsDiffResult diff() {
     OperationsDiffResult diffResult = new OperationsDiffResult();
 
+    long start = metrics.nanoTime();
     MapKeyDiff<HttpMethod, Operation> operationDiff = MapKeyDiff.diff(oldOperations, newOperations);
+    metrics.onPhase(DiffMetrics.Phase.PATH_MATCHING, metrics.nanoTime() - start);
     diffResult.setIncreasedOperations(operationDiff.getIncreased());
     diffResult.setMissingOperations(operationDiff.getMissing());
     if (!operationDiff.getIncreased().isEmpty() || !operationDiff.getMissing().isEmpty()) {
@@ -54,9 +104,15 @@ public class OperationsDiff {
     ChangedOperation changedOperation = null;
 
     for (HttpMethod method : sharedMethods) {
-      changedOperation = new ChangedOperation();
       Operation oldOperation = oldOperations.get(method);
       Operation newOperation = newOperations.get(method);
+      if (null != oldFingerprint && null != newFingerprint
+          && SpecFingerprint.same(oldFingerprint.operation(oldOperation), newFingerprint.operation(newOperation))) {
+        continue;
+      }
+      Object event = DiffEvents.beginOperation();
+      metrics.onOperation();
+      changedOperation = new ChangedOperation();
       changedOperation.setSummary(newOperation.getSummary());
 
       changedOperation.setVendorExtsFromGroup(extDiffer.diff(oldOperation, newOperation));
@@ -101,11 +157,12 @@ public class OperationsDiff {
       }
 
       if (changedOperation.isDiff() || changedOperation.isDiffProp()) {
-        diffResult.getChangedOperations().put(method, changedOperation);
+        diffResult.putChangedOperation(method, changedOperation);
       }
       if (!diffResult.hasContractChanges() && changedOperation.hasOnlyCosmeticChanges()) {
         diffResult.setHasOnlyCosmeticChanges(true);
       }
+      DiffEvents.endOperation(event, pathUrl, method);
     }
 
     return diffResult;
@@ -1,9 +1,10 @@
 package com.deepoove.swagger.diff.compare;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 
 import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.LazyCollections;
 
 import io.swagger.models.HttpMethod;
 import io.swagger.models.Operation;
@@ -18,9 +19,9 @@ public class OperationsDiffResult {
   private boolean hasOnlyCosmeticChanges;
 
   public OperationsDiffResult() {
-    this.increasedOperations = new HashMap<>();
-    this.missingOperations = new HashMap<>();
-    this.changedOperations = new HashMap<>();
+    this.increasedOperations = Collections.emptyMap();
+    this.missingOperations = Collections.emptyMap();
+    this.changedOperations = Collections.emptyMap();
     this.hasContractChanges = false;
     this.hasOnlyCosmeticChanges = false;
   }
@@ -37,6 +38,10 @@ public class OperationsDiffResult {
     return this.changedOperations;
   }
 
+  public void putChangedOperation(HttpMethod method, ChangedOperation changedOperation) {
+    this.changedOperations = LazyCollections.put(this.changedOperations, method, changedOperation);
+  }
+
   public boolean hasOnlyCosmeticChanges() {
     return this.hasOnlyCosmeticChanges;
   }
@@ -54,7 +59,7 @@ public class OperationsDiffResult {
   }
 
   public void setChangedOperations(Map<HttpMethod, ChangedOperation> changedOperations) {
-    this.changedOperations = changedOperations;
+    this.changedOperations = LazyCollections.copyOf(changedOperations);
   }
 
   public void setHasContractChanges(boolean hasContractChanges) {
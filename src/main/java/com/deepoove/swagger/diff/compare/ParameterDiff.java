@@ -1,6 +1,5 @@
 package com.deepoove.swagger.diff.compare;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -8,6 +7,7 @@ import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 
 import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.deepoove.swagger.diff.model.LazyCollections;
 
 import io.swagger.models.Model;
 import io.swagger.models.RefModel;
@@ -21,38 +21,54 @@ import io.swagger.models.parameters.Parameter;
  */
 public class ParameterDiff {
 
-  private Map<String, Model> oldDefinitions;
-  private Map<String, Model> newDefinitions;
+  private ModelDiff modelDiffer;
+  private DiffMetrics metrics = DiffMetrics.NOOP;
 
-  private ParameterDiff(Map<String, Model> left, Map<String, Model> right) {
-    this.oldDefinitions = left;
-    this.newDefinitions = right;
+  private ParameterDiff(Map<String, Model> left, Map<String, Model> right, ModelDiffCache cache) {
+    this.modelDiffer = ModelDiff.build(left, right, cache);
   }
 
   public static ParameterDiff build(Map<String, Model> left, Map<String, Model> right) {
-    return new ParameterDiff(left, right);
+    return new ParameterDiff(left, right, null);
+  }
+
+  public static ParameterDiff build(Map<String, Model> left, Map<String, Model> right, ModelDiffCache cache) {
+    return new ParameterDiff(left, right, cache);
+  }
+
+  /**
+   * Report the matched parameters and the diffed models to the metrics
+   */
+  public ParameterDiff metrics(DiffMetrics metrics) {
+    this.metrics = null == metrics ? DiffMetrics.NOOP : metrics;
+    modelDiffer.metrics(metrics);
+    return this;
+  }
+
+  /**
+   * @see ModelDiff#maxDepth(int)
+   */
+  public ParameterDiff maxModelDepth(int maxModelDepth) {
+    modelDiffer.maxDepth(maxModelDepth);
+    return this;
   }
 
   public ParameterDiffResult diff(List<Parameter> left, List<Parameter> right) {
     ParameterDiffResult parameterDiffResult = new ParameterDiffResult();
 
     if (null == left) {
-      left = new ArrayList<>();
+      left = Collections.emptyList();
     }
     if (null == right) {
-      right = new ArrayList<>();
+      right = Collections.emptyList();
     }
 
-    parameterDiffResult.addIncreased(right);
+    ParameterIndex rightIndex = new ParameterIndex(right);
     for (Parameter leftPara : left) {
-      String name = leftPara.getName();
-      int index = index(parameterDiffResult.getIncreased(), name);
-      if (-1 == index) {
+      Parameter rightPara = rightIndex.match(leftPara);
+      if (null == rightPara) {
         parameterDiffResult.addMissing(Collections.singleton(leftPara));
       } else {
-        Parameter rightPara = parameterDiffResult.getIncreased().get(index);
-        parameterDiffResult.removeIncreased(index);
-
         ChangedParameter changedParameter = new ChangedParameter();
         changedParameter.setLeftParameter(leftPara);
         changedParameter.setRightParameter(rightPara);
@@ -65,13 +81,12 @@ public class ParameterDiff {
           if (leftSchema instanceof RefModel && rightSchema instanceof RefModel) {
             String leftRef = ((RefModel) leftSchema).getSimpleRef();
             String rightRef = ((RefModel) rightSchema).getSimpleRef();
-            Model leftModel = oldDefinitions.get(leftRef);
-            Model rightModel = newDefinitions.get(rightRef);
             String aRef = leftRef != null ? leftRef : rightRef;
-            ModelDiffResult modelDiff = ModelDiff.build(oldDefinitions, newDefinitions).diff(leftModel, rightModel, aRef);
-            changedParameter.setIncreased(modelDiff.getIncreased());
-            changedParameter.setMissing(modelDiff.getMissing());
-            changedParameter.setChanged(modelDiff.getChanged());
+            ModelDiffResult modelDiff = modelDiffer.diffRefs(leftRef, rightRef, aRef);
+            // the model diff may be shared with other parameters, so copy its lists
+            changedParameter.setIncreased(LazyCollections.copyOf(modelDiff.getIncreased()));
+            changedParameter.setMissing(LazyCollections.copyOf(modelDiff.getMissing()));
+            changedParameter.setChanged(LazyCollections.copyOf(modelDiff.getChanged()));
             parameterDiffResult.setHasOnlyCosmeticChanges(modelDiff.hasOnlyCosmeticChanges());
           }
         }
@@ -98,16 +113,9 @@ public class ParameterDiff {
       }
     }
 
+    List<Parameter> increased = rightIndex.unmatched();
+    parameterDiffResult.setIncreased(increased);
+    metrics.onParameters(left.size() + increased.size());
     return parameterDiffResult;
   }
-
-  private static int index(List<Parameter> right, String name) {
-    for (int i = 0; i < right.size(); i++) {
-      Parameter para = right.get(i);
-      if (name.equals(para.getName())) {
-        return i;
-      }
-    }
-    return -1;
-  }
 }
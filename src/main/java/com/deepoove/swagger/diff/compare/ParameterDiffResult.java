@@ -1,10 +1,11 @@
 package com.deepoove.swagger.diff.compare;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.deepoove.swagger.diff.model.LazyCollections;
 
 import io.swagger.models.parameters.Parameter;
 
@@ -17,9 +18,9 @@ public class ParameterDiffResult {
   private boolean hasOnlyCosmeticChanges;
 
   public ParameterDiffResult() {
-    this.increased = new ArrayList<>();
-    this.missing = new ArrayList<>();
-    this.changed = new ArrayList<>();
+    this.increased = Collections.emptyList();
+    this.missing = Collections.emptyList();
+    this.changed = Collections.emptyList();
     this.hasOnlyCosmeticChanges = false;
   }
 
@@ -28,14 +29,17 @@ public class ParameterDiffResult {
   }
 
   public void setIncreased(List<Parameter> increased) {
-    this.increased = increased;
+    this.increased = LazyCollections.copyOf(increased);
   }
 
   public void addIncreased(Collection<? extends Parameter> increased) {
-    this.increased.addAll(increased);
+    this.increased = LazyCollections.addAll(this.increased, increased);
   }
 
   public void removeIncreased(int index) {
+    if (increased.isEmpty()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+    }
     this.increased.remove(index);
   }
 
@@ -44,11 +48,11 @@ public class ParameterDiffResult {
   }
 
   public void setMissing(List<Parameter> missing) {
-    this.missing = missing;
+    this.missing = LazyCollections.copyOf(missing);
   }
 
   public void addMissing(Collection<? extends Parameter> missing) {
-    this.missing.addAll(missing);
+    this.missing = LazyCollections.addAll(this.missing, missing);
   }
 
   public List<ChangedParameter> getChanged() {
@@ -56,11 +60,11 @@ public class ParameterDiffResult {
   }
 
   public void setChanged(List<ChangedParameter> changed) {
-    this.changed = changed;
+    this.changed = LazyCollections.copyOf(changed);
   }
 
   public void addChanged(Collection<? extends ChangedParameter> changed) {
-    this.changed.addAll(changed);
+    this.changed = LazyCollections.addAll(this.changed, changed);
   }
 
   public boolean hasOnlyCosmeticChanges() {
@@ -0,0 +1,76 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.models.parameters.Parameter;
+
+/**
+ * The parameters of a list indexed by location and name, to match the parameters of another
+ * list with them in one pass. Parameters sharing a key are matched in order, the n-th one of a
+ * list with the n-th one of the other, like with a linear scan.
+ */
+final class ParameterIndex {
+
+  private final List<Parameter> parameters;
+  private final Map<String, Integer> firstIndex;
+  // the index of the next parameter with the same key, -1 for the last one
+  private final int[] next;
+  private final boolean[] matched;
+
+  ParameterIndex(List<Parameter> parameters) {
+    this.parameters = parameters;
+    this.firstIndex = parameters.isEmpty() ? Collections.<String, Integer>emptyMap() : new HashMap<>(parameters.size() * 2);
+    this.next = new int[parameters.size()];
+    this.matched = new boolean[parameters.size()];
+    for (int i = parameters.size() - 1; i >= 0; i--) {
+      Integer following = firstIndex.put(key(parameters.get(i)), i);
+      next[i] = null == following ? -1 : following;
+    }
+  }
+
+  /**
+   * @return the first parameter with the key of the given one that is not matched yet, or null
+   */
+  Parameter match(Parameter parameter) {
+    String key = key(parameter);
+    Integer index = firstIndex.get(key);
+    if (null == index) {
+      return null;
+    }
+    if (-1 == next[index]) {
+      firstIndex.remove(key);
+    } else {
+      firstIndex.put(key, next[index]);
+    }
+    matched[index] = true;
+    return parameters.get(index);
+  }
+
+  /**
+   * @return the parameters that were never matched, in the order of the list
+   */
+  List<Parameter> unmatched() {
+    List<Parameter> unmatched = Collections.emptyList();
+    for (int i = 0; i < parameters.size(); i++) {
+      if (!matched[i]) {
+        if (unmatched.isEmpty()) {
+          unmatched = new ArrayList<>();
+        }
+        unmatched.add(parameters.get(i));
+      }
+    }
+    return unmatched;
+  }
+
+  /**
+   * a parameter is identified by its location and name, a header and a query parameter
+   * with the same name are different parameters
+   */
+  static String key(Parameter parameter) {
+    return parameter.getIn() + ":" + parameter.getName();
+  }
+}
@@ -13,28 +13,45 @@ import io.swagger.models.properties.RefProperty;
 public class PropertyDiff {
 
   private Map<String, Model> oldDefinitions;
-  private Map<String, Model> newDefinitions;
+  private ModelDiff modelDiffer;
 
-  private PropertyDiff(Map<String, Model> left, Map<String, Model> right) {
+  private PropertyDiff(Map<String, Model> left, Map<String, Model> right, ModelDiffCache cache) {
     this.oldDefinitions = left;
-    this.newDefinitions = right;
+    this.modelDiffer = ModelDiff.build(left, right, cache);
   }
 
   public static PropertyDiff build(Map<String, Model> left, Map<String, Model> right) {
-    return new PropertyDiff(left, right);
+    return new PropertyDiff(left, right, null);
+  }
+
+  public static PropertyDiff build(Map<String, Model> left, Map<String, Model> right, ModelDiffCache cache) {
+    return new PropertyDiff(left, right, cache);
+  }
+
+  /**
+   * Report the diffed models to the metrics
+   */
+  public PropertyDiff metrics(DiffMetrics metrics) {
+    modelDiffer.metrics(metrics);
+    return this;
+  }
+
+  /**
+   * @see ModelDiff#maxDepth(int)
+   */
+  public PropertyDiff maxModelDepth(int maxModelDepth) {
+    modelDiffer.maxDepth(maxModelDepth);
+    return this;
   }
 
   public PropertyDiffResult diff(Property left, Property right) {
     PropertyDiffResult diffResult = new PropertyDiffResult();
     if ((null == left || left instanceof RefProperty) && (null == right || right instanceof RefProperty)) {
-      Model leftModel = null == left ? null : oldDefinitions.get(((RefProperty) left).getSimpleRef());
-      Model rightModel = null == right ? null : newDefinitions.get(((RefProperty) right).getSimpleRef());
-      String ref = leftModel != null
-          ? ((RefProperty) left).getSimpleRef()
-          : right != null
-          ? ((RefProperty) right).getSimpleRef()
-          : null;
-      ModelDiffResult modelDiff = ModelDiff.build(oldDefinitions, newDefinitions).diff(leftModel, rightModel, ref);
+      String leftRef = null == left ? null : ((RefProperty) left).getSimpleRef();
+      String rightRef = null == right ? null : ((RefProperty) right).getSimpleRef();
+      Model leftModel = null == leftRef || null == oldDefinitions ? null : oldDefinitions.get(leftRef);
+      String ref = leftModel != null ? leftRef : rightRef;
+      ModelDiffResult modelDiff = modelDiffer.diffRefs(leftRef, rightRef, ref);
       diffResult.addIncreased(modelDiff.getIncreased());
       diffResult.addMissing(modelDiff.getMissing());
       diffResult.addChanged(modelDiff.getChanged());
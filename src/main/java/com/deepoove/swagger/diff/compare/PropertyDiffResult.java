@@ -1,10 +1,11 @@
 package com.deepoove.swagger.diff.compare;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.deepoove.swagger.diff.model.ElProperty;
+import com.deepoove.swagger.diff.model.LazyCollections;
 
 public class PropertyDiffResult {
 
@@ -15,9 +16,9 @@ public class PropertyDiffResult {
   private boolean hasOnlyCosmeticChanges;
 
   public PropertyDiffResult() {
-    this.increased = new ArrayList<>();
-    this.missing = new ArrayList<>();
-    this.changed = new ArrayList<>();
+    this.increased = Collections.emptyList();
+    this.missing = Collections.emptyList();
+    this.changed = Collections.emptyList();
     this.hasOnlyCosmeticChanges = false;
   }
 
@@ -26,11 +27,11 @@ public class PropertyDiffResult {
   }
 
   public void setIncreased(List<ElProperty> increased) {
-    this.increased = increased;
+    this.increased = LazyCollections.copyOf(increased);
   }
 
   public void addIncreased(Collection<? extends ElProperty> increased) {
-    this.increased.addAll(increased);
+    this.increased = LazyCollections.addAll(this.increased, increased);
   }
 
   public List<ElProperty> getMissing() {
@@ -38,11 +39,11 @@ public class PropertyDiffResult {
   }
 
   public void setMissing(List<ElProperty> missing) {
-    this.missing = missing;
+    this.missing = LazyCollections.copyOf(missing);
   }
 
   public void addMissing(Collection<? extends ElProperty> missing) {
-    this.missing.addAll(missing);
+    this.missing = LazyCollections.addAll(this.missing, missing);
   }
 
   public List<ElProperty> getChanged() {
@@ -50,11 +51,11 @@ public class PropertyDiffResult {
   }
 
   public void setChanged(List<ElProperty> changed) {
-    this.changed = changed;
+    this.changed = LazyCollections.copyOf(changed);
   }
 
   public void addChanged(Collection<? extends ElProperty> changed) {
-    this.changed.addAll(changed);
+    this.changed = LazyCollections.addAll(this.changed, changed);
   }
 
   public boolean hasOnlyCosmeticChanges() {
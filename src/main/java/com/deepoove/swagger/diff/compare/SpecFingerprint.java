@@ -0,0 +1,484 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.Property;
+
+/**
+ * Bottom-up structural fingerprints of the paths, operations, definitions and definition
+ * properties of one spec.
+ * <p>
+ * A fingerprint covers everything a node serializes to, and a {@code $ref} is folded in by the
+ * fingerprint of the referenced definition, so two nodes with the same fingerprint diff to
+ * nothing. Definitions referring to each other are fingerprinted per strongly connected
+ * component: a change anywhere in a ref cycle changes the fingerprint of every member. The refs of
+ * a property are folded in by the fingerprints of the definitions they refer to, so a property
+ * only changes with what it refers to.
+ * <p>
+ * Nodes that cannot be serialized have no fingerprint and are always diffed. A fingerprint is
+ * immutable once built and only valid as long as the spec is not modified.
+ *
+ * @see #same(Long, Long)
+ */
+public class SpecFingerprint {
+
+  private static final String DEFINITIONS_PREFIX = "#/definitions/";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+      .addMixIn(Property.class, PropertyMixin.class)
+      .addMixIn(Model.class, TypedMixin.class)
+      .addMixIn(Parameter.class, TypedMixin.class);
+
+  private static final long TAG_OBJECT = 0x01;
+  private static final long TAG_ARRAY = 0x02;
+  private static final long TAG_TEXT = 0x03;
+  private static final long TAG_NUMBER = 0x04;
+  private static final long TAG_BOOLEAN = 0x05;
+  private static final long TAG_NULL = 0x06;
+  private static final long TAG_REF = 0x07;
+  private static final long TAG_LOCAL_REF = 0x08;
+  private static final long TAG_MISSING_REF = 0x09;
+  private static final long TAG_COMPONENT = 0x0A;
+
+  private final Map<String, Long> definitions;
+  private final Map<String, Map<String, Long>> properties;
+  private final Map<String, Long> paths;
+  private final Map<Operation, Long> operations;
+
+  private SpecFingerprint(Map<String, Long> definitions, Map<String, Map<String, Long>> properties,
+                          Map<String, Long> paths, Map<Operation, Long> operations) {
+    this.definitions = definitions;
+    this.properties = properties;
+    this.paths = paths;
+    this.operations = operations;
+  }
+
+  public static SpecFingerprint of(Swagger swagger) {
+    Map<String, Long> definitions = new HashMap<String, Long>();
+    Map<String, Map<String, Long>> properties = new HashMap<String, Map<String, Long>>();
+    fingerprintDefinitions(swagger.getDefinitions(), definitions, properties);
+    Map<String, Long> paths = new HashMap<String, Long>();
+    Map<Operation, Long> operations = new IdentityHashMap<Operation, Long>();
+    if (null != swagger.getPaths()) {
+      for (Entry<String, Path> entry : swagger.getPaths().entrySet()) {
+        fingerprintPath(entry.getKey(), entry.getValue(), definitions, paths, operations);
+      }
+    }
+    return new SpecFingerprint(definitions, properties, paths, operations);
+  }
+
+  /**
+   * @return true if both fingerprints are known and equal, i.e. the nodes diff to nothing
+   */
+  public static boolean same(Long left, Long right) {
+    return null != left && left.equals(right);
+  }
+
+  public Long definition(String name) {
+    return null == name ? null : definitions.get(name);
+  }
+
+  /**
+   * @return the fingerprint of a property of a definition, or null if either is unknown
+   */
+  public Long property(String definition, String property) {
+    Map<String, Long> definitionProperties = null == definition ? null : properties.get(definition);
+    return null == definitionProperties ? null : definitionProperties.get(property);
+  }
+
+  public Long path(String pathUrl) {
+    return paths.get(pathUrl);
+  }
+
+  public Long operation(Operation operation) {
+    return operations.get(operation);
+  }
+
+  private static void fingerprintPath(String pathUrl, Path path, Map<String, Long> definitions,
+                                      Map<String, Long> paths, Map<Operation, Long> operations) {
+    JsonNode tree = toTree(path);
+    if (null == tree) {
+      return;
+    }
+    Map<HttpMethod, Operation> operationMap = path.getOperationMap();
+    RefFolder folder = new SpecRefFolder(definitions);
+    Map<Operation, Long> pathOperations = new IdentityHashMap<Operation, Long>();
+    long hash = TAG_OBJECT;
+    try {
+      Iterator<Entry<String, JsonNode>> fields = tree.fields();
+      while (fields.hasNext()) {
+        Entry<String, JsonNode> field = fields.next();
+        long child = hash(field.getValue(), folder);
+        Operation operation = operationMap.get(httpMethod(field.getKey()));
+        if (null != operation) {
+          pathOperations.put(operation, child);
+        }
+        hash = mix(mix(hash, hash(field.getKey())), child);
+      }
+    } catch (UnknownRefException e) {
+      return;
+    }
+    paths.put(pathUrl, hash);
+    operations.putAll(pathOperations);
+  }
+
+  private static HttpMethod httpMethod(String field) {
+    try {
+      return HttpMethod.valueOf(field.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static void fingerprintDefinitions(Map<String, Model> models, Map<String, Long> fingerprints,
+                                             Map<String, Map<String, Long>> properties) {
+    if (null == models || models.isEmpty()) {
+      return;
+    }
+    int size = models.size();
+    String[] names = new String[size];
+    JsonNode[] trees = new JsonNode[size];
+    Map<String, Integer> indexes = new HashMap<String, Integer>(size * 2);
+    int n = 0;
+    for (Entry<String, Model> entry : models.entrySet()) {
+      names[n] = entry.getKey();
+      trees[n] = toTree(entry.getValue());
+      indexes.put(entry.getKey(), n);
+      n++;
+    }
+    int[][] edges = new int[size][];
+    for (int i = 0; i < size; i++) {
+      edges[i] = references(trees[i], indexes);
+    }
+    new ComponentWalker(names, trees, edges, indexes, fingerprints).run();
+    RefFolder folder = new SpecRefFolder(fingerprints);
+    for (int i = 0; i < size; i++) {
+      Map<String, Long> definitionProperties = fingerprintProperties(trees[i], folder);
+      if (!definitionProperties.isEmpty()) {
+        properties.put(names[i], definitionProperties);
+      }
+    }
+  }
+
+  /**
+   * Every definition is fingerprinted by now, so a property in a ref cycle is folded like any other
+   */
+  private static Map<String, Long> fingerprintProperties(JsonNode tree, RefFolder folder) {
+    JsonNode node = null == tree ? null : tree.get("properties");
+    if (null == node || !node.isObject()) {
+      return Collections.emptyMap();
+    }
+    Map<String, Long> fingerprints = new HashMap<String, Long>(node.size() * 2);
+    Iterator<Entry<String, JsonNode>> fields = node.fields();
+    while (fields.hasNext()) {
+      Entry<String, JsonNode> field = fields.next();
+      try {
+        fingerprints.put(field.getKey(), hash(field.getValue(), folder));
+      } catch (UnknownRefException e) {
+        // refers to a definition without fingerprint, always diffed
+      }
+    }
+    return fingerprints;
+  }
+
+  /**
+   * Tarjan's algorithm without recursion: components are completed in reverse topological
+   * order, so the fingerprints of every definition outside a component are known by then.
+   */
+  private static class ComponentWalker {
+    private final String[] names;
+    private final JsonNode[] trees;
+    private final int[][] edges;
+    private final Map<String, Integer> indexes;
+    private final Map<String, Long> fingerprints;
+
+    private final int[] index;
+    private final int[] lowLink;
+    private final int[] component;
+    private final boolean[] onStack;
+    private final int[] stack;
+    private int stackSize;
+    private int counter;
+    private int components;
+
+    ComponentWalker(String[] names, JsonNode[] trees, int[][] edges, Map<String, Integer> indexes,
+                    Map<String, Long> fingerprints) {
+      this.names = names;
+      this.trees = trees;
+      this.edges = edges;
+      this.indexes = indexes;
+      this.fingerprints = fingerprints;
+      this.index = new int[names.length];
+      this.lowLink = new int[names.length];
+      this.component = new int[names.length];
+      this.onStack = new boolean[names.length];
+      this.stack = new int[names.length];
+      Arrays.fill(index, -1);
+      Arrays.fill(component, -1);
+    }
+
+    void run() {
+      int[] callStack = new int[names.length];
+      int[] edgePosition = new int[names.length];
+      for (int root = 0; root < names.length; root++) {
+        if (index[root] != -1) {
+          continue;
+        }
+        int depth = 0;
+        callStack[0] = root;
+        edgePosition[0] = 0;
+        visit(root);
+        while (depth >= 0) {
+          int v = callStack[depth];
+          if (edgePosition[depth] < edges[v].length) {
+            int w = edges[v][edgePosition[depth]++];
+            if (index[w] == -1) {
+              visit(w);
+              depth++;
+              callStack[depth] = w;
+              edgePosition[depth] = 0;
+            } else if (onStack[w]) {
+              lowLink[v] = Math.min(lowLink[v], index[w]);
+            }
+            continue;
+          }
+          if (lowLink[v] == index[v]) {
+            completeComponent(v);
+          }
+          depth--;
+          if (depth >= 0) {
+            int parent = callStack[depth];
+            lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+          }
+        }
+      }
+    }
+
+    private void visit(int v) {
+      index[v] = counter;
+      lowLink[v] = counter;
+      counter++;
+      stack[stackSize++] = v;
+      onStack[v] = true;
+    }
+
+    private void completeComponent(int root) {
+      int id = components++;
+      List<Integer> members = new ArrayList<Integer>();
+      int w;
+      do {
+        w = stack[--stackSize];
+        onStack[w] = false;
+        component[w] = id;
+        members.add(w);
+      } while (w != root);
+      members.sort((a, b) -> names[a].compareTo(names[b]));
+
+      RefFolder folder = ref -> {
+        Integer target = indexes.get(simpleRef(ref));
+        if (null == target) {
+          return mix(TAG_MISSING_REF, hash(ref));
+        }
+        if (component[target] == id) {
+          return mix(TAG_LOCAL_REF, hash(names[target]));
+        }
+        Long fingerprint = fingerprints.get(names[target]);
+        if (null == fingerprint) {
+          throw new UnknownRefException();
+        }
+        return mix(TAG_REF, fingerprint);
+      };
+      Long componentHash = TAG_COMPONENT;
+      try {
+        for (int member : members) {
+          if (null == trees[member]) {
+            componentHash = null;
+            break;
+          }
+          componentHash = mix(mix(componentHash, hash(names[member])), hash(trees[member], folder));
+        }
+      } catch (UnknownRefException e) {
+        componentHash = null;
+      }
+      // members without a fingerprint are kept with a null value, refs to them are unknown
+      for (int member : members) {
+        fingerprints.put(names[member], null == componentHash ? null : mix(componentHash, hash(names[member])));
+      }
+    }
+  }
+
+  private static int[] references(JsonNode tree, Map<String, Integer> indexes) {
+    if (null == tree) {
+      return new int[0];
+    }
+    List<Integer> targets = new ArrayList<Integer>();
+    collectReferences(tree, indexes, targets);
+    int[] result = new int[targets.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = targets.get(i);
+    }
+    return result;
+  }
+
+  private static void collectReferences(JsonNode node, Map<String, Integer> indexes, List<Integer> targets) {
+    if (node.isObject()) {
+      JsonNode ref = node.get("$ref");
+      if (null != ref && ref.isTextual()) {
+        Integer target = indexes.get(simpleRef(ref.textValue()));
+        if (null != target) {
+          targets.add(target);
+        }
+      }
+    }
+    for (JsonNode child : node) {
+      collectReferences(child, indexes, targets);
+    }
+  }
+
+  private static String simpleRef(String ref) {
+    return ref.startsWith(DEFINITIONS_PREFIX) ? ref.substring(DEFINITIONS_PREFIX.length()) : ref;
+  }
+
+  private static JsonNode toTree(Object value) {
+    try {
+      return MAPPER.valueToTree(value);
+    } catch (IllegalArgumentException e) {
+      // e.g. a vendor extension holding an object jackson cannot serialize
+      return null;
+    }
+  }
+
+  private static long hash(JsonNode node, RefFolder folder) {
+    switch (node.getNodeType()) {
+      case OBJECT:
+        long hash = TAG_OBJECT;
+        Iterator<Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+          Entry<String, JsonNode> field = fields.next();
+          JsonNode value = field.getValue();
+          long child = "$ref".equals(field.getKey()) && value.isTextual()
+              ? folder.fold(value.textValue())
+              : hash(value, folder);
+          hash = mix(mix(hash, hash(field.getKey())), child);
+        }
+        return hash;
+      case ARRAY:
+        long arrayHash = mix(TAG_ARRAY, node.size());
+        for (JsonNode element : node) {
+          arrayHash = mix(arrayHash, hash(element, folder));
+        }
+        return arrayHash;
+      case STRING:
+        return mix(TAG_TEXT, hash(node.textValue()));
+      case NUMBER:
+        return mix(TAG_NUMBER, hash(node.asText()));
+      case BOOLEAN:
+        return mix(TAG_BOOLEAN, node.booleanValue() ? 1 : 0);
+      case NULL:
+      case MISSING:
+        return TAG_NULL;
+      default:
+        return mix(TAG_TEXT, hash(node.toString()));
+    }
+  }
+
+  private static long hash(String value) {
+    // FNV-1a over the UTF-16 code units
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash, value.length());
+  }
+
+  private static long mix(long hash, long value) {
+    long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+    h ^= h >>> 32;
+    h *= 0xD6E8FEB86659FD93L;
+    return h ^ (h >>> 32);
+  }
+
+  private interface RefFolder {
+    long fold(String ref);
+  }
+
+  private static class SpecRefFolder implements RefFolder {
+    private final Map<String, Long> definitions;
+
+    SpecRefFolder(Map<String, Long> definitions) {
+      this.definitions = definitions;
+    }
+
+    @Override
+    public long fold(String ref) {
+      String name = simpleRef(ref);
+      if (!definitions.containsKey(name)) {
+        return mix(TAG_MISSING_REF, hash(ref));
+      }
+      Long fingerprint = definitions.get(name);
+      if (null == fingerprint) {
+        throw new UnknownRefException();
+      }
+      return mix(TAG_REF, fingerprint);
+    }
+  }
+
+  /**
+   * thrown when a ref points to a definition without fingerprint
+   */
+  private static class UnknownRefException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    UnknownRefException() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Properties, models and parameters with the same JSON but a different class are not equal,
+   * and the name, access and required flag of a property are not serialized.
+   */
+  @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "@class")
+  abstract static class PropertyMixin {
+    @JsonProperty("@name")
+    @JsonIgnore(false)
+    abstract String getName();
+
+    @JsonProperty("@access")
+    @JsonIgnore(false)
+    abstract String getAccess();
+
+    @JsonProperty("@required")
+    @JsonIgnore(false)
+    abstract boolean getRequired();
+  }
+
+  @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "@class")
+  abstract static class TypedMixin {
+  }
+}
@@ -0,0 +1,71 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.models.Tag;
+
+/**
+ * The lookups a diff makes on the old spec, built once for a spec diffed against many others.
+ * <p>
+ * An index is immutable and shared read-only by concurrent diffs, the indexed spec must not be
+ * modified once indexed.
+ */
+public final class SpecIndex {
+
+  private final Swagger spec;
+  private final Map<String, Map<HttpMethod, Operation>> operations;
+  private final Map<String, Tag> tags;
+
+  private SpecIndex(Swagger spec) {
+    this.spec = spec;
+    Map<String, Map<HttpMethod, Operation>> operations = new LinkedHashMap<String, Map<HttpMethod, Operation>>();
+    if (null != spec.getPaths()) {
+      for (Entry<String, Path> entry : spec.getPaths().entrySet()) {
+        operations.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue().getOperationMap()));
+      }
+    }
+    this.operations = Collections.unmodifiableMap(operations);
+    this.tags = Collections.unmodifiableMap(mapTagsByName(spec.getTags()));
+  }
+
+  public static SpecIndex of(Swagger spec) {
+    if (null == spec) {
+      throw new IllegalArgumentException("cannot index null spec.");
+    }
+    return new SpecIndex(spec);
+  }
+
+  public Swagger getSpec() {
+    return spec;
+  }
+
+  /**
+   * @return the operations of the path by method, or null if the spec has no such path
+   */
+  public Map<HttpMethod, Operation> operations(String pathUrl) {
+    return operations.get(pathUrl);
+  }
+
+  public Map<String, Tag> getTags() {
+    return tags;
+  }
+
+  static Map<String, Tag> mapTagsByName(List<Tag> tags) {
+    Map<String, Tag> mappedTags = new LinkedHashMap<String, Tag>();
+    if (tags == null) {
+      return mappedTags;
+    }
+    for (Tag tag : tags) {
+      mappedTags.put(tag.getName(), tag);
+    }
+    return mappedTags;
+  }
+}
@@ -3,14 +3,20 @@ package com.deepoove.swagger.diff.compare;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
+import com.deepoove.swagger.diff.event.DiffEvents;
 import com.deepoove.swagger.diff.model.ChangedEndpoint;
 import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.deepoove.swagger.diff.model.ElProperty;
 import com.deepoove.swagger.diff.model.Endpoint;
 
 import io.swagger.models.HttpMethod;
@@ -28,7 +34,13 @@ import io.swagger.models.Tag;
 public class SpecificationDiff {
   private Swagger oldSpec;
   private Swagger newSpec;
+  private SpecIndex oldIndex;
   private boolean withExtensions;
+  private Executor executor;
+  private SpecFingerprint oldFingerprint;
+  private SpecFingerprint newFingerprint;
+  private DiffMetrics metrics = DiffMetrics.NOOP;
+  private int maxModelDepth = ModelDiff.DEFAULT_MAX_DEPTH;
 
   private SpecificationDiff(Swagger oldSpec, Swagger newSpec, boolean withExtensions) {
     this.oldSpec = oldSpec;
@@ -44,84 +56,232 @@ public class SpecificationDiff {
     return new SpecificationDiff(oldSpec, newSpec, withExtensions);
   }
 
+  /**
+   * Diff an indexed old spec, the index is only read and can be shared by concurrent diffs
+   */
+  public static SpecificationDiff build(SpecIndex oldIndex, Swagger newSpec, boolean withExtensions) {
+    SpecificationDiff specificationDiff = new SpecificationDiff(oldIndex.getSpec(), newSpec, withExtensions);
+    specificationDiff.oldIndex = oldIndex;
+    return specificationDiff;
+  }
+
+  /**
+   * Diff the shared paths concurrently on the given executor, e.g. a {@link java.util.concurrent.ForkJoinPool}
+   * with the desired parallelism. The result is identical to the one of a sequential diff.
+   *
+   * @param executor executor running the per path diffs, or null to diff sequentially
+   */
+  public SpecificationDiff executor(Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Skip the paths, operations and definitions that are structurally identical in both specs.
+   * Fingerprinting walks both specs once, it pays off when most of the specs are unchanged
+   * or when the fingerprint of a spec is reused across diffs.
+   *
+   * @param fingerprint true to fingerprint both specs when diffing
+   */
+  public SpecificationDiff fingerprint(boolean fingerprint) {
+    if (!fingerprint) {
+      return fingerprints(null, null);
+    }
+    return fingerprints(SpecFingerprint.of(oldSpec), SpecFingerprint.of(newSpec));
+  }
+
+  /**
+   * Skip the paths, operations and definitions whose given fingerprints are equal
+   */
+  public SpecificationDiff fingerprints(SpecFingerprint oldFingerprint, SpecFingerprint newFingerprint) {
+    this.oldFingerprint = oldFingerprint;
+    this.newFingerprint = newFingerprint;
+    return this;
+  }
+
+  /**
+   * Report the phase timings, the visited paths, operations, parameters and models, and the
+   * cost of each diffed path to the metrics
+   */
+  public SpecificationDiff metrics(DiffMetrics metrics) {
+    this.metrics = null == metrics ? DiffMetrics.NOOP : metrics;
+    return this;
+  }
+
+  /**
+   * Walk the models referred to by the parameters and responses down to the given depth only
+   *
+   * @see ModelDiff#maxDepth(int)
+   */
+  public SpecificationDiff maxModelDepth(int maxModelDepth) {
+    this.maxModelDepth = maxModelDepth;
+    return this;
+  }
+
   public SpecificationDiffResult diff() {
     SpecificationDiffResult specificationDiffResult = new SpecificationDiffResult();
-    VendorExtensionDiff extDiffer = new VendorExtensionDiff(withExtensions);
+    diff(specificationDiffResult);
+    return specificationDiffResult;
+  }
+
+  /**
+   * Send the differences to the listener as they are found, without collecting them
+   */
+  public void diff(DiffListener listener) {
+    long diffStart = metrics.nanoTime();
+    DiffStatus status = new DiffStatus();
+    VendorExtensionDiff extDiffer = new VendorExtensionDiff(withExtensions, metrics);
+    ModelDiffCache modelCache = new ModelDiffCache(oldFingerprint, newFingerprint);
     if (null == oldSpec || null == newSpec) {
       throw new IllegalArgumentException("cannot diff null spec.");
     }
     Map<String, Path> oldPaths = oldSpec.getPaths();
     Map<String, Path> newPaths = newSpec.getPaths();
+    long matchStart = metrics.nanoTime();
     MapKeyDiff<String, Path> pathDiff = MapKeyDiff.diff(oldPaths, newPaths);
-    specificationDiffResult.setNewEndpoints(convert2EndpointList(pathDiff.getIncreased()));
-    specificationDiffResult.setMissingEndpoints(convert2EndpointList(pathDiff.getMissing()));
+    metrics.onPhase(DiffMetrics.Phase.PATH_MATCHING, metrics.nanoTime() - matchStart);
+    fireEndpoints(pathDiff.getIncreased(), listener, true);
+    fireEndpoints(pathDiff.getMissing(), listener, false);
 
     ChangedExtensionGroup specExtDiff = extDiffer.diff(oldSpec, newSpec);
-    specificationDiffResult.setVendorExtsFromGroup(specExtDiff);
-    checkVendorExtsDiff(specificationDiffResult, specExtDiff);
+    listener.onVendorExtensionChanged(null, specExtDiff);
+    status.checkVendorExtsDiff(specExtDiff);
 
     Info oldInfo = oldSpec.getInfo();
     Info newInfo = newSpec.getInfo();
     ChangedExtensionGroup infoExtDiff = extDiffer.diff(oldInfo, newInfo);
-    specificationDiffResult.putSubGroup("info", infoExtDiff);
-    checkVendorExtsDiff(specificationDiffResult, infoExtDiff);
+    listener.onVendorExtensionChanged("info", infoExtDiff);
+    status.checkVendorExtsDiff(infoExtDiff);
 
-    if (!specificationDiffResult.hasContractChanges() && infoHasChanges(oldInfo, newInfo)) {
-      specificationDiffResult.setHasOnlyCosmeticChanges(true);
+    if (!status.hasContractChanges && infoHasChanges(oldInfo, newInfo)) {
+      status.hasOnlyCosmeticChanges = true;
     }
 
-    List<Tag> oldTags = oldSpec.getTags();
-    List<Tag> newTags = newSpec.getTags();
-    ChangedExtensionGroup tagExtDiff = extDiffer.diffTagGroup(mapTagsByName(oldTags), mapTagsByName(newTags));
-    specificationDiffResult.putSubGroup("tags", tagExtDiff);
+    Map<String, Tag> oldTags = null == oldIndex ? SpecIndex.mapTagsByName(oldSpec.getTags()) : oldIndex.getTags();
+    Map<String, Tag> newTags = SpecIndex.mapTagsByName(newSpec.getTags());
+    ChangedExtensionGroup tagExtDiff = extDiffer.diffTagGroup(oldTags, newTags);
+    listener.onVendorExtensionChanged("tags", tagExtDiff);
 
     List<String> sharedKey = pathDiff.getSharedKey();
-    ChangedEndpoint changedEndpoint;
-    for (String pathUrl : sharedKey) {
-      changedEndpoint = new ChangedEndpoint();
-      changedEndpoint.setPathUrl(pathUrl);
-      Path oldPath = oldPaths.get(pathUrl);
-      Path newPath = newPaths.get(pathUrl);
-
-      ChangedExtensionGroup pathExtDiff = extDiffer.diff(oldPath, newPath);
-      changedEndpoint.setVendorExtsFromGroup(pathExtDiff);
-      checkVendorExtsDiff(specificationDiffResult, pathExtDiff);
-
-      OperationsDiffResult operationsDiffResult = OperationsDiff.build(oldPath.getOperationMap(),
-          newPath.getOperationMap(),
-          oldSpec.getDefinitions(),
-          newSpec.getDefinitions(),
-          extDiffer).diff();
-      changedEndpoint.setNewOperations(operationsDiffResult.getIncreasedOperation());
-      changedEndpoint.setMissingOperations(operationsDiffResult.getMissingOperation());
-      changedEndpoint.setChangedOperations(operationsDiffResult.getChangedOperations());
-      if (operationsDiffResult.hasOnlyCosmeticChanges() && !specificationDiffResult.hasContractChanges()) {
-        specificationDiffResult.setHasOnlyCosmeticChanges(true);
-      } else if (operationsDiffResult.hasContractChanges()) {
-        specificationDiffResult.setHasContractChanges(true);
-        specificationDiffResult.setHasOnlyCosmeticChanges(false);
+    if (null != oldFingerprint && null != newFingerprint) {
+      long skipStart = metrics.nanoTime();
+      // identical paths diff to nothing, leave them out before any work is done for them
+      List<String> changedKey = new ArrayList<String>();
+      for (String pathUrl : sharedKey) {
+        if (!SpecFingerprint.same(oldFingerprint.path(pathUrl), newFingerprint.path(pathUrl))) {
+          changedKey.add(pathUrl);
+        }
       }
-
-      changedEndpoint.setNewOperations(operationsDiffResult.getIncreasedOperation());
-      changedEndpoint.setMissingOperations(operationsDiffResult.getMissingOperation());
-      changedEndpoint.setChangedOperations(operationsDiffResult.getChangedOperations());
-
-      specificationDiffResult.addNewEndpoints(convert2EndpointList(changedEndpoint.getPathUrl(), changedEndpoint.getNewOperations()));
-      specificationDiffResult.addMissingEndpoints(convert2EndpointList(changedEndpoint.getPathUrl(), changedEndpoint.getMissingOperations()));
-
-      if (changedEndpoint.isDiff()) {
-        specificationDiffResult.addChangedEndpoints(Collections.singleton(changedEndpoint));
+      sharedKey = changedKey;
+      metrics.onPhase(DiffMetrics.Phase.PATH_MATCHING, metrics.nanoTime() - skipStart);
+    }
+    if (null == executor) {
+      for (String pathUrl : sharedKey) {
+        merge(status, listener, diffPath(pathUrl, oldPaths.get(pathUrl), newPaths.get(pathUrl), extDiffer, modelCache));
+      }
+    } else {
+      // diff the shared paths concurrently but merge them in key order, so the
+      // result is the same as the one of a sequential run
+      List<CompletableFuture<PathDiffResult>> futures = new ArrayList<CompletableFuture<PathDiffResult>>(sharedKey.size());
+      for (String pathUrl : sharedKey) {
+        Path oldPath = oldPaths.get(pathUrl);
+        Path newPath = newPaths.get(pathUrl);
+        futures.add(CompletableFuture.supplyAsync(() -> diffPath(pathUrl, oldPath, newPath, extDiffer, modelCache), executor));
       }
-      if (changedEndpoint.hasOnlyCosmeticChanges() && !specificationDiffResult.hasContractChanges()) {
-        specificationDiffResult.setHasOnlyCosmeticChanges(true);
+      for (CompletableFuture<PathDiffResult> future : futures) {
+        merge(status, listener, join(future));
       }
     }
 
     ChangedExtensionGroup securityExtDiff = extDiffer.diffSecGroup(oldSpec.getSecurityDefinitions(), newSpec.getSecurityDefinitions());
-    specificationDiffResult.putSubGroup("securityDefinitions", securityExtDiff);
-    checkVendorExtsDiff(specificationDiffResult, securityExtDiff);
+    listener.onVendorExtensionChanged("securityDefinitions", securityExtDiff);
+    status.checkVendorExtsDiff(securityExtDiff);
 
-    return specificationDiffResult;
+    metrics.onPhase(DiffMetrics.Phase.DIFF, metrics.nanoTime() - diffStart);
+    listener.onComplete(status.hasContractChanges, status.hasOnlyCosmeticChanges);
+  }
+
+  private PathDiffResult diffPath(String pathUrl, Path oldPath, Path newPath, VendorExtensionDiff extDiffer,
+                                  ModelDiffCache modelCache) {
+    Object event = DiffEvents.beginPath();
+    long start = metrics.nanoTime();
+    ChangedEndpoint changedEndpoint = new ChangedEndpoint();
+    changedEndpoint.setPathUrl(pathUrl);
+
+    ChangedExtensionGroup pathExtDiff = extDiffer.diff(oldPath, newPath);
+    changedEndpoint.setVendorExtsFromGroup(pathExtDiff);
+
+    Map<HttpMethod, Operation> oldOperations = null == oldIndex ? oldPath.getOperationMap() : oldIndex.operations(pathUrl);
+    OperationsDiffResult operationsDiffResult = OperationsDiff.build(oldOperations,
+        newPath.getOperationMap(),
+        oldSpec.getDefinitions(),
+        newSpec.getDefinitions(),
+        extDiffer,
+        modelCache)
+        .fingerprints(oldFingerprint, newFingerprint)
+        .metrics(metrics)
+        .maxModelDepth(maxModelDepth)
+        .path(pathUrl)
+        .diff();
+    changedEndpoint.setNewOperations(operationsDiffResult.getIncreasedOperation());
+    changedEndpoint.setMissingOperations(operationsDiffResult.getMissingOperation());
+    changedEndpoint.setChangedOperations(operationsDiffResult.getChangedOperations());
+    metrics.onPath(pathUrl, metrics.nanoTime() - start);
+    DiffEvents.endPath(event, pathUrl);
+    return new PathDiffResult(changedEndpoint, pathExtDiff, operationsDiffResult);
+  }
+
+  private static void merge(DiffStatus status, DiffListener listener, PathDiffResult pathDiffResult) {
+    ChangedEndpoint changedEndpoint = pathDiffResult.changedEndpoint;
+    OperationsDiffResult operationsDiffResult = pathDiffResult.operationsDiffResult;
+    status.checkVendorExtsDiff(pathDiffResult.pathExtDiff);
+
+    if (operationsDiffResult.hasOnlyCosmeticChanges() && !status.hasContractChanges) {
+      status.hasOnlyCosmeticChanges = true;
+    } else if (operationsDiffResult.hasContractChanges()) {
+      status.hasContractChanges = true;
+      status.hasOnlyCosmeticChanges = false;
+    }
+
+    String pathUrl = changedEndpoint.getPathUrl();
+    for (Endpoint endpoint : convert2EndpointList(pathUrl, changedEndpoint.getNewOperations())) {
+      listener.onNewEndpoint(endpoint);
+    }
+    for (Endpoint endpoint : convert2EndpointList(pathUrl, changedEndpoint.getMissingOperations())) {
+      listener.onMissingEndpoint(endpoint);
+    }
+
+    if (changedEndpoint.isDiff()) {
+      for (Entry<HttpMethod, ChangedOperation> entry : changedEndpoint.getChangedOperations().entrySet()) {
+        HttpMethod method = entry.getKey();
+        ChangedOperation changedOperation = entry.getValue();
+        for (ChangedParameter changedParameter : changedOperation.getChangedParameters()) {
+          listener.onChangedParameter(pathUrl, method, changedParameter);
+          for (ElProperty property : changedParameter.getChanged()) {
+            listener.onPropertyChanged(pathUrl, method, property);
+          }
+        }
+        for (ElProperty property : changedOperation.getChangedProps()) {
+          listener.onPropertyChanged(pathUrl, method, property);
+        }
+        listener.onChangedOperation(pathUrl, method, changedOperation);
+      }
+      listener.onChangedEndpoint(changedEndpoint);
+    }
+    if (changedEndpoint.hasOnlyCosmeticChanges() && !status.hasContractChanges) {
+      status.hasOnlyCosmeticChanges = true;
+    }
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
   }
 
 //  private static boolean tagsHaveChanges(List<Tag> oldTags, List<Tag> newTags) {
@@ -172,21 +332,37 @@ public class SpecificationDiff {
     }
   }
 
-  private static Map<String, Tag> mapTagsByName(List<Tag> tags) {
-    Map<String, Tag> mappedTags = new LinkedHashMap<String, Tag>();
-    if (tags == null) {
-      return mappedTags;
+  /**
+   * The change flags of a running diff
+   */
+  private static class DiffStatus {
+    private boolean hasContractChanges;
+    private boolean hasOnlyCosmeticChanges;
+
+    private void checkVendorExtsDiff(ChangedExtensionGroup extDiff) {
+      if (extDiff.vendorExtensionsAreDiff()) {
+        hasContractChanges = true;
+        hasOnlyCosmeticChanges = false;
+      }
     }
-    for (Tag tag : tags) {
-      mappedTags.put(tag.getName(), tag);
+  }
+
+  private static class PathDiffResult {
+    private final ChangedEndpoint changedEndpoint;
+    private final ChangedExtensionGroup pathExtDiff;
+    private final OperationsDiffResult operationsDiffResult;
+
+    private PathDiffResult(ChangedEndpoint changedEndpoint, ChangedExtensionGroup pathExtDiff,
+                           OperationsDiffResult operationsDiffResult) {
+      this.changedEndpoint = changedEndpoint;
+      this.pathExtDiff = pathExtDiff;
+      this.operationsDiffResult = operationsDiffResult;
     }
-    return mappedTags;
   }
 
-  private static List<Endpoint> convert2EndpointList(Map<String, Path> map) {
-    List<Endpoint> endpoints = new ArrayList<Endpoint>();
+  private static void fireEndpoints(Map<String, Path> map, DiffListener listener, boolean added) {
     if (null == map) {
-      return endpoints;
+      return;
     }
     for (Entry<String, Path> entry : map.entrySet()) {
       String url = entry.getKey();
@@ -203,17 +379,20 @@ public class SpecificationDiff {
         endpoint.setSummary(operation.getSummary());
         endpoint.setPath(path);
         endpoint.setOperation(operation);
-        endpoints.add(endpoint);
+        if (added) {
+          listener.onNewEndpoint(endpoint);
+        } else {
+          listener.onMissingEndpoint(endpoint);
+        }
       }
     }
-    return endpoints;
   }
 
   private static Collection<? extends Endpoint> convert2EndpointList(String pathUrl, Map<HttpMethod, Operation> map) {
-    List<Endpoint> endpoints = new ArrayList<Endpoint>();
-    if (null == map) {
-      return endpoints;
+    if (null == map || map.isEmpty()) {
+      return Collections.emptyList();
     }
+    List<Endpoint> endpoints = new ArrayList<Endpoint>(map.size());
     for (Entry<HttpMethod, Operation> entry : map.entrySet()) {
       HttpMethod httpMethod = entry.getKey();
       Operation operation = entry.getValue();
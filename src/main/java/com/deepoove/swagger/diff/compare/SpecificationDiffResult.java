@@ -1,14 +1,18 @@
 package com.deepoove.swagger.diff.compare;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import com.deepoove.swagger.diff.model.ChangedEndpoint;
 import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
 import com.deepoove.swagger.diff.model.Endpoint;
+import com.deepoove.swagger.diff.model.LazyCollections;
 
-public class SpecificationDiffResult extends ChangedExtensionGroup {
+/**
+ * All the differences of two specs, collected from the events of the diff
+ */
+public class SpecificationDiffResult extends ChangedExtensionGroup implements DiffListener {
   private List<Endpoint> newEndpoints;
   private List<Endpoint> missingEndpoints;
   private List<ChangedEndpoint> changedEndpoints;
@@ -16,9 +20,9 @@ public class SpecificationDiffResult extends ChangedExtensionGroup {
   private boolean hasOnlyCosmeticChanges;
 
   public SpecificationDiffResult() {
-    this.newEndpoints = new ArrayList<>();
-    this.missingEndpoints = new ArrayList<>();
-    this.changedEndpoints = new ArrayList<>();
+    this.newEndpoints = Collections.emptyList();
+    this.missingEndpoints = Collections.emptyList();
+    this.changedEndpoints = Collections.emptyList();
     this.hasContractChanges = false;
     this.hasOnlyCosmeticChanges = false;
   }
@@ -28,11 +32,11 @@ public class SpecificationDiffResult extends ChangedExtensionGroup {
   }
 
   public void setNewEndpoints(List<Endpoint> newEndpoints) {
-    this.newEndpoints = newEndpoints;
+    this.newEndpoints = LazyCollections.copyOf(newEndpoints);
   }
 
   public void addNewEndpoints(Collection<? extends Endpoint> newEndpoints) {
-    this.newEndpoints.addAll(newEndpoints);
+    this.newEndpoints = LazyCollections.addAll(this.newEndpoints, newEndpoints);
   }
 
   public List<Endpoint> getMissingEndpoints() {
@@ -40,11 +44,11 @@ public class SpecificationDiffResult extends ChangedExtensionGroup {
   }
 
   public void setMissingEndpoints(List<Endpoint> missingEndpoints) {
-    this.missingEndpoints = missingEndpoints;
+    this.missingEndpoints = LazyCollections.copyOf(missingEndpoints);
   }
 
   public void addMissingEndpoints(Collection<? extends Endpoint> missingEndpoints) {
-    this.missingEndpoints.addAll(missingEndpoints);
+    this.missingEndpoints = LazyCollections.addAll(this.missingEndpoints, missingEndpoints);
   }
 
   public List<ChangedEndpoint> getChangedEndpoints() {
@@ -52,11 +56,41 @@ public class SpecificationDiffResult extends ChangedExtensionGroup {
   }
 
   public void setChangedEndpoints(List<ChangedEndpoint> changedEndpoints) {
-    this.changedEndpoints = changedEndpoints;
+    this.changedEndpoints = LazyCollections.copyOf(changedEndpoints);
   }
 
   public void addChangedEndpoints(Collection<? extends ChangedEndpoint> changedEndpoints) {
-    this.changedEndpoints.addAll(changedEndpoints);
+    this.changedEndpoints = LazyCollections.addAll(this.changedEndpoints, changedEndpoints);
+  }
+
+  @Override
+  public void onNewEndpoint(Endpoint endpoint) {
+    addNewEndpoints(Collections.singleton(endpoint));
+  }
+
+  @Override
+  public void onMissingEndpoint(Endpoint endpoint) {
+    addMissingEndpoints(Collections.singleton(endpoint));
+  }
+
+  @Override
+  public void onChangedEndpoint(ChangedEndpoint endpoint) {
+    addChangedEndpoints(Collections.singleton(endpoint));
+  }
+
+  @Override
+  public void onVendorExtensionChanged(String key, ChangedExtensionGroup group) {
+    if (null == key) {
+      setVendorExtsFromGroup(group);
+    } else {
+      putSubGroup(key, group);
+    }
+  }
+
+  @Override
+  public void onComplete(boolean hasContractChanges, boolean hasOnlyCosmeticChanges) {
+    this.hasContractChanges = hasContractChanges;
+    this.hasOnlyCosmeticChanges = hasOnlyCosmeticChanges;
   }
 
   public boolean hasContractChanges() {
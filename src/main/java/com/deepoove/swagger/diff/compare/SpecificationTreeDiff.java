@@ -0,0 +1,501 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.models.auth.AuthorizationValue;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.parser.SwaggerResolver;
+import io.swagger.util.Json;
+
+/**
+ * Diff two swagger v2.0 docs given as Jackson trees without materializing them completely.
+ * <p>
+ * The trees are paired first: shared paths whose subtrees are equal, and whose local
+ * {@code #/definitions}, {@code #/parameters} and {@code #/responses} refs lead only to
+ * equal subtrees, cannot differ and are dropped. Only the remaining paths are converted
+ * to swagger models and resolved, definitions are converted on first use. The result is
+ * the one of {@link SpecificationDiff} over the fully parsed docs.
+ * <p>
+ * Docs with external refs or path item refs are parsed completely, as their resolution
+ * may depend on the whole doc. Both docs must declare {@code "swagger": "2.0"}.
+ */
+public class SpecificationTreeDiff {
+
+  private static final String SWAGGER_VERSION_V2 = "2.0";
+  private static final String DEFINITIONS_REF = "#/definitions/";
+  private static final String PARAMETERS_REF = "#/parameters/";
+  private static final String RESPONSES_REF = "#/responses/";
+
+  private final JsonNode oldTree;
+  private final JsonNode newTree;
+  private final boolean withExtensions;
+  private Executor executor;
+
+  private Swagger oldSpec;
+  private Swagger newSpec;
+
+  private SpecificationTreeDiff(JsonNode oldTree, JsonNode newTree, boolean withExtensions) {
+    this.oldTree = oldTree;
+    this.newTree = newTree;
+    this.withExtensions = withExtensions;
+  }
+
+  public static SpecificationTreeDiff build(JsonNode oldTree, JsonNode newTree) {
+    return SpecificationTreeDiff.build(oldTree, newTree, false);
+  }
+
+  public static SpecificationTreeDiff build(JsonNode oldTree, JsonNode newTree, boolean withExtensions) {
+    return new SpecificationTreeDiff(oldTree, newTree, withExtensions);
+  }
+
+  /**
+   * @see SpecificationDiff#executor(Executor)
+   */
+  public SpecificationTreeDiff executor(Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  public SpecificationDiffResult diff() {
+    if (!(oldTree instanceof ObjectNode) || !(newTree instanceof ObjectNode)) {
+      throw new IllegalArgumentException("cannot diff null spec.");
+    }
+    checkVersion(oldTree);
+    checkVersion(newTree);
+    if (!read()) {
+      SwaggerParser swaggerParser = new SwaggerParser();
+      oldSpec = swaggerParser.read(oldTree, true);
+      newSpec = swaggerParser.read(newTree, true);
+    }
+    return SpecificationDiff.build(oldSpec, newSpec, withExtensions)
+        .executor(executor)
+        .diff();
+  }
+
+  private static void checkVersion(JsonNode tree) {
+    JsonNode version = tree.get("swagger");
+    if (null == version || !SWAGGER_VERSION_V2.equals(version.asText())) {
+      throw new IllegalArgumentException("not a swagger v2.0 api-doc, swagger is " + version + ".");
+    }
+  }
+
+  /**
+   * The old spec as diffed: paths equal to the ones of the new spec are left out.
+   * Available once {@link #diff()} has run.
+   */
+  public Swagger getOldSpec() {
+    return oldSpec;
+  }
+
+  /**
+   * The new spec as diffed: paths equal to the ones of the old spec are left out.
+   * Available once {@link #diff()} has run.
+   */
+  public Swagger getNewSpec() {
+    return newSpec;
+  }
+
+  /**
+   * Read the parts of both trees that may differ into {@link #oldSpec} and {@link #newSpec}.
+   *
+   * @return false if the trees hold refs that only a full parse resolves
+   */
+  private boolean read() {
+    RefIndex index = new RefIndex(oldTree, newTree);
+    if (index.external) {
+      return false;
+    }
+
+    JsonNode oldPaths = oldTree.get("paths");
+    JsonNode newPaths = newTree.get("paths");
+    Set<String> identical = new HashSet<String>();
+    if (oldPaths instanceof ObjectNode && newPaths instanceof ObjectNode) {
+      Iterator<Map.Entry<String, JsonNode>> fields = oldPaths.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (index.unchanged(field.getValue(), newPaths.get(field.getKey()))) {
+          identical.add(field.getKey());
+        }
+      }
+    }
+    Map<String, JsonNode> oldRemaining = remaining(oldPaths, identical);
+    Map<String, JsonNode> newRemaining = remaining(newPaths, identical);
+    for (Map.Entry<String, JsonNode> entry : oldRemaining.entrySet()) {
+      JsonNode newPath = newRemaining.get(entry.getKey());
+      if (null != newPath) {
+        dropUnchangedOperations(entry, newRemaining, index);
+      }
+    }
+    if (index.needsFullParse(oldRemaining) || index.needsFullParse(newRemaining)) {
+      return false;
+    }
+
+    oldSpec = read((ObjectNode) oldTree, oldRemaining);
+    newSpec = read((ObjectNode) newTree, newRemaining);
+    return true;
+  }
+
+  /**
+   * Leave out the operations of a shared path that are unchanged. Path parameters apply to
+   * every operation, so this needs them to be unchanged too.
+   */
+  private static void dropUnchangedOperations(Map.Entry<String, JsonNode> oldEntry, Map<String, JsonNode> newPaths,
+                                              RefIndex index) {
+    JsonNode oldPath = oldEntry.getValue();
+    JsonNode newPath = newPaths.get(oldEntry.getKey());
+    if (!(oldPath instanceof ObjectNode) || !(newPath instanceof ObjectNode) || oldPath.has("$ref")
+        || !index.unchanged(oldPath.get("parameters"), newPath.get("parameters"))) {
+      return;
+    }
+    ObjectNode oldCopy = null;
+    ObjectNode newCopy = null;
+    for (HttpMethod method : HttpMethod.values()) {
+      String field = method.name().toLowerCase(Locale.ROOT);
+      JsonNode oldOperation = oldPath.get(field);
+      if (null != oldOperation && index.unchanged(oldOperation, newPath.get(field))) {
+        if (null == oldCopy) {
+          // the operations are shared, only the path items are copied
+          oldCopy = ((ObjectNode) oldPath).objectNode();
+          oldCopy.setAll((ObjectNode) oldPath);
+          newCopy = ((ObjectNode) newPath).objectNode();
+          newCopy.setAll((ObjectNode) newPath);
+        }
+        oldCopy.remove(field);
+        newCopy.remove(field);
+      }
+    }
+    if (null != oldCopy) {
+      oldEntry.setValue(oldCopy);
+      newPaths.put(oldEntry.getKey(), newCopy);
+    }
+  }
+
+  private static Map<String, JsonNode> remaining(JsonNode paths, Set<String> identical) {
+    if (!(paths instanceof ObjectNode)) {
+      return new LinkedHashMap<String, JsonNode>();
+    }
+    Map<String, JsonNode> remaining = new LinkedHashMap<String, JsonNode>();
+    Iterator<Map.Entry<String, JsonNode>> fields = paths.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      if (!identical.contains(field.getKey())) {
+        remaining.put(field.getKey(), field.getValue());
+      }
+    }
+    return remaining;
+  }
+
+  private static Swagger read(ObjectNode tree, Map<String, JsonNode> paths) {
+    // everything but paths and definitions is small, convert it like the parser does
+    ObjectNode root = tree.objectNode();
+    Iterator<Map.Entry<String, JsonNode>> fields = tree.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      if (!"paths".equals(field.getKey()) && !"definitions".equals(field.getKey())) {
+        root.set(field.getKey(), field.getValue());
+      }
+    }
+    Swagger swagger = convert(root, Swagger.class);
+    if (null == swagger) {
+      throw new IllegalArgumentException("cannot read api-doc from spec.");
+    }
+
+    if (tree.get("paths") instanceof ObjectNode) {
+      Map<String, Path> converted = new LinkedHashMap<String, Path>();
+      for (Map.Entry<String, JsonNode> entry : paths.entrySet()) {
+        converted.put(entry.getKey(), convert(entry.getValue(), Path.class));
+      }
+      swagger.setPaths(converted);
+      // resolves the parameter and response refs, and moves path parameters to the operations
+      new SwaggerResolver(swagger, new ArrayList<AuthorizationValue>()).resolve();
+    }
+
+    JsonNode definitions = tree.get("definitions");
+    if (definitions instanceof ObjectNode) {
+      swagger.setDefinitions(new TreeDefinitions((ObjectNode) definitions));
+    }
+    return swagger;
+  }
+
+  private static <T> T convert(JsonNode node, Class<T> type) {
+    try {
+      return Json.mapper().convertValue(node, type);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("cannot read api-doc from spec.", e);
+    }
+  }
+
+  /**
+   * The local refs of both trees, and which of the definitions, parameters and responses
+   * they point to may differ.
+   */
+  private static class RefIndex {
+
+    private final JsonNode oldTree;
+    private final JsonNode newTree;
+    private final Set<String> changedDefinitions = new HashSet<String>();
+    private final Map<String, Boolean> unchangedComponents = new HashMap<String, Boolean>();
+    private boolean external;
+
+    private RefIndex(JsonNode oldTree, JsonNode newTree) {
+      this.oldTree = oldTree;
+      this.newTree = newTree;
+      indexDefinitions(oldTree.get("definitions"), newTree.get("definitions"));
+      for (String component : new String[]{"parameters", "responses"}) {
+        external |= hasExternalRef(oldTree.get(component)) || hasExternalRef(newTree.get(component));
+      }
+    }
+
+    /**
+     * A definition changes if its subtree differs or if it refers to a changed definition.
+     */
+    private void indexDefinitions(JsonNode oldDefinitions, JsonNode newDefinitions) {
+      Map<String, List<String>> referrers = new HashMap<String, List<String>>();
+      Deque<String> pending = new ArrayDeque<String>();
+      Set<String> names = new HashSet<String>();
+      names.addAll(fieldNames(oldDefinitions));
+      names.addAll(fieldNames(newDefinitions));
+      for (String name : names) {
+        JsonNode left = null == oldDefinitions ? null : oldDefinitions.get(name);
+        JsonNode right = null == newDefinitions ? null : newDefinitions.get(name);
+        if (null == left || !left.equals(right)) {
+          changedDefinitions.add(name);
+          pending.add(name);
+        }
+        List<String> refs = new ArrayList<String>();
+        collectRefs(left, refs);
+        collectRefs(right, refs);
+        for (String ref : refs) {
+          String target = definitionName(ref);
+          if (null == target) {
+            external |= isExternal(ref);
+            continue;
+          }
+          List<String> targetReferrers = referrers.get(target);
+          if (null == targetReferrers) {
+            targetReferrers = new ArrayList<String>();
+            referrers.put(target, targetReferrers);
+          }
+          targetReferrers.add(name);
+        }
+      }
+      while (!pending.isEmpty()) {
+        List<String> targetReferrers = referrers.get(pending.poll());
+        if (null == targetReferrers) {
+          continue;
+        }
+        for (String referrer : targetReferrers) {
+          if (changedDefinitions.add(referrer)) {
+            pending.add(referrer);
+          }
+        }
+      }
+    }
+
+    /**
+     * @return true if the given subtrees are equal and all their refs lead to unchanged subtrees
+     */
+    private boolean unchanged(JsonNode oldPath, JsonNode newPath) {
+      if (null == oldPath || null == newPath) {
+        return oldPath == newPath;
+      }
+      if (!oldPath.equals(newPath)) {
+        return false;
+      }
+      List<String> refs = new ArrayList<String>();
+      collectRefs(oldPath, refs);
+      for (String ref : refs) {
+        boolean unchanged;
+        if (ref.startsWith(DEFINITIONS_REF)) {
+          unchanged = !changedDefinitions.contains(ref.substring(DEFINITIONS_REF.length()));
+        } else if (ref.startsWith(PARAMETERS_REF)) {
+          unchanged = unchangedComponent("parameters", ref.substring(PARAMETERS_REF.length()));
+        } else if (ref.startsWith(RESPONSES_REF)) {
+          unchanged = unchangedComponent("responses", ref.substring(RESPONSES_REF.length()));
+        } else {
+          // a simple ref means a definition, a parameter or a response depending on where it is
+          unchanged = false;
+        }
+        if (!unchanged) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean unchangedComponent(String component, String name) {
+      String key = component + "/" + name;
+      Boolean unchanged = unchangedComponents.get(key);
+      if (null == unchanged) {
+        JsonNode left = oldTree.path(component).get(name);
+        JsonNode right = newTree.path(component).get(name);
+        unchanged = null != left && left.equals(right);
+        if (unchanged) {
+          List<String> refs = new ArrayList<String>();
+          collectRefs(left, refs);
+          for (String ref : refs) {
+            String target = definitionName(ref);
+            if (null == target || changedDefinitions.contains(target)) {
+              unchanged = false;
+              break;
+            }
+          }
+        }
+        unchangedComponents.put(key, unchanged);
+      }
+      return unchanged;
+    }
+
+    /**
+     * @return true if the given path items must be resolved against the whole doc
+     */
+    private boolean needsFullParse(Map<String, JsonNode> paths) {
+      for (JsonNode path : paths.values()) {
+        if (path.has("$ref") || hasExternalRef(path)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static boolean hasExternalRef(JsonNode node) {
+      List<String> refs = new ArrayList<String>();
+      collectRefs(node, refs);
+      for (String ref : refs) {
+        if (isExternal(ref)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static void collectRefs(JsonNode node, List<String> refs) {
+      if (null == node || !node.isContainerNode()) {
+        return;
+      }
+      JsonNode ref = node.get("$ref");
+      if (null != ref && ref.isTextual()) {
+        refs.add(ref.textValue());
+      }
+      for (JsonNode child : node) {
+        collectRefs(child, refs);
+      }
+    }
+
+    /**
+     * @return the name of the definition a schema ref points to, or null for other refs
+     */
+    private static String definitionName(String ref) {
+      if (ref.startsWith(DEFINITIONS_REF)) {
+        return ref.substring(DEFINITIONS_REF.length());
+      }
+      return ref.startsWith("#") || isExternal(ref) ? null : ref;
+    }
+
+    private static boolean isExternal(String ref) {
+      return !ref.startsWith("#/") && (ref.indexOf('/') >= 0 || ref.indexOf('.') >= 0 || ref.indexOf(':') >= 0);
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+      Set<String> names = new HashSet<String>();
+      if (node instanceof ObjectNode) {
+        Iterator<String> fieldNames = node.fieldNames();
+        while (fieldNames.hasNext()) {
+          names.add(fieldNames.next());
+        }
+      }
+      return names;
+    }
+  }
+
+  /**
+   * Definitions converted on first use. Conversions are kept so a definition is always the
+   * same instance, which the model diff relies on.
+   */
+  private static class TreeDefinitions extends AbstractMap<String, Model> {
+
+    private final ObjectNode definitions;
+    private final ConcurrentMap<String, Model> converted = new ConcurrentHashMap<String, Model>();
+
+    private TreeDefinitions(ObjectNode definitions) {
+      this.definitions = definitions;
+    }
+
+    @Override
+    public Model get(Object key) {
+      if (!(key instanceof String)) {
+        return null;
+      }
+      Model model = converted.get(key);
+      if (null != model) {
+        return model;
+      }
+      JsonNode node = definitions.get((String) key);
+      model = null == node ? null : convert(node, Model.class);
+      if (null == model) {
+        return null;
+      }
+      Model previous = converted.putIfAbsent((String) key, model);
+      return null == previous ? model : previous;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String && definitions.has((String) key);
+    }
+
+    @Override
+    public int size() {
+      return definitions.size();
+    }
+
+    @Override
+    public Set<Entry<String, Model>> entrySet() {
+      return new AbstractSet<Entry<String, Model>>() {
+        @Override
+        public Iterator<Entry<String, Model>> iterator() {
+          final Iterator<String> names = definitions.fieldNames();
+          return new Iterator<Entry<String, Model>>() {
+            @Override
+            public boolean hasNext() {
+              return names.hasNext();
+            }
+
+            @Override
+            public Entry<String, Model> next() {
+              String name = names.next();
+              return new SimpleImmutableEntry<String, Model>(name, get(name));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return definitions.size();
+        }
+      };
+    }
+  }
+}
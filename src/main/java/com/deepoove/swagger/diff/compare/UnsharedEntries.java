@@ -0,0 +1,96 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only view of the entries of a map whose keys are not in another map, in the order of
+ * the map. Nothing is copied, the view reads both maps, which must not change afterwards.
+ */
+final class UnsharedEntries<K, V> extends AbstractMap<K, V> {
+
+  private final Map<K, V> map;
+  private final Map<K, ?> other;
+  private final int size;
+  private Set<Entry<K, V>> entrySet;
+
+  private UnsharedEntries(Map<K, V> map, Map<K, ?> other, int size) {
+    this.map = map;
+    this.other = other;
+    this.size = size;
+  }
+
+  /**
+   * @param size how many keys of the map are not in the other map
+   */
+  static <K, V> Map<K, V> of(Map<K, V> map, Map<K, ?> other, int size) {
+    if (0 == size) {
+      return Collections.emptyMap();
+    }
+    return new UnsharedEntries<K, V>(map, other, size);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return map.containsKey(key) && !other.containsKey(key);
+  }
+
+  @Override
+  public V get(Object key) {
+    return other.containsKey(key) ? null : map.get(key);
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    if (null == entrySet) {
+      entrySet = new AbstractSet<Entry<K, V>>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          return new UnsharedIterator();
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  private final class UnsharedIterator implements Iterator<Entry<K, V>> {
+    private final Iterator<Entry<K, V>> entries = map.entrySet().iterator();
+    private Entry<K, V> next;
+
+    @Override
+    public boolean hasNext() {
+      while (null == next && entries.hasNext()) {
+        Entry<K, V> entry = entries.next();
+        if (!other.containsKey(entry.getKey())) {
+          next = new SimpleImmutableEntry<K, V>(entry);
+        }
+      }
+      return null != next;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<K, V> entry = next;
+      next = null;
+      return entry;
+    }
+  }
+}
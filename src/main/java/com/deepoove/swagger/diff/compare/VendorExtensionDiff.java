@@ -1,11 +1,16 @@
 package com.deepoove.swagger.diff.compare;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.commons.lang3.tuple.Pair;
 
 import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+import com.deepoove.swagger.diff.model.LazyCollections;
 
 import io.swagger.models.Info;
 import io.swagger.models.Operation;
@@ -16,12 +21,24 @@ import io.swagger.models.Tag;
 import io.swagger.models.auth.SecuritySchemeDefinition;
 import io.swagger.models.parameters.Parameter;
 
+/**
+ * Vendor extension values are compared as json, see {@link ExtensionValues}.
+ */
 public class VendorExtensionDiff {
 
   private boolean withExts;
+  private final DiffMetrics metrics;
 
   public VendorExtensionDiff(boolean withExts) {
+    this(withExts, DiffMetrics.NOOP);
+  }
+
+  /**
+   * @param metrics receives the time spent comparing vendor extensions
+   */
+  public VendorExtensionDiff(boolean withExts, DiffMetrics metrics) {
     this.withExts = withExts;
+    this.metrics = metrics;
   }
 
   public ChangedExtensionGroup diff(Parameter left, Parameter right) {
@@ -36,8 +53,12 @@ public class VendorExtensionDiff {
     return diff(left.getVendorExtensions(), right.getVendorExtensions());
   }
 
+  /**
+   * @param left the info of the old spec, null when it has none
+   * @param right the info of the new spec, null when it has none
+   */
   public ChangedExtensionGroup diff(Info left, Info right) {
-    return diff(left.getVendorExtensions(), right.getVendorExtensions());
+    return diff(null == left ? null : left.getVendorExtensions(), null == right ? null : right.getVendorExtensions());
   }
 
   public ChangedExtensionGroup diff(Path left, Path right) {
@@ -57,18 +78,37 @@ public class VendorExtensionDiff {
   }
 
   private ChangedExtensionGroup diff(Map<String, Object> oldExts, Map<String, Object> newExts) {
+    if (!withExts) {
+      return ChangedExtensionGroup.EMPTY;
+    }
+    long start = metrics.nanoTime();
     ChangedExtensionGroup group = new ChangedExtensionGroup();
-    if (withExts) {
-      MapDiff<String, Object> mapDiff = MapDiff.diff(oldExts, newExts);
-      group.setMissingVendorExtensions(mapDiff.getMissing());
-      group.setChangedVendorExtensions(mapDiff.getChanged());
-      group.setIncreasedVendorExtensions(mapDiff.getIncreased());
+    // the paths are found by the comparison itself, in the order of the changed values
+    List<String> differences = new ArrayList<String>(0);
+    MapDiff<String, Object> mapDiff = MapDiff.diff(oldExts, newExts, (left, right) -> {
+      String difference = ExtensionValues.firstDifference(left, right);
+      if (null != difference) {
+        differences.add(difference);
+      }
+      return null == difference;
+    });
+    group.setMissingVendorExtensions(mapDiff.getMissing());
+    group.setChangedVendorExtensions(mapDiff.getChanged());
+    Map<String, String> paths = Collections.emptyMap();
+    Iterator<String> difference = differences.iterator();
+    for (String key : mapDiff.getChanged().keySet()) {
+      paths = LazyCollections.put(paths, key, difference.next());
     }
+    group.setChangedVendorExtensionPaths(paths);
+    group.setIncreasedVendorExtensions(mapDiff.getIncreased());
+    metrics.onPhase(DiffMetrics.Phase.VENDOR_EXTENSIONS, metrics.nanoTime() - start);
     return group;
   }
 
   public ChangedExtensionGroup diffTagGroup(Map<String, Tag> left, Map<String, Tag> right) {
+    long start = metrics.nanoTime();
     MapDiff<String, Tag> responseDiff = MapDiff.diff(left, right);
+    metrics.onPhase(DiffMetrics.Phase.VENDOR_EXTENSIONS, metrics.nanoTime() - start);
     ChangedExtensionGroup responseGroup = new ChangedExtensionGroup();
     for (Entry<String, Pair<Tag, Tag>> entry : responseDiff.getChanged().entrySet()) {
       String code = entry.getKey();
@@ -80,7 +120,9 @@ public class VendorExtensionDiff {
   }
 
   public ChangedExtensionGroup diffSecGroup(Map<String, SecuritySchemeDefinition> left, Map<String, SecuritySchemeDefinition> right) {
+    long start = metrics.nanoTime();
     MapDiff<String, SecuritySchemeDefinition> responseDiff = MapDiff.diff(left, right);
+    metrics.onPhase(DiffMetrics.Phase.VENDOR_EXTENSIONS, metrics.nanoTime() - start);
     ChangedExtensionGroup responseGroup = new ChangedExtensionGroup();
     for (Entry<String, Pair<SecuritySchemeDefinition, SecuritySchemeDefinition>> entry : responseDiff.getChanged().entrySet()) {
       String code = entry.getKey();
@@ -92,7 +134,9 @@ public class VendorExtensionDiff {
   }
 
   public ChangedExtensionGroup diffResGroup(Map<String, Response> left, Map<String, Response> right) {
+    long start = metrics.nanoTime();
     MapDiff<String, Response> responseDiff = MapDiff.diff(left, right);
+    metrics.onPhase(DiffMetrics.Phase.VENDOR_EXTENSIONS, metrics.nanoTime() - start);
     ChangedExtensionGroup responseGroup = new ChangedExtensionGroup();
     for (Entry<String, Pair<Response, Response>> entry : responseDiff.getChanged().entrySet()) {
       String code = entry.getKey();
@@ -0,0 +1,104 @@
+package com.deepoove.swagger.diff.event;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Swagger;
+
+/**
+ * Profiling events around the parsing of a spec, the diff of each path, operation and model.
+ * <p>
+ * The methods here do nothing. On a JVM with Flight Recorder (Java 11 and later) they are
+ * overridden to emit {@code jdk.jfr} events, enabled by default above a threshold, so a
+ * recording shows which path, operation or definition a diff was spent on. The event classes
+ * are built for Java 11 into {@code META-INF/versions/11} of the multi-release jar and only
+ * loaded there; without a recording the JIT removes the events, and no model event is created.
+ * <p>
+ * Each begin call returns the event, possibly null, to pass to the matching end call, on the
+ * same thread.
+ */
+public class DiffEvents {
+
+  private static final DiffEvents EVENTS = load();
+
+  protected DiffEvents() {
+  }
+
+  public static Object beginParse() {
+    return EVENTS.onBeginParse();
+  }
+
+  /**
+   * @param format json, yaml or tree for a parsed json tree
+   * @param spec the parsed spec, or null if there was none
+   */
+  public static void endParse(Object event, String format, Swagger spec) {
+    EVENTS.onEndParse(event, format, spec);
+  }
+
+  public static Object beginPath() {
+    return EVENTS.onBeginPath();
+  }
+
+  public static void endPath(Object event, String pathUrl) {
+    EVENTS.onEndPath(event, pathUrl);
+  }
+
+  public static Object beginOperation() {
+    return EVENTS.onBeginOperation();
+  }
+
+  public static void endOperation(Object event, String pathUrl, HttpMethod method) {
+    EVENTS.onEndOperation(event, pathUrl, method);
+  }
+
+  public static Object beginModel() {
+    return EVENTS.onBeginModel();
+  }
+
+  /**
+   * @param simpleRef the definition the model is diffed as
+   * @param depth 1 for a model referred to by a parameter or a response
+   */
+  public static void endModel(Object event, String simpleRef, int depth) {
+    EVENTS.onEndModel(event, simpleRef, depth);
+  }
+
+  protected Object onBeginParse() {
+    return null;
+  }
+
+  protected void onEndParse(Object event, String format, Swagger spec) {
+  }
+
+  protected Object onBeginPath() {
+    return null;
+  }
+
+  protected void onEndPath(Object event, String pathUrl) {
+  }
+
+  protected Object onBeginOperation() {
+    return null;
+  }
+
+  protected void onEndOperation(Object event, String pathUrl, HttpMethod method) {
+  }
+
+  protected Object onBeginModel() {
+    return null;
+  }
+
+  protected void onEndModel(Object event, String simpleRef, int depth) {
+  }
+
+  private static DiffEvents load() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      return (DiffEvents) Class.forName("com.deepoove.swagger.diff.event.JfrDiffEvents")
+          .getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // no Flight Recorder, or a Java 8 one that cannot load the Java 11 events
+      return new DiffEvents();
+    }
+  }
+}
@@ -1,15 +1,52 @@
 package com.deepoove.swagger.diff.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.tuple.Pair;
 
+/**
+ * Vendor extension differences of an element and of its sub elements.
+ * <p>
+ * Whether a group has differences is kept up to date as groups are put together: a sub group
+ * tells its parents when it gains or loses differences, so {@link #vendorExtensionsAreDiff()}
+ * does not walk the sub groups. Changes made through the map getters are only seen by the
+ * parents of a group put into them afterwards, and a sub group put through
+ * {@link #getChangedSubGroups()} instead of {@link #putSubGroup(String, ChangedExtensionGroup)}
+ * is not counted by {@link #vendorExtensionsAreDiff()}.
+ * <p>
+ * The maps are the shared immutable empty ones until something is set or put. The diff sets
+ * maps it may share with other groups or with the specs, so the getters return a mutable map
+ * the group owns: the first call copies the map that was set and keeps the copy.
+ */
 public class ChangedExtensionGroup {
-  protected Map<String, Object> increasedVendorExtensions = new LinkedHashMap<String, Object>();
-  protected Map<String, Object> missingVendorExtensions = new LinkedHashMap<String, Object>();
-  protected Map<String, Pair<Object, Object>> changedVendorExtensions = new LinkedHashMap<String, Pair<Object, Object>>();
-  protected Map<String, ChangedExtensionGroup> changedSubGroups = new LinkedHashMap<String, ChangedExtensionGroup>();
+  /**
+   * The group of an element without vendor extension differences, shared and immutable
+   */
+  public static final ChangedExtensionGroup EMPTY = new Empty();
+
+  protected Map<String, Object> increasedVendorExtensions = Collections.emptyMap();
+  protected Map<String, Object> missingVendorExtensions = Collections.emptyMap();
+  protected Map<String, Pair<Object, Object>> changedVendorExtensions = Collections.emptyMap();
+  protected Map<String, String> changedVendorExtensionPaths = Collections.emptyMap();
+  protected Map<String, ChangedExtensionGroup> changedSubGroups = Collections.emptyMap();
+
+  private static final int INCREASED = 1;
+  private static final int MISSING = 2;
+  private static final int CHANGED = 4;
+  private static final int CHANGED_PATHS = 8;
+  // which of the extension maps the group owns, the others were set and are copied on access
+  private int owned;
+
+  // how many sub groups have differences
+  private int diffSubGroups;
+  // the groups this group is a sub group of, once per key
+  private List<ChangedExtensionGroup> parents;
+  // whether the group had differences when its parents were last told
+  private boolean diff;
 
   public boolean vendorExtensionsAreDiffShallow() {
     return !(increasedVendorExtensions.isEmpty()
@@ -19,42 +56,96 @@ public class ChangedExtensionGroup {
 
   public boolean vendorExtensionsAreDiff() {
     return vendorExtensionsAreDiffShallow()
-        || subVendorExtensionsAreDiff();
+        || diffSubGroups > 0;
+  }
+
+  /**
+   * Tell the parents if the group gained or lost differences
+   */
+  private void update() {
+    boolean nowDiff = vendorExtensionsAreDiff();
+    if (nowDiff == diff) {
+      return;
+    }
+    diff = nowDiff;
+    if (null != parents) {
+      for (ChangedExtensionGroup parent : parents) {
+        parent.diffSubGroups += nowDiff ? 1 : -1;
+        parent.update();
+      }
+    }
   }
 
-  private boolean subVendorExtensionsAreDiff() {
-    boolean accumulator = false;
-    for (ChangedExtensionGroup subgroup : changedSubGroups.values()) {
-      accumulator = accumulator || subgroup.vendorExtensionsAreDiff();
+  /**
+   * @return whether the group did not own the map yet, and takes it over now
+   */
+  private boolean own(int map) {
+    if (0 != (owned & map)) {
+      return false;
     }
-    return accumulator;
+    owned |= map;
+    return true;
   }
 
   public Map<String, Object> getIncreasedVendorExtensions() {
+    if (own(INCREASED)) {
+      increasedVendorExtensions = new LinkedHashMap<String, Object>(increasedVendorExtensions);
+    }
     return increasedVendorExtensions;
   }
 
   public void setIncreasedVendorExtensions(Map<String, Object> increasedVendorExtensions) {
     this.increasedVendorExtensions = increasedVendorExtensions;
+    owned &= ~INCREASED;
+    update();
   }
 
   public Map<String, Object> getMissingVendorExtensions() {
+    if (own(MISSING)) {
+      missingVendorExtensions = new LinkedHashMap<String, Object>(missingVendorExtensions);
+    }
     return missingVendorExtensions;
   }
 
   public void setMissingVendorExtensions(Map<String, Object> missingVendorExtensions) {
     this.missingVendorExtensions = missingVendorExtensions;
+    owned &= ~MISSING;
+    update();
   }
 
   public Map<String, Pair<Object, Object>> getChangedVendorExtensions() {
+    if (own(CHANGED)) {
+      changedVendorExtensions = new LinkedHashMap<String, Pair<Object, Object>>(changedVendorExtensions);
+    }
     return changedVendorExtensions;
   }
 
   public void setChangedVendorExtensions(Map<String, Pair<Object, Object>> changedVendorExtensions) {
     this.changedVendorExtensions = changedVendorExtensions;
+    owned &= ~CHANGED;
+    update();
+  }
+
+  /**
+   * @return the json path of the first difference in each changed vendor extension value, by
+   *         extension name
+   */
+  public Map<String, String> getChangedVendorExtensionPaths() {
+    if (own(CHANGED_PATHS)) {
+      changedVendorExtensionPaths = new LinkedHashMap<String, String>(changedVendorExtensionPaths);
+    }
+    return changedVendorExtensionPaths;
+  }
+
+  public void setChangedVendorExtensionPaths(Map<String, String> changedVendorExtensionPaths) {
+    this.changedVendorExtensionPaths = changedVendorExtensionPaths;
+    owned &= ~CHANGED_PATHS;
   }
 
   public Map<String, ChangedExtensionGroup> getChangedSubGroups() {
+    if (changedSubGroups == Collections.<String, ChangedExtensionGroup>emptyMap()) {
+      changedSubGroups = new LinkedHashMap<String, ChangedExtensionGroup>();
+    }
     return changedSubGroups;
   }
 
@@ -67,12 +158,111 @@ public class ChangedExtensionGroup {
   }
 
   public void putSubGroup(String key, ChangedExtensionGroup group) {
-    changedSubGroups.put(key, group);
+    ChangedExtensionGroup previous = changedSubGroups.get(key);
+    changedSubGroups = LazyCollections.put(changedSubGroups, key, group);
+    // a group put through the map getter was never counted
+    if (null != previous && EMPTY != previous && previous.removeParent(this) && previous.diff) {
+      diffSubGroups--;
+    }
+    if (null != group && EMPTY != group) {
+      // catch up with changes made through the map getters
+      group.update();
+      if (null == group.parents) {
+        group.parents = new ArrayList<ChangedExtensionGroup>(1);
+      }
+      group.parents.add(this);
+      if (group.diff) {
+        diffSubGroups++;
+      }
+    }
+    update();
+  }
+
+  /**
+   * @return whether the parent was one of the parents of the group
+   */
+  private boolean removeParent(ChangedExtensionGroup parent) {
+    if (null == parents) {
+      return false;
+    }
+    // by identity, subclasses may compare by value
+    for (int i = 0; i < parents.size(); i++) {
+      if (parents.get(i) == parent) {
+        parents.remove(i);
+        return true;
+      }
+    }
+    return false;
   }
 
   public void setVendorExtsFromGroup(ChangedExtensionGroup newDiffs) {
-    this.increasedVendorExtensions = newDiffs.getIncreasedVendorExtensions();
-    this.missingVendorExtensions = newDiffs.getMissingVendorExtensions();
-    this.changedVendorExtensions = newDiffs.getChangedVendorExtensions();
+    // the maps are shared with the other group, neither owns them
+    if (0 != newDiffs.owned) {
+      newDiffs.owned = 0;
+    }
+    this.increasedVendorExtensions = newDiffs.increasedVendorExtensions;
+    this.missingVendorExtensions = newDiffs.missingVendorExtensions;
+    this.changedVendorExtensions = newDiffs.changedVendorExtensions;
+    this.changedVendorExtensionPaths = newDiffs.changedVendorExtensionPaths;
+    this.owned = 0;
+    update();
+  }
+
+  private static final class Empty extends ChangedExtensionGroup {
+
+    @Override
+    public Map<String, Object> getIncreasedVendorExtensions() {
+      return increasedVendorExtensions;
+    }
+
+    @Override
+    public Map<String, Object> getMissingVendorExtensions() {
+      return missingVendorExtensions;
+    }
+
+    @Override
+    public Map<String, Pair<Object, Object>> getChangedVendorExtensions() {
+      return changedVendorExtensions;
+    }
+
+    @Override
+    public Map<String, String> getChangedVendorExtensionPaths() {
+      return changedVendorExtensionPaths;
+    }
+
+    @Override
+    public Map<String, ChangedExtensionGroup> getChangedSubGroups() {
+      return changedSubGroups;
+    }
+
+    @Override
+    public void setIncreasedVendorExtensions(Map<String, Object> increasedVendorExtensions) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setMissingVendorExtensions(Map<String, Object> missingVendorExtensions) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setChangedVendorExtensions(Map<String, Pair<Object, Object>> changedVendorExtensions) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setChangedVendorExtensionPaths(Map<String, String> changedVendorExtensionPaths) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putSubGroup(String key, ChangedExtensionGroup group) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setVendorExtsFromGroup(ChangedExtensionGroup newDiffs) {
+      throw new UnsupportedOperationException();
+    }
   }
 }
@@ -1,6 +1,6 @@
 package com.deepoove.swagger.diff.model;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import io.swagger.models.parameters.Parameter;
@@ -9,14 +9,14 @@ public class ChangedOperation extends ChangedExtensionGroup implements Changed {
 
   private String summary;
 
-  private List<Parameter> addParameters = new ArrayList<Parameter>();
-  private List<Parameter> missingParameters = new ArrayList<Parameter>();
+  private List<Parameter> addParameters = Collections.emptyList();
+  private List<Parameter> missingParameters = Collections.emptyList();
 
-  private List<ChangedParameter> changedParameters = new ArrayList<ChangedParameter>();
+  private List<ChangedParameter> changedParameters = Collections.emptyList();
 
-  private List<ElProperty> addProps = new ArrayList<ElProperty>();
-  private List<ElProperty> missingProps = new ArrayList<ElProperty>();
-  private List<ElProperty> changedProps = new ArrayList<ElProperty>();
+  private List<ElProperty> addProps = Collections.emptyList();
+  private List<ElProperty> missingProps = Collections.emptyList();
+  private List<ElProperty> changedProps = Collections.emptyList();
 
   private boolean isChangeDescription;
   private boolean isChangeSummary;
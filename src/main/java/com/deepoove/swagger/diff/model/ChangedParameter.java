@@ -1,15 +1,15 @@
 package com.deepoove.swagger.diff.model;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import io.swagger.models.parameters.Parameter;
 
 public class ChangedParameter extends ChangedExtensionGroup implements Changed {
 
-  private List<ElProperty> increased = new ArrayList<ElProperty>();
-  private List<ElProperty> missing = new ArrayList<ElProperty>();
-  private List<ElProperty> changed = new ArrayList<ElProperty>();
+  private List<ElProperty> increased = Collections.emptyList();
+  private List<ElProperty> missing = Collections.emptyList();
+  private List<ElProperty> changed = Collections.emptyList();
 
   private Parameter leftParameter;
   private Parameter rightParameter;
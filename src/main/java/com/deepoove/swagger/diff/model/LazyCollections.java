@@ -0,0 +1,59 @@
+package com.deepoove.swagger.diff.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result collections start as the shared immutable empty ones, and are only allocated once
+ * something is added: most elements of two specs are unchanged and their results stay empty.
+ * The results copy the collections given to their setters, so adding never writes into a
+ * collection of the caller.
+ */
+public final class LazyCollections {
+
+  private LazyCollections() {
+  }
+
+  /**
+   * @return the list with the items added, a new list if it was the shared empty one
+   */
+  public static <T> List<T> addAll(List<T> list, Collection<? extends T> items) {
+    if (items.isEmpty()) {
+      return list;
+    }
+    if (list == Collections.<T>emptyList()) {
+      return new ArrayList<T>(items);
+    }
+    list.addAll(items);
+    return list;
+  }
+
+  /**
+   * @return a copy of the list, or the shared empty list if it is null or empty
+   */
+  public static <T> List<T> copyOf(List<? extends T> list) {
+    return null == list || list.isEmpty() ? Collections.<T>emptyList() : new ArrayList<T>(list);
+  }
+
+  /**
+   * @return a copy of the map, or the shared empty map if it is null or empty
+   */
+  public static <K, V> Map<K, V> copyOf(Map<? extends K, ? extends V> map) {
+    return null == map || map.isEmpty() ? Collections.<K, V>emptyMap() : new LinkedHashMap<K, V>(map);
+  }
+
+  /**
+   * @return the map with the entry put, a new map if it was the shared empty one
+   */
+  public static <K, V> Map<K, V> put(Map<K, V> map, K key, V value) {
+    if (map == Collections.<K, V>emptyMap()) {
+      map = new LinkedHashMap<K, V>();
+    }
+    map.put(key, value);
+    return map;
+  }
+}
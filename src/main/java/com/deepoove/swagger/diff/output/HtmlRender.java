@@ -0,0 +1,207 @@
+package com.deepoove.swagger.diff.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.model.ChangedEndpoint;
+import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.deepoove.swagger.diff.model.ElProperty;
+import com.deepoove.swagger.diff.model.Endpoint;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.parameters.Parameter;
+
+/**
+ * Renders the new, deprecated and changed endpoints of a diff as a html page. Text from the
+ * specs is escaped while it is written, no line or element is built first.
+ */
+public class HtmlRender implements Render {
+
+  private final String title;
+  private final String linkCss;
+
+  public HtmlRender() {
+    this("Api Change Log", "http://deepoove.com/swagger-diff/stylesheets/demo.css");
+  }
+
+  /**
+   * @param linkCss the url of the stylesheet of the page, or null for none
+   */
+  public HtmlRender(String title, String linkCss) {
+    this.title = title;
+    this.linkCss = linkCss;
+  }
+
+  @Override
+  public void render(SwaggerDiff diff, Writer writer) throws IOException {
+    writer.write("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n<title>");
+    writeText(writer, title);
+    writer.write("</title>\n");
+    if (null != linkCss) {
+      writer.write("<link rel=\"stylesheet\" href=\"");
+      writeText(writer, linkCss);
+      writer.write("\">\n");
+    }
+    writer.write("</head>\n<body>\n<header><h1>");
+    writeText(writer, title);
+    writer.write("</h1></header>\n<div class=\"article\">\n");
+
+    writer.write("<div><h2>What's New</h2><hr>\n<ol>\n");
+    writeEndpoints(writer, diff.getNewEndpoints());
+    writer.write("</ol></div>\n");
+
+    writer.write("<div><h2>What's Deprecated</h2><hr>\n<ol>\n");
+    writeEndpoints(writer, diff.getMissingEndpoints());
+    writer.write("</ol></div>\n");
+
+    writer.write("<div><h2>What's Changed</h2><hr>\n<ol>\n");
+    for (ChangedEndpoint endpoint : diff.getChangedEndpoints()) {
+      for (Entry<HttpMethod, ChangedOperation> entry : endpoint.getChangedOperations().entrySet()) {
+        writeChangedOperation(writer, endpoint.getPathUrl(), entry.getKey(), entry.getValue());
+      }
+    }
+    writer.write("</ol></div>\n");
+
+    writer.write("</div>\n</body>\n</html>\n");
+    writer.flush();
+  }
+
+  private static void writeEndpoints(Writer writer, List<Endpoint> endpoints) throws IOException {
+    for (Endpoint endpoint : endpoints) {
+      writer.write("<li>");
+      writeTitle(writer, endpoint.getMethod(), endpoint.getPathUrl(), endpoint.getSummary());
+      writer.write("</li>\n");
+    }
+  }
+
+  private static void writeTitle(Writer writer, HttpMethod method, String pathUrl, String summary) throws IOException {
+    writer.write("<span class=\"");
+    writer.write(String.valueOf(method));
+    writer.write("\">");
+    writer.write(String.valueOf(method));
+    writer.write("</span>");
+    writeText(writer, pathUrl);
+    if (null != summary) {
+      writer.write(" <span>");
+      writeText(writer, summary);
+      writer.write("</span>");
+    }
+  }
+
+  private static void writeChangedOperation(Writer writer, String pathUrl, HttpMethod method, ChangedOperation operation) throws IOException {
+    writer.write("<li>");
+    writeTitle(writer, method, pathUrl, operation.getSummary());
+    if (operation.isDiffParam()) {
+      writer.write("\n<div>Parameter</div>\n<ul class=\"change param\">\n");
+      for (Parameter parameter : operation.getAddParameters()) {
+        writeItem(writer, "add", "Add ", null, parameter.getName(), parameter.getDescription());
+      }
+      for (ChangedParameter parameter : operation.getChangedParameters()) {
+        writeChangedParameter(writer, parameter);
+      }
+      for (Parameter parameter : operation.getMissingParameters()) {
+        writeItem(writer, "delete", "Delete ", null, parameter.getName(), parameter.getDescription());
+      }
+      writer.write("</ul>");
+    }
+    if (operation.isDiffProp()) {
+      writer.write("\n<div>Return Type</div>\n<ul class=\"change response\">\n");
+      writeProperties(writer, "add", "Add ", null, operation.getAddProps());
+      writeProperties(writer, "delete", "Delete ", null, operation.getMissingProps());
+      writeProperties(writer, "change", "Change ", null, operation.getChangedProps());
+      writer.write("</ul>");
+    }
+    writer.write("</li>\n");
+  }
+
+  private static void writeChangedParameter(Writer writer, ChangedParameter changed) throws IOException {
+    Parameter left = changed.getLeftParameter();
+    Parameter right = changed.getRightParameter();
+    writeProperties(writer, "add", "Add ", right.getName(), changed.getIncreased());
+    writeProperties(writer, "delete", "Delete ", right.getName(), changed.getMissing());
+    writeProperties(writer, "change", "Change ", right.getName(), changed.getChanged());
+    if (!changed.isChangeRequired() && !changed.isChangeDescription()) {
+      return;
+    }
+    writer.write("<li class=\"change\"><div>");
+    writeText(writer, right.getName());
+    if (changed.isChangeRequired()) {
+      writer.write(right.getRequired() ? " change into required" : " change into not required");
+    }
+    if (changed.isChangeDescription()) {
+      writer.write(" Notes ");
+      writeText(writer, left.getDescription());
+      writer.write(" change into ");
+      writeText(writer, right.getDescription());
+    }
+    writer.write("</div></li>\n");
+  }
+
+  private static void writeProperties(Writer writer, String cssClass, String action, String parameterName, List<ElProperty> properties) throws IOException {
+    for (ElProperty property : properties) {
+      writeItem(writer, cssClass, action, parameterName, property.getEl(),
+          null == property.getProperty() ? null : property.getProperty().getDescription());
+    }
+  }
+
+  private static void writeItem(Writer writer, String cssClass, String action, String parameterName, String name, String description) throws IOException {
+    writer.write("<li class=\"");
+    writer.write(cssClass);
+    writer.write("\"><div>");
+    writer.write(action);
+    if (null != parameterName) {
+      writeText(writer, parameterName);
+      writer.write('.');
+    }
+    writeText(writer, name);
+    writer.write("</div>");
+    if (null != description) {
+      writer.write("<i>//");
+      writeText(writer, description);
+      writer.write("</i>");
+    }
+    writer.write("</li>\n");
+  }
+
+  /**
+   * Writes the text with the html special characters escaped, the runs between them are
+   * written as they are
+   */
+  private static void writeText(Writer writer, String text) throws IOException {
+    if (null == text) {
+      writer.write("null");
+      return;
+    }
+    int start = 0;
+    for (int i = 0; i < text.length(); i++) {
+      String escaped;
+      switch (text.charAt(i)) {
+        case '&':
+          escaped = "&amp;";
+          break;
+        case '<':
+          escaped = "&lt;";
+          break;
+        case '>':
+          escaped = "&gt;";
+          break;
+        case '"':
+          escaped = "&quot;";
+          break;
+        case '\'':
+          escaped = "&#39;";
+          break;
+        default:
+          continue;
+      }
+      writer.write(text, start, i - start);
+      writer.write(escaped);
+      start = i + 1;
+    }
+    writer.write(text, start, text.length() - start);
+  }
+}
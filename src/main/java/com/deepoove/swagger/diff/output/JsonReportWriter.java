@@ -0,0 +1,401 @@
+package com.deepoove.swagger.diff.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.compare.DiffListener;
+import com.deepoove.swagger.diff.model.ChangedEndpoint;
+import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.deepoove.swagger.diff.model.ElProperty;
+import com.deepoove.swagger.diff.model.Endpoint;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Operation;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+
+/**
+ * Writes a diff as json straight to a {@link JsonGenerator}, without building a tree of it
+ * first: either as one document, or as one json object per line and per change (NDJSON).
+ * <p>
+ * Vendor extension values are written with the codec of the generator, generators created
+ * by an {@code ObjectMapper} have one.
+ */
+public class JsonReportWriter {
+
+  public enum Format {
+    /**
+     * One object with the arrays of new, missing and changed endpoints
+     */
+    DOCUMENT,
+    /**
+     * One line per new, missing and changed endpoint, and one for the vendor extensions of the
+     * spec when they differ
+     */
+    NDJSON
+  }
+
+  private final Format format;
+
+  public JsonReportWriter() {
+    this(Format.DOCUMENT);
+  }
+
+  public JsonReportWriter(Format format) {
+    this.format = format;
+  }
+
+  /**
+   * @param out the stream to write to, flushed but not closed
+   */
+  public void write(SwaggerDiff diff, OutputStream out) throws IOException {
+    try (JsonGenerator generator = createGenerator(out)) {
+      write(diff, generator);
+    }
+  }
+
+  public void write(SwaggerDiff diff, JsonGenerator generator) throws IOException {
+    if (Format.NDJSON == format) {
+      // root values are separated by a space by default, a newline ends each line instead
+      generator.setRootValueSeparator(null);
+      for (Endpoint endpoint : diff.getNewEndpoints()) {
+        writeEndpointLine(generator, "new", endpoint);
+      }
+      for (Endpoint endpoint : diff.getMissingEndpoints()) {
+        writeEndpointLine(generator, "missing", endpoint);
+      }
+      for (ChangedEndpoint endpoint : diff.getChangedEndpoints()) {
+        writeChangedEndpointLine(generator, endpoint);
+      }
+      writeVendorExtensionsLine(generator, null, diff.getChangedVendorExtensions());
+      generator.flush();
+      return;
+    }
+    generator.writeStartObject();
+    generator.writeStringField("oldVersion", diff.getOldVersion());
+    generator.writeStringField("newVersion", diff.getNewVersion());
+    generator.writeBooleanField("hasOnlyCosmeticChanges", diff.hasOnlyCosmeticChanges());
+    generator.writeArrayFieldStart("newEndpoints");
+    for (Endpoint endpoint : diff.getNewEndpoints()) {
+      generator.writeStartObject();
+      writeEndpointFields(generator, endpoint);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    generator.writeArrayFieldStart("missingEndpoints");
+    for (Endpoint endpoint : diff.getMissingEndpoints()) {
+      generator.writeStartObject();
+      writeEndpointFields(generator, endpoint);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    generator.writeArrayFieldStart("changedEndpoints");
+    for (ChangedEndpoint endpoint : diff.getChangedEndpoints()) {
+      generator.writeStartObject();
+      writeChangedEndpointFields(generator, endpoint);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    if (diff.getChangedVendorExtensions().vendorExtensionsAreDiff()) {
+      generator.writeFieldName("vendorExtensions");
+      writeExtensionGroup(generator, diff.getChangedVendorExtensions());
+    }
+    generator.writeEndObject();
+    generator.flush();
+  }
+
+  /**
+   * A listener writing the NDJSON lines of a diff as the diff finds the changes, so the output
+   * starts before the diff ends. The vendor extensions of the spec and its info, tags and
+   * security definitions come as one line each when they differ, and a last line tells
+   * whether the changes are only cosmetic.
+   *
+   * @param out the stream to write to, flushed on completion but not closed
+   */
+  public static DiffListener listener(OutputStream out) {
+    try {
+      return listener(createGenerator(out));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @see #listener(OutputStream)
+   */
+  public static DiffListener listener(JsonGenerator generator) {
+    generator.setRootValueSeparator(null);
+    return new DiffListener() {
+      @Override
+      public void onNewEndpoint(Endpoint endpoint) {
+        try {
+          writeEndpointLine(generator, "new", endpoint);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public void onMissingEndpoint(Endpoint endpoint) {
+        try {
+          writeEndpointLine(generator, "missing", endpoint);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public void onChangedEndpoint(ChangedEndpoint endpoint) {
+        try {
+          writeChangedEndpointLine(generator, endpoint);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public void onVendorExtensionChanged(String key, ChangedExtensionGroup group) {
+        try {
+          writeVendorExtensionsLine(generator, key, group);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public void onComplete(boolean hasContractChanges, boolean hasOnlyCosmeticChanges) {
+        try {
+          generator.writeStartObject();
+          generator.writeStringField("change", "complete");
+          generator.writeBooleanField("hasContractChanges", hasContractChanges);
+          generator.writeBooleanField("hasOnlyCosmeticChanges", hasOnlyCosmeticChanges);
+          generator.writeEndObject();
+          endLine(generator);
+          generator.flush();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    };
+  }
+
+  private static JsonGenerator createGenerator(OutputStream out) throws IOException {
+    JsonGenerator generator = Json.mapper().getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    return generator;
+  }
+
+  private static void writeEndpointLine(JsonGenerator generator, String change, Endpoint endpoint) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("change", change);
+    writeEndpointFields(generator, endpoint);
+    generator.writeEndObject();
+    endLine(generator);
+  }
+
+  private static void writeChangedEndpointLine(JsonGenerator generator, ChangedEndpoint endpoint) throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("change", "changed");
+    writeChangedEndpointFields(generator, endpoint);
+    generator.writeEndObject();
+    endLine(generator);
+  }
+
+  private static void writeVendorExtensionsLine(JsonGenerator generator, String key, ChangedExtensionGroup group) throws IOException {
+    if (!group.vendorExtensionsAreDiff()) {
+      return;
+    }
+    generator.writeStartObject();
+    generator.writeStringField("change", "vendorExtensions");
+    if (null != key) {
+      generator.writeStringField("key", key);
+    }
+    generator.writeFieldName("vendorExtensions");
+    writeExtensionGroup(generator, group);
+    generator.writeEndObject();
+    endLine(generator);
+  }
+
+  private static void endLine(JsonGenerator generator) throws IOException {
+    generator.writeRaw('\n');
+  }
+
+  private static void writeEndpointFields(JsonGenerator generator, Endpoint endpoint) throws IOException {
+    generator.writeStringField("method", String.valueOf(endpoint.getMethod()));
+    generator.writeStringField("path", endpoint.getPathUrl());
+    if (null != endpoint.getSummary()) {
+      generator.writeStringField("summary", endpoint.getSummary());
+    }
+  }
+
+  private static void writeChangedEndpointFields(JsonGenerator generator, ChangedEndpoint endpoint) throws IOException {
+    generator.writeStringField("path", endpoint.getPathUrl());
+    writeOperations(generator, "newOperations", endpoint.getNewOperations());
+    writeOperations(generator, "missingOperations", endpoint.getMissingOperations());
+    generator.writeArrayFieldStart("changedOperations");
+    for (Entry<HttpMethod, ChangedOperation> entry : endpoint.getChangedOperations().entrySet()) {
+      generator.writeStartObject();
+      generator.writeStringField("method", entry.getKey().toString());
+      writeChangedOperationFields(generator, entry.getValue());
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    writeExtensionGroupField(generator, endpoint);
+  }
+
+  private static void writeOperations(JsonGenerator generator, String field, Map<HttpMethod, Operation> operations) throws IOException {
+    if (null == operations || operations.isEmpty()) {
+      return;
+    }
+    generator.writeArrayFieldStart(field);
+    for (Entry<HttpMethod, Operation> entry : operations.entrySet()) {
+      generator.writeStartObject();
+      generator.writeStringField("method", entry.getKey().toString());
+      if (null != entry.getValue().getSummary()) {
+        generator.writeStringField("summary", entry.getValue().getSummary());
+      }
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+
+  private static void writeChangedOperationFields(JsonGenerator generator, ChangedOperation operation) throws IOException {
+    if (null != operation.getSummary()) {
+      generator.writeStringField("summary", operation.getSummary());
+    }
+    writeParameters(generator, "addParameters", operation.getAddParameters());
+    writeParameters(generator, "missingParameters", operation.getMissingParameters());
+    if (!operation.getChangedParameters().isEmpty()) {
+      generator.writeArrayFieldStart("changedParameters");
+      for (ChangedParameter parameter : operation.getChangedParameters()) {
+        generator.writeStartObject();
+        writeParameterFields(generator, parameter.getRightParameter());
+        generator.writeBooleanField("changeRequired", parameter.isChangeRequired());
+        generator.writeBooleanField("changeDescription", parameter.isChangeDescription());
+        writeProperties(generator, "increased", parameter.getIncreased());
+        writeProperties(generator, "missing", parameter.getMissing());
+        writeProperties(generator, "changed", parameter.getChanged());
+        writeExtensionGroupField(generator, parameter);
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    }
+    writeProperties(generator, "addProps", operation.getAddProps());
+    writeProperties(generator, "missingProps", operation.getMissingProps());
+    writeProperties(generator, "changedProps", operation.getChangedProps());
+    writeExtensionGroupField(generator, operation);
+  }
+
+  private static void writeParameters(JsonGenerator generator, String field, List<Parameter> parameters) throws IOException {
+    if (parameters.isEmpty()) {
+      return;
+    }
+    generator.writeArrayFieldStart(field);
+    for (Parameter parameter : parameters) {
+      generator.writeStartObject();
+      writeParameterFields(generator, parameter);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+
+  private static void writeParameterFields(JsonGenerator generator, Parameter parameter) throws IOException {
+    generator.writeStringField("name", parameter.getName());
+    generator.writeStringField("in", parameter.getIn());
+    generator.writeBooleanField("required", parameter.getRequired());
+    if (null != parameter.getDescription()) {
+      generator.writeStringField("description", parameter.getDescription());
+    }
+  }
+
+  private static void writeProperties(JsonGenerator generator, String field, List<ElProperty> properties) throws IOException {
+    if (properties.isEmpty()) {
+      return;
+    }
+    generator.writeArrayFieldStart(field);
+    for (ElProperty elProperty : properties) {
+      generator.writeStartObject();
+      generator.writeStringField("el", elProperty.getEl());
+      if (null != elProperty.getParentModelName()) {
+        generator.writeStringField("parentModel", elProperty.getParentModelName());
+      }
+      Property property = elProperty.getProperty();
+      if (null != property) {
+        generator.writeStringField("type", property.getType());
+        if (null != property.getDescription()) {
+          generator.writeStringField("description", property.getDescription());
+        }
+      }
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+
+  private static void writeExtensionGroupField(JsonGenerator generator, ChangedExtensionGroup group) throws IOException {
+    if (group.vendorExtensionsAreDiff()) {
+      generator.writeFieldName("vendorExtensions");
+      writeExtensionGroup(generator, group);
+    }
+  }
+
+  /**
+   * Only the parts that differ are written
+   */
+  private static void writeExtensionGroup(JsonGenerator generator, ChangedExtensionGroup group) throws IOException {
+    generator.writeStartObject();
+    writeExtensions(generator, "increased", group.getIncreasedVendorExtensions());
+    writeExtensions(generator, "missing", group.getMissingVendorExtensions());
+    if (!group.getChangedVendorExtensions().isEmpty()) {
+      generator.writeObjectFieldStart("changed");
+      for (Entry<String, Pair<Object, Object>> entry : group.getChangedVendorExtensions().entrySet()) {
+        generator.writeObjectFieldStart(entry.getKey());
+        generator.writeObjectField("old", entry.getValue().getLeft());
+        generator.writeObjectField("new", entry.getValue().getRight());
+        String path = group.getChangedVendorExtensionPaths().get(entry.getKey());
+        if (null != path) {
+          generator.writeStringField("path", path);
+        }
+        generator.writeEndObject();
+      }
+      generator.writeEndObject();
+    }
+    boolean subGroups = false;
+    for (Entry<String, ChangedExtensionGroup> entry : group.getChangedSubGroups().entrySet()) {
+      if (!entry.getValue().vendorExtensionsAreDiff()) {
+        continue;
+      }
+      if (!subGroups) {
+        generator.writeObjectFieldStart("groups");
+        subGroups = true;
+      }
+      generator.writeFieldName(entry.getKey());
+      writeExtensionGroup(generator, entry.getValue());
+    }
+    if (subGroups) {
+      generator.writeEndObject();
+    }
+    generator.writeEndObject();
+  }
+
+  private static void writeExtensions(JsonGenerator generator, String field, Map<String, Object> extensions) throws IOException {
+    if (null == extensions || extensions.isEmpty()) {
+      return;
+    }
+    generator.writeObjectFieldStart(field);
+    for (Entry<String, Object> entry : extensions.entrySet()) {
+      generator.writeObjectField(entry.getKey(), entry.getValue());
+    }
+    generator.writeEndObject();
+  }
+}
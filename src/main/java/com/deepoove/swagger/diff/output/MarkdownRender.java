@@ -0,0 +1,146 @@
+package com.deepoove.swagger.diff.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.model.ChangedEndpoint;
+import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.ChangedParameter;
+import com.deepoove.swagger.diff.model.ElProperty;
+import com.deepoove.swagger.diff.model.Endpoint;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.parameters.Parameter;
+
+/**
+ * Renders the new, deprecated and changed endpoints of a diff as markdown. Each piece of a
+ * line is written to the writer as it is, no line is built first.
+ */
+public class MarkdownRender implements Render {
+
+  private static final String H3 = "### ";
+  private static final String HR = "---\n";
+  private static final String LI = "* ";
+  private static final String PRE_LI = "    ";
+  private static final String PRE_CODE = "        ";
+
+  @Override
+  public void render(SwaggerDiff diff, Writer writer) throws IOException {
+    writer.write(H3);
+    writer.write("What's New\n");
+    writer.write(HR);
+    writeEndpoints(writer, diff.getNewEndpoints());
+    writer.write('\n');
+    writer.write(H3);
+    writer.write("What's Deprecated\n");
+    writer.write(HR);
+    writeEndpoints(writer, diff.getMissingEndpoints());
+    writer.write('\n');
+    writer.write(H3);
+    writer.write("What's Changed\n");
+    writer.write(HR);
+    for (ChangedEndpoint endpoint : diff.getChangedEndpoints()) {
+      for (Entry<HttpMethod, ChangedOperation> entry : endpoint.getChangedOperations().entrySet()) {
+        writeChangedOperation(writer, endpoint.getPathUrl(), entry.getKey(), entry.getValue());
+      }
+    }
+    writer.flush();
+  }
+
+  private static void writeEndpoints(Writer writer, List<Endpoint> endpoints) throws IOException {
+    for (Endpoint endpoint : endpoints) {
+      writeTitle(writer, endpoint.getMethod(), endpoint.getPathUrl(), endpoint.getSummary());
+      writer.write('\n');
+    }
+  }
+
+  private static void writeTitle(Writer writer, HttpMethod method, String pathUrl, String summary) throws IOException {
+    writer.write(LI);
+    writer.write('`');
+    writer.write(String.valueOf(method));
+    writer.write("` ");
+    writer.write(pathUrl);
+    if (null != summary) {
+      writer.write(' ');
+      writer.write(summary);
+    }
+  }
+
+  private static void writeChangedOperation(Writer writer, String pathUrl, HttpMethod method, ChangedOperation operation) throws IOException {
+    writeTitle(writer, method, pathUrl, operation.getSummary());
+    // two trailing spaces break the line inside the list item
+    writer.write("  \n");
+    if (operation.isDiffParam()) {
+      writer.write(PRE_LI);
+      writer.write("Parameter\n\n");
+      for (Parameter parameter : operation.getAddParameters()) {
+        writeLine(writer, "Add ", null, parameter.getName(), parameter.getDescription());
+      }
+      for (ChangedParameter parameter : operation.getChangedParameters()) {
+        writeChangedParameter(writer, parameter);
+      }
+      for (Parameter parameter : operation.getMissingParameters()) {
+        writeLine(writer, "Delete ", null, parameter.getName(), parameter.getDescription());
+      }
+    }
+    if (operation.isDiffProp()) {
+      writer.write(PRE_LI);
+      writer.write("Return Type\n\n");
+      writeProperties(writer, "Add ", null, operation.getAddProps());
+      writeProperties(writer, "Delete ", null, operation.getMissingProps());
+      writeProperties(writer, "Change ", null, operation.getChangedProps());
+    }
+  }
+
+  private static void writeChangedParameter(Writer writer, ChangedParameter changed) throws IOException {
+    Parameter left = changed.getLeftParameter();
+    Parameter right = changed.getRightParameter();
+    writeProperties(writer, "Add ", right.getName(), changed.getIncreased());
+    writeProperties(writer, "Delete ", right.getName(), changed.getMissing());
+    writeProperties(writer, "Change ", right.getName(), changed.getChanged());
+    if (!changed.isChangeRequired() && !changed.isChangeDescription()) {
+      return;
+    }
+    writer.write(PRE_CODE);
+    writer.write(String.valueOf(right.getName()));
+    if (changed.isChangeRequired()) {
+      writer.write(right.getRequired() ? " change into required" : " change into not required");
+    }
+    if (changed.isChangeDescription()) {
+      writer.write(" Notes ");
+      writer.write(String.valueOf(left.getDescription()));
+      writer.write(" change into ");
+      writer.write(String.valueOf(right.getDescription()));
+    }
+    writer.write('\n');
+  }
+
+  private static void writeProperties(Writer writer, String action, String parameterName, List<ElProperty> properties) throws IOException {
+    for (ElProperty property : properties) {
+      writeLine(writer, action, parameterName, property.getEl(),
+          null == property.getProperty() ? null : property.getProperty().getDescription());
+    }
+  }
+
+  /**
+   * A code line: the action, the parameter name and a dot when the name is of a property of
+   * that parameter, the name, then the description as a comment
+   */
+  private static void writeLine(Writer writer, String action, String parameterName, String name, String description) throws IOException {
+    writer.write(PRE_CODE);
+    writer.write(action);
+    if (null != parameterName) {
+      writer.write(parameterName);
+      writer.write('.');
+    }
+    writer.write(String.valueOf(name));
+    if (null != description) {
+      writer.write(" //");
+      writer.write(description);
+    }
+    writer.write('\n');
+  }
+}
@@ -0,0 +1,34 @@
+package com.deepoove.swagger.diff.output;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+
+/**
+ * Renders a diff as a document for people to read.
+ */
+public interface Render {
+
+  /**
+   * Writes the document piece by piece as the diff is walked, the whole document is never held
+   * in memory. The writer is flushed but not closed, an unbuffered one should be wrapped in a
+   * {@link java.io.BufferedWriter} first.
+   */
+  void render(SwaggerDiff diff, Writer writer) throws IOException;
+
+  /**
+   * @return the whole document, for small diffs
+   */
+  default String render(SwaggerDiff diff) {
+    StringWriter writer = new StringWriter();
+    try {
+      render(diff, writer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+}
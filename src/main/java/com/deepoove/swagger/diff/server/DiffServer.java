@@ -0,0 +1,401 @@
+package com.deepoove.swagger.diff.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.deepoove.swagger.diff.LruSpecCache;
+import com.deepoove.swagger.diff.SpecDigest;
+import com.deepoove.swagger.diff.SpecReader;
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.output.JsonReportWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+
+/**
+ * A long running diff server on the http server of the JDK, so the JIT, the parsers and the
+ * parsed specs stay warm across diffs.
+ * <ul>
+ * <li>{@code POST /specs} with a spec in json or yaml as body parses and keeps it, and answers
+ * its hash: {@code {"hash": "..."}}</li>
+ * <li>{@code POST /diff?old=<hash>&new=<hash>} diffs two kept specs, {@code POST /diff} with a
+ * body {@code {"old": ..., "new": ...}} diffs the specs of the body, each given inline as an
+ * object or by hash. {@code extensions=true} compares vendor extensions too and
+ * {@code format=ndjson} answers NDJSON instead of one document, see {@link JsonReportWriter}.
+ * A hash no longer kept is answered with 404, the spec has to be posted again.</li>
+ * <li>{@code GET /stats} answers the request counters and latencies, see {@link DiffServerStats}.</li>
+ * </ul>
+ * Requests are handled by a fixed number of threads with a bounded queue in front of them. A
+ * request that finds the queue full is answered with 503 right away, on a thread of its own, so
+ * the thread accepting connections does not read it. When even the rejected requests pile up,
+ * the accepting thread answers the 503 itself: every request is answered and its connection
+ * closed, and new connections wait meanwhile.
+ * <p>
+ * Without TCP_NODELAY the end of every chunked response waits for a delayed ack, about 40ms. The
+ * JDK server reads the system property {@code sun.net.httpserver.nodelay} once, when the first
+ * server of the JVM is created: {@link #main(String[])} sets it, embedding code sets it itself.
+ */
+public class DiffServer {
+
+  /**
+   * Set while a request that did not fit in the queue is answered
+   */
+  private static final ThreadLocal<Boolean> REJECTED = new ThreadLocal<Boolean>();
+  private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+  private final InetSocketAddress address;
+  private int concurrency = Runtime.getRuntime().availableProcessors();
+  private int queueSize = 64;
+  private long maxCacheBytes = 256L * 1024 * 1024;
+  private int maxBodyBytes = 64 * 1024 * 1024;
+
+  private HttpServer server;
+  private ThreadPoolExecutor executor;
+  private ThreadPoolExecutor rejector;
+  private LruSpecCache cache;
+  private DiffServerStats stats;
+
+  private DiffServer(InetSocketAddress address) {
+    this.address = address;
+  }
+
+  public static DiffServer build(InetSocketAddress address) {
+    return new DiffServer(address);
+  }
+
+  /**
+   * @param concurrency how many requests are handled at once
+   */
+  public DiffServer concurrency(int concurrency) {
+    this.concurrency = Math.max(1, concurrency);
+    return this;
+  }
+
+  /**
+   * @param queueSize how many requests wait for a thread before new ones are rejected
+   */
+  public DiffServer queueSize(int queueSize) {
+    this.queueSize = Math.max(0, queueSize);
+    return this;
+  }
+
+  /**
+   * @param maxCacheBytes the size of the inputs of the parsed specs kept
+   */
+  public DiffServer maxCacheBytes(long maxCacheBytes) {
+    this.maxCacheBytes = maxCacheBytes;
+    return this;
+  }
+
+  public DiffServer maxBodyBytes(int maxBodyBytes) {
+    this.maxBodyBytes = maxBodyBytes;
+    return this;
+  }
+
+  public DiffServer start() throws IOException {
+    if (null != server) {
+      throw new IllegalStateException("server already started.");
+    }
+    cache = LruSpecCache.maxWeight(maxCacheBytes);
+    stats = new DiffServerStats(cache);
+    BlockingQueue<Runnable> queue = 0 == queueSize ? new SynchronousQueue<Runnable>() : new ArrayBlockingQueue<Runnable>(queueSize);
+    AtomicInteger threads = new AtomicInteger();
+    rejector = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)),
+        runnable -> new Thread(runnable, "swagger-diff-server-rejector"),
+        // a dropped exchange would keep its connection open until the client gives up
+        (runnable, pool) -> runnable.run());
+    executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS, queue,
+        runnable -> new Thread(runnable, "swagger-diff-server-" + threads.incrementAndGet()),
+        // the exchange reads the request when run, leave it to the rejector, the handler only writes the 503
+        (runnable, pool) -> rejector.execute(() -> {
+          REJECTED.set(Boolean.TRUE);
+          try {
+            runnable.run();
+          } finally {
+            REJECTED.remove();
+          }
+        }));
+    stats.setQueue(queue);
+    server = HttpServer.create(address, 0);
+    server.setExecutor(executor);
+    server.createContext("/specs", exchange -> handle(exchange, "POST", true, this::upload));
+    server.createContext("/diff", exchange -> handle(exchange, "POST", true, this::diff));
+    server.createContext("/stats", exchange -> handle(exchange, "GET", false, this::writeStats));
+    server.start();
+    return this;
+  }
+
+  /**
+   * Stops accepting requests, and waits up to the delay for the requests being handled
+   */
+  public void stop(int delaySeconds) {
+    if (null == server) {
+      return;
+    }
+    server.stop(delaySeconds);
+    executor.shutdown();
+    rejector.shutdown();
+    server = null;
+  }
+
+  /**
+   * @return the address the server listens on, with the actual port when it was started on
+   *         port 0
+   */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  public DiffServerStats getStats() {
+    return stats;
+  }
+
+  private interface Handler {
+    void handle(HttpExchange exchange) throws IOException;
+  }
+
+  /**
+   * @param counted whether the request counts in the stats
+   */
+  private void handle(HttpExchange exchange, String method, boolean counted, Handler handler) throws IOException {
+    boolean aborted = false;
+    try {
+      if (Boolean.TRUE.equals(REJECTED.get())) {
+        stats.rejected();
+        exchange.getResponseHeaders().set("Connection", "close");
+        writeError(exchange, 503, "too many requests.");
+        return;
+      }
+      if (!method.equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().set("Allow", method);
+        writeError(exchange, 405, "use " + method + ".");
+        return;
+      }
+      long start = System.nanoTime();
+      boolean failed = true;
+      try {
+        handler.handle(exchange);
+        failed = false;
+      } catch (HttpError e) {
+        aborted = responseStarted(exchange);
+        if (aborted) {
+          throw e;
+        }
+        writeError(exchange, e.status, e.getMessage());
+      } catch (IOException | RuntimeException e) {
+        aborted = responseStarted(exchange);
+        if (aborted) {
+          throw e;
+        }
+        writeError(exchange, 500, null == e.getMessage() ? e.toString() : e.getMessage());
+      } finally {
+        if (counted) {
+          stats.finished(System.nanoTime() - start, failed);
+        }
+      }
+    } finally {
+      // closing would end the chunked body as if it was complete, left open the JDK server drops
+      // the connection on the rethrown error and the client sees a cut response
+      if (!aborted) {
+        exchange.close();
+      }
+    }
+  }
+
+  /**
+   * @return true once the status and headers were sent, an error can no longer be answered
+   */
+  private static boolean responseStarted(HttpExchange exchange) {
+    return -1 != exchange.getResponseCode();
+  }
+
+  private void upload(HttpExchange exchange) throws IOException {
+    byte[] body = readBody(exchange);
+    SpecDigest digest = SpecDigest.of(body);
+    if (null == cache.get(digest.getKey())) {
+      Swagger spec;
+      try {
+        spec = SpecReader.read(body);
+      } catch (IOException e) {
+        throw new HttpError(400, "cannot read api-doc: " + e.getMessage());
+      }
+      if (null == spec) {
+        throw new HttpError(400, "empty api-doc.");
+      }
+      cache.put(digest.getKey(), spec, digest.getLength());
+    }
+    JsonGenerator generator = startJson(exchange, 200);
+    generator.writeStartObject();
+    generator.writeStringField("hash", digest.getKey());
+    generator.writeEndObject();
+    generator.close();
+  }
+
+  private void diff(HttpExchange exchange) throws IOException {
+    Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+    JsonNode body = null;
+    if (!query.containsKey("old") || !query.containsKey("new")) {
+      try {
+        body = Json.mapper().readTree(readBody(exchange));
+      } catch (IOException e) {
+        throw new HttpError(400, "cannot read body: " + e.getMessage());
+      }
+    }
+    Swagger oldSpec = spec(query.get("old"), null == body ? null : body.get("old"), "old");
+    Swagger newSpec = spec(query.get("new"), null == body ? null : body.get("new"), "new");
+    boolean withExtensions = Boolean.parseBoolean(query.get("extensions"));
+    JsonReportWriter.Format format = "ndjson".equals(query.get("format")) ? JsonReportWriter.Format.NDJSON : JsonReportWriter.Format.DOCUMENT;
+
+    SwaggerDiff diff = SwaggerDiff.compareV2(oldSpec, newSpec, withExtensions);
+    JsonGenerator generator = startJson(exchange, 200);
+    new JsonReportWriter(format).write(diff, generator);
+    generator.close();
+  }
+
+  private Swagger spec(String hash, JsonNode value, String name) {
+    if (null == hash && null != value && value.isTextual()) {
+      hash = value.textValue();
+    }
+    if (null != hash) {
+      Swagger spec = cache.get(hash);
+      if (null == spec) {
+        throw new HttpError(404, "unknown " + name + " spec " + hash + ", post it to /specs again.");
+      }
+      return spec;
+    }
+    if (null == value || !value.isObject()) {
+      throw new HttpError(400, "missing " + name + " spec.");
+    }
+    Swagger spec = SpecReader.read(value, cache);
+    if (null == spec) {
+      throw new HttpError(400, "cannot read " + name + " api-doc.");
+    }
+    return spec;
+  }
+
+  private void writeStats(HttpExchange exchange) throws IOException {
+    JsonGenerator generator = startJson(exchange, 200);
+    stats.write(generator, executor.getActiveCount());
+    generator.close();
+  }
+
+  private byte[] readBody(HttpExchange exchange) throws IOException {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    InputStream in = exchange.getRequestBody();
+    for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+      if (body.size() + n > maxBodyBytes) {
+        throw new HttpError(413, "body larger than " + maxBodyBytes + " bytes.");
+      }
+      body.write(buffer, 0, n);
+    }
+    return body.toByteArray();
+  }
+
+  private static Map<String, String> query(String rawQuery) throws UnsupportedEncodingException {
+    Map<String, String> query = new HashMap<String, String>();
+    if (null == rawQuery) {
+      return query;
+    }
+    for (String parameter : rawQuery.split("&")) {
+      int equals = parameter.indexOf('=');
+      if (equals > 0) {
+        query.put(URLDecoder.decode(parameter.substring(0, equals), "UTF-8"),
+            URLDecoder.decode(parameter.substring(equals + 1), "UTF-8"));
+      }
+    }
+    return query;
+  }
+
+  /**
+   * @return a generator writing the chunked body of the response, to be closed when done. The
+   *         response only ends once the exchange is closed, after the request is counted.
+   */
+  private static JsonGenerator startJson(HttpExchange exchange, int status) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, 0);
+    OutputStream out = exchange.getResponseBody();
+    JsonGenerator generator = Json.mapper().getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    return generator;
+  }
+
+  private static void writeError(HttpExchange exchange, int status, String message) throws IOException {
+    JsonGenerator generator = startJson(exchange, status);
+    generator.writeStartObject();
+    generator.writeStringField("error", message);
+    generator.writeEndObject();
+    generator.close();
+  }
+
+  /**
+   * Ends a request with a status other than 500
+   */
+  private static final class HttpError extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    private HttpError(int status, String message) {
+      super(message);
+      this.status = status;
+    }
+  }
+
+  /**
+   * Starts a server: {@code --port <n>} (8080), {@code --concurrency <n>} (one per processor),
+   * {@code --queue <n>} (64) and {@code --cache-mb <n>} (256)
+   */
+  public static void main(String[] args) throws IOException {
+    int port = 8080;
+    int concurrency = Runtime.getRuntime().availableProcessors();
+    int queueSize = 64;
+    long cacheMegabytes = 256;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      int value = Integer.parseInt(args[i + 1]);
+      switch (args[i]) {
+        case "--port":
+          port = value;
+          break;
+        case "--concurrency":
+          concurrency = value;
+          break;
+        case "--queue":
+          queueSize = value;
+          break;
+        case "--cache-mb":
+          cacheMegabytes = value;
+          break;
+        default:
+          throw new IllegalArgumentException("unknown option " + args[i]);
+      }
+    }
+    if (null == System.getProperty(NODELAY_PROPERTY)) {
+      System.setProperty(NODELAY_PROPERTY, "true");
+    }
+    DiffServer server = build(new InetSocketAddress(port))
+        .concurrency(concurrency)
+        .queueSize(queueSize)
+        .maxCacheBytes(cacheMegabytes * 1024 * 1024)
+        .start();
+    System.out.println("swagger-diff server listening on " + server.getAddress());
+  }
+}
@@ -0,0 +1,127 @@
+package com.deepoove.swagger.diff.server;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.deepoove.swagger.diff.LruSpecCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Counters of a {@link DiffServer}: requests handled, failed and rejected, throughput since the
+ * start, and handling latencies in a histogram of power of two microsecond buckets, so a
+ * percentile is exact to a factor of two.
+ */
+public class DiffServerStats {
+
+  private static final int BUCKETS = 64;
+
+  private final long startNanos = System.nanoTime();
+  private final LruSpecCache cache;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder totalMicros = new LongAdder();
+  // bucket i holds the latencies from 2^(i-1) up to 2^i - 1 microseconds
+  private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+  private volatile Queue<Runnable> queue;
+
+  DiffServerStats(LruSpecCache cache) {
+    this.cache = cache;
+  }
+
+  void setQueue(Queue<Runnable> queue) {
+    this.queue = queue;
+  }
+
+  void finished(long nanos, boolean failed) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+    requests.increment();
+    if (failed) {
+      failures.increment();
+    }
+    totalMicros.add(micros);
+    latencies.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+  }
+
+  void rejected() {
+    rejected.increment();
+  }
+
+  public long getRequests() {
+    return requests.sum();
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  public long getRejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * @return the requests handled per second since the server started
+   */
+  public double getThroughput() {
+    double seconds = (System.nanoTime() - startNanos) / 1e9;
+    return seconds > 0 ? getRequests() / seconds : 0;
+  }
+
+  public double getMeanMillis() {
+    long count = getRequests();
+    return 0 == count ? 0 : totalMicros.sum() / 1000.0 / count;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the upper bound of the bucket holding the percentile, 0 when nothing was handled
+   */
+  public double getPercentileMillis(double percentile) {
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = latencies.get(i);
+      total += counts[i];
+    }
+    if (0 == total) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(percentile / 100 * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank && counts[i] > 0) {
+        return ((1L << i) - 1) / 1000.0;
+      }
+    }
+    return Long.MAX_VALUE / 1000.0;
+  }
+
+  void write(JsonGenerator generator, int active) throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("requests", getRequests());
+    generator.writeNumberField("failures", getFailures());
+    generator.writeNumberField("rejected", getRejected());
+    generator.writeNumberField("active", active);
+    generator.writeNumberField("queued", null == queue ? 0 : queue.size());
+    generator.writeNumberField("throughputPerSecond", getThroughput());
+    generator.writeObjectFieldStart("latencyMillis");
+    generator.writeNumberField("mean", getMeanMillis());
+    generator.writeNumberField("p50", getPercentileMillis(50));
+    generator.writeNumberField("p90", getPercentileMillis(90));
+    generator.writeNumberField("p99", getPercentileMillis(99));
+    generator.writeNumberField("max", getPercentileMillis(100));
+    generator.writeEndObject();
+    generator.writeObjectFieldStart("specCache");
+    generator.writeNumberField("specs", cache.size());
+    generator.writeNumberField("bytes", cache.getWeight());
+    generator.writeNumberField("hits", cache.getHitCount());
+    generator.writeNumberField("misses", cache.getMissCount());
+    generator.writeNumberField("evictions", cache.getEvictionCount());
+    generator.writeEndObject();
+    generator.writeEndObject();
+  }
+}
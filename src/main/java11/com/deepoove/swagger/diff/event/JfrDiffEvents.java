@@ -0,0 +1,88 @@
+package com.deepoove.swagger.diff.event;
+
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Swagger;
+
+import jdk.jfr.EventType;
+
+/**
+ * {@link DiffEvents} as Flight Recorder events, loaded by {@link DiffEvents} on Java 11 and later
+ */
+class JfrDiffEvents extends DiffEvents {
+
+  private static final EventType MODEL_DIFF = EventType.getEventType(ModelDiffEvent.class);
+
+  @Override
+  protected Object onBeginParse() {
+    ParseEvent event = new ParseEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  protected void onEndParse(Object event, String format, Swagger spec) {
+    ParseEvent parseEvent = (ParseEvent) event;
+    if (parseEvent.shouldCommit()) {
+      parseEvent.format = format;
+      if (null != spec) {
+        parseEvent.paths = null == spec.getPaths() ? 0 : spec.getPaths().size();
+        parseEvent.definitions = null == spec.getDefinitions() ? 0 : spec.getDefinitions().size();
+      }
+      parseEvent.commit();
+    }
+  }
+
+  @Override
+  protected Object onBeginPath() {
+    PathDiffEvent event = new PathDiffEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  protected void onEndPath(Object event, String pathUrl) {
+    PathDiffEvent pathEvent = (PathDiffEvent) event;
+    if (pathEvent.shouldCommit()) {
+      pathEvent.pathUrl = pathUrl;
+      pathEvent.commit();
+    }
+  }
+
+  @Override
+  protected Object onBeginOperation() {
+    OperationDiffEvent event = new OperationDiffEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  protected void onEndOperation(Object event, String pathUrl, HttpMethod method) {
+    OperationDiffEvent operationEvent = (OperationDiffEvent) event;
+    if (operationEvent.shouldCommit()) {
+      operationEvent.pathUrl = pathUrl;
+      operationEvent.method = String.valueOf(method);
+      operationEvent.commit();
+    }
+  }
+
+  @Override
+  protected Object onBeginModel() {
+    // the event is kept in a frame of the model walk, so the JIT cannot remove it like the others
+    if (!MODEL_DIFF.isEnabled()) {
+      return null;
+    }
+    ModelDiffEvent event = new ModelDiffEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  protected void onEndModel(Object event, String simpleRef, int depth) {
+    ModelDiffEvent modelEvent = (ModelDiffEvent) event;
+    if (null != modelEvent && modelEvent.shouldCommit()) {
+      modelEvent.simpleRef = simpleRef;
+      modelEvent.depth = depth;
+      modelEvent.commit();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.deepoove.swagger.diff.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.deepoove.swagger.diff.ModelDiff")
+@Label("Model Diff")
+@Description("Diffing a model and the models it refers to")
+@Category("Swagger Diff")
+@Threshold("1 ms")
+// the recursion makes the stack traces deep and alike, the depth field tells enough
+@StackTrace(false)
+class ModelDiffEvent extends jdk.jfr.Event {
+
+  @Label("Definition")
+  String simpleRef;
+
+  @Label("Depth")
+  int depth;
+}
@@ -0,0 +1,21 @@
+package com.deepoove.swagger.diff.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.deepoove.swagger.diff.OperationDiff")
+@Label("Operation Diff")
+@Description("Diffing an operation of both specs, with its parameters and response")
+@Category("Swagger Diff")
+@Threshold("1 ms")
+class OperationDiffEvent extends jdk.jfr.Event {
+
+  @Label("Path")
+  String pathUrl;
+
+  @Label("Method")
+  String method;
+}
@@ -0,0 +1,24 @@
+package com.deepoove.swagger.diff.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.deepoove.swagger.diff.Parse")
+@Label("Spec Parse")
+@Description("Reading a spec into the swagger model")
+@Category("Swagger Diff")
+@Threshold("1 ms")
+class ParseEvent extends jdk.jfr.Event {
+
+  @Label("Format")
+  String format;
+
+  @Label("Paths")
+  int paths;
+
+  @Label("Definitions")
+  int definitions;
+}
@@ -0,0 +1,18 @@
+package com.deepoove.swagger.diff.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.deepoove.swagger.diff.PathDiff")
+@Label("Path Diff")
+@Description("Diffing a path of both specs, with its operations")
+@Category("Swagger Diff")
+@Threshold("1 ms")
+class PathDiffEvent extends jdk.jfr.Event {
+
+  @Label("Path")
+  String pathUrl;
+}
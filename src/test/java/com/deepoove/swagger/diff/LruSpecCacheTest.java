@@ -0,0 +1,49 @@
+package com.deepoove.swagger.diff;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.Swagger;
+
+public class LruSpecCacheTest {
+
+  @Test
+  public void maxWeight_evictsLeastRecentlyUsed() {
+    LruSpecCache cache = LruSpecCache.maxWeight(100);
+    Swagger a = new Swagger();
+    Swagger b = new Swagger();
+    cache.put("a", a, 40);
+    cache.put("b", b, 40);
+    Assert.assertSame(a, cache.get("a"));
+
+    cache.put("c", new Swagger(), 40);
+    Assert.assertNull(cache.get("b"));
+    Assert.assertSame(a, cache.get("a"));
+    Assert.assertEquals(80, cache.getWeight());
+    Assert.assertEquals(1, cache.getEvictionCount());
+    Assert.assertEquals(2, cache.getHitCount());
+    Assert.assertEquals(1, cache.getMissCount());
+
+    // heavier than the whole cache, never kept
+    cache.put("d", new Swagger(), 101);
+    Assert.assertNull(cache.get("d"));
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void digest_ignoresWhitespaceOfTrees() throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    String compact = "{\"swagger\":\"2.0\",\"paths\":{}}";
+    String pretty = "{\n  \"swagger\" : \"2.0\",\n  \"paths\" : { }\n}";
+
+    SpecDigest digest = SpecDigest.of(mapper.readTree(pretty));
+    Assert.assertEquals(SpecDigest.of(mapper.readTree(compact)).getKey(), digest.getKey());
+    Assert.assertEquals(SpecDigest.of(compact.getBytes(StandardCharsets.UTF_8)).getKey(), digest.getKey());
+    Assert.assertEquals(compact.length(), digest.getLength());
+    Assert.assertNotEquals(SpecDigest.of(pretty.getBytes(StandardCharsets.UTF_8)).getKey(), digest.getKey());
+  }
+}
@@ -0,0 +1,126 @@
+package com.deepoove.swagger.diff.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.deepoove.swagger.diff.SpecReader;
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.Swagger;
+
+public class BatchDiffTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void directories_oneLinePerService() throws IOException {
+    Path oldDir = folder.newFolder("old").toPath();
+    Path newDir = folder.newFolder("new").toPath();
+    copySpec("petstore_v2_1.json", oldDir.resolve("same.json"));
+    copySpec("petstore_v2_1.json", newDir.resolve("same.json"));
+    copySpec("petstore_v2_1.json", oldDir.resolve("pets.json"));
+    copySpec("petstore_v2_2.json", newDir.resolve("pets.json"));
+    copySpec("petstore_v2_1.json", oldDir.resolve("gone.json"));
+    copySpec("petstore_v2_2.json", newDir.resolve("added.yaml"));
+    Files.write(newDir.resolve("notes.txt"), "not a spec".getBytes(StandardCharsets.UTF_8));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BatchDiff.Summary summary = BatchDiff.build(BatchDiff.fromDirectories(oldDir, newDir))
+        .ioThreads(2)
+        .cpuThreads(2)
+        .run(out);
+
+    Map<String, JsonNode> lines = lines(out);
+    Assert.assertEquals(5, lines.size());
+    Assert.assertEquals("unchanged", lines.get("same").path("status").asText());
+    Assert.assertEquals("breaking", lines.get("pets").path("status").asText());
+    Assert.assertEquals(1, lines.get("pets").path("missingEndpoints").asInt());
+    Assert.assertEquals("removed", lines.get("gone").path("status").asText());
+    Assert.assertEquals("added", lines.get("added").path("status").asText());
+    Assert.assertEquals(4, lines.get("summary").path("services").asInt());
+    Assert.assertEquals(2, summary.getBreaking());
+    Assert.assertEquals(BatchDiff.EXIT_BREAKING, summary.exitCode());
+  }
+
+  @Test
+  public void cli_readsAManifestAndReportsErrors() throws IOException {
+    Path dir = folder.newFolder("specs").toPath();
+    copySpec("petstore_v2_1.json", dir.resolve("v1.json"));
+    copySpec("petstore_v2_2.json", dir.resolve("v2.json"));
+    Files.write(dir.resolve("broken.json"), "{".getBytes(StandardCharsets.UTF_8));
+    Path manifest = dir.resolve("manifest.txt");
+    Files.write(manifest, ("# service old new\n"
+        + "pets v1.json v2.json\n"
+        + "\n"
+        + "broken v1.json broken.json\n").getBytes(StandardCharsets.UTF_8));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    int exitCode = SwaggerDiffCli.run(new String[] {"--manifest", manifest.toString()}, out, new PrintStream(err, true, "UTF-8"));
+
+    Map<String, JsonNode> lines = lines(out);
+    Assert.assertEquals(BatchDiff.EXIT_ERROR, exitCode);
+    Assert.assertEquals("breaking", lines.get("pets").path("status").asText());
+    Assert.assertEquals("error", lines.get("broken").path("status").asText());
+    Assert.assertEquals(1, lines.get("summary").path("errors").asInt());
+    Assert.assertEquals(0, err.size());
+
+    exitCode = SwaggerDiffCli.run(new String[] {"--batch", dir.toString()}, out, new PrintStream(err, true, "UTF-8"));
+    Assert.assertEquals(BatchDiff.EXIT_ERROR, exitCode);
+    Assert.assertTrue(new String(err.toByteArray(), StandardCharsets.UTF_8).contains("usage:"));
+  }
+
+  @Test
+  public void breaks_agreesWithTheBreakingChangeCheck() throws IOException {
+    String[] specs = {"petstore_v2_1.json", "petstore_v2_2.json", "petstore_v2_empty.json"};
+    for (String oldName : specs) {
+      for (String newName : specs) {
+        for (boolean withExtensions : new boolean[] {false, true}) {
+          Swagger oldSpec = spec(oldName);
+          Swagger newSpec = spec(newName);
+          Assert.assertEquals(oldName + " -> " + newName + " " + withExtensions,
+              SwaggerDiff.hasBreakingChanges(oldSpec, newSpec, withExtensions),
+              BatchDiff.breaks(SwaggerDiff.compareV2(oldSpec, newSpec, withExtensions)));
+        }
+      }
+    }
+  }
+
+  private Swagger spec(String name) throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+      return SpecReader.read(in);
+    }
+  }
+
+  private Map<String, JsonNode> lines(ByteArrayOutputStream out) throws IOException {
+    Map<String, JsonNode> lines = new HashMap<String, JsonNode>();
+    for (String line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+      JsonNode node = mapper.readTree(line);
+      lines.put("summary".equals(node.path("status").asText()) ? "summary" : node.path("service").asText(), node);
+    }
+    return lines;
+  }
+
+  private void copySpec(String name, Path target) throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+      Files.copy(in, target);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.Operation;
+
+public class ExtensionValuesTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void sameJson_whateverTheRepresentation() throws Exception {
+    Map<String, Object> map = new LinkedHashMap<String, Object>();
+    map.put("lang", "java");
+    map.put("lines", Arrays.asList(1, 2L, 3.0));
+    map.put("meta", null);
+    Object reordered = mapper.readValue("{\"meta\":null,\"lines\":[1,2,3],\"lang\":\"java\"}", Map.class);
+    Object tree = mapper.readTree("{\"lines\":[1.0,2,3],\"meta\":null,\"lang\":\"java\"}");
+
+    Assert.assertTrue(ExtensionValues.same(map, reordered));
+    Assert.assertTrue(ExtensionValues.same(map, tree));
+    Assert.assertNull(ExtensionValues.firstDifference(reordered, tree));
+    Assert.assertFalse(ExtensionValues.same(Arrays.asList(1, 2), Arrays.asList(2, 1)));
+    Assert.assertFalse(ExtensionValues.same("1", 1));
+  }
+
+  @Test
+  public void firstDifference_jsonPath() throws Exception {
+    Object left = mapper.readTree("{\"rules\":[{\"effect\":\"allow\"},{\"effect\":\"deny\"}],\"x-id\":1}");
+
+    Assert.assertEquals("$.rules[1].effect", ExtensionValues.firstDifference(left,
+        mapper.readTree("{\"rules\":[{\"effect\":\"allow\"},{\"effect\":\"allow\"}],\"x-id\":1}")));
+    Assert.assertEquals("$.rules[2]", ExtensionValues.firstDifference(left,
+        mapper.readTree("{\"rules\":[{\"effect\":\"allow\"},{\"effect\":\"deny\"},{}],\"x-id\":1}")));
+    Assert.assertEquals("$['x-id']", ExtensionValues.firstDifference(left,
+        mapper.readTree("{\"rules\":[{\"effect\":\"allow\"},{\"effect\":\"deny\"}]}")));
+    Assert.assertEquals("$", ExtensionValues.firstDifference("a", "b"));
+  }
+
+  @Test
+  public void firstDifference_javaValues() throws Exception {
+    Object left = mapper.readValue("{\"rules\":[{\"effect\":\"allow\",\"note\":null}]}", Map.class);
+
+    Assert.assertEquals("$.rules[0].note", ExtensionValues.firstDifference(left,
+        mapper.readValue("{\"rules\":[{\"effect\":\"allow\"}]}", Map.class)));
+    Assert.assertEquals("$.rules[0].limit", ExtensionValues.firstDifference(left,
+        mapper.readValue("{\"rules\":[{\"effect\":\"allow\",\"note\":null,\"limit\":1}]}", Map.class)));
+    Assert.assertEquals("$.rules[0].effect", ExtensionValues.firstDifference(left,
+        mapper.readValue("{\"rules\":[{\"effect\":\"deny\",\"note\":null}]}", Map.class)));
+  }
+
+  @Test
+  public void vendorExtensionDiff_reportsPaths() throws Exception {
+    Operation left = new Operation();
+    left.setVendorExtension("x-policy", mapper.readValue("{\"limits\":{\"rate\":10,\"burst\":5}}", Map.class));
+    left.setVendorExtension("x-samples", mapper.readValue("[{\"lang\":\"java\"}]", Object.class));
+    Operation right = new Operation();
+    right.setVendorExtension("x-policy", mapper.readValue("{\"limits\":{\"burst\":5,\"rate\":20}}", Map.class));
+    right.setVendorExtension("x-samples", mapper.readTree("[{\"lang\":\"java\"}]"));
+
+    ChangedExtensionGroup group = new VendorExtensionDiff(true).diff(left, right);
+    Assert.assertEquals(Arrays.asList("x-policy"), Arrays.asList(group.getChangedVendorExtensions().keySet().toArray()));
+    Assert.assertEquals("$.limits.rate", group.getChangedVendorExtensionPaths().get("x-policy"));
+  }
+}
@@ -0,0 +1,70 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+
+public class InMemoryDiffMetricsTest {
+
+  @Test
+  public void compareV2_petstore_reportsPhasesAndWork() throws Exception {
+    InMemoryDiffMetrics metrics = new InMemoryDiffMetrics(3);
+    SwaggerDiff diff = SwaggerDiff.compareV2WithMetrics(resource("petstore_v2_1.json"), resource("petstore_v2_2.json"), true, metrics);
+    SwaggerDiff expected = SwaggerDiff.compareV2(resource("petstore_v2_1.json"), resource("petstore_v2_2.json"), true);
+
+    Assert.assertEquals(expected.getChangedEndpoints().size(), diff.getChangedEndpoints().size());
+    Assert.assertTrue(metrics.getPhaseNanos(DiffMetrics.Phase.PARSE) > 0);
+    Assert.assertTrue(metrics.getPhaseNanos(DiffMetrics.Phase.DIFF) > 0);
+    Assert.assertTrue(metrics.getPhaseNanos(DiffMetrics.Phase.PATH_MATCHING) > 0);
+    Assert.assertTrue(metrics.getPhaseNanos(DiffMetrics.Phase.MODEL_DIFF) > 0);
+    Assert.assertTrue(metrics.getPhaseNanos(DiffMetrics.Phase.DIFF) >= metrics.getPhaseNanos(DiffMetrics.Phase.MODEL_DIFF));
+    Assert.assertTrue(metrics.getPaths() > 0);
+    Assert.assertTrue(metrics.getOperations() >= metrics.getPaths());
+    Assert.assertTrue(metrics.getParameters() > 0);
+    Assert.assertTrue(metrics.getModels() > 0);
+    Assert.assertTrue(metrics.getMaxDepth() >= 1);
+
+    List<InMemoryDiffMetrics.PathCost> slowest = metrics.getSlowestPaths();
+    Assert.assertEquals(Math.min(3, metrics.getPaths()), slowest.size());
+    for (int i = 1; i < slowest.size(); i++) {
+      Assert.assertTrue(slowest.get(i - 1).getNanos() >= slowest.get(i).getNanos());
+    }
+  }
+
+  @Test
+  public void compareV2WithMetrics_nullMetrics_reportsNothing() throws Exception {
+    SwaggerDiff diff = SwaggerDiff.compareV2WithMetrics(resource("petstore_v2_1.json"), resource("petstore_v2_2.json"), true, null);
+    SwaggerDiff expected = SwaggerDiff.compareV2(resource("petstore_v2_1.json"), resource("petstore_v2_2.json"), true);
+
+    Assert.assertEquals(expected.getChangedEndpoints().size(), diff.getChangedEndpoints().size());
+    Assert.assertEquals(expected.getMissingEndpoints().size(), diff.getMissingEndpoints().size());
+  }
+
+  @Test
+  public void onPath_manyPaths_keepsTheSlowest() {
+    InMemoryDiffMetrics metrics = new InMemoryDiffMetrics(2);
+    metrics.onPath("/a", 30);
+    metrics.onPath("/b", 10);
+    metrics.onPath("/c", 50);
+    metrics.onPath("/d", 20);
+    metrics.onModel(3);
+    metrics.onModel(1);
+
+    List<InMemoryDiffMetrics.PathCost> slowest = metrics.getSlowestPaths();
+    Assert.assertEquals(4, metrics.getPaths());
+    Assert.assertEquals(2, slowest.size());
+    Assert.assertEquals("/c", slowest.get(0).getPathUrl());
+    Assert.assertEquals("/a", slowest.get(1).getPathUrl());
+    Assert.assertEquals(2, metrics.getModels());
+    Assert.assertEquals(3, metrics.getMaxDepth());
+  }
+
+  private static Path resource(String name) throws Exception {
+    return Paths.get(InMemoryDiffMetricsTest.class.getClassLoader().getResource(name).toURI());
+  }
+}
@@ -0,0 +1,76 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MapDiffTest {
+
+  @Test
+  public void mapKeyDiff_viewsKeepOrder() {
+    MapKeyDiff<String, Integer> diff = MapKeyDiff.diff(map("a", 1, "b", 2, "c", 3), map("d", 4, "b", 5, "e", 6));
+    Assert.assertEquals(Arrays.asList("b"), diff.getSharedKey());
+    Assert.assertEquals(map("d", 4, "e", 6), diff.getIncreased());
+    Assert.assertEquals(Arrays.asList("d", "e"), Arrays.asList(diff.getIncreased().keySet().toArray()));
+    Assert.assertEquals(map("a", 1, "c", 3), diff.getMissing());
+    Assert.assertTrue(diff.getMissing().containsKey("a"));
+    Assert.assertFalse(diff.getMissing().containsKey("b"));
+    Assert.assertNull(diff.getMissing().get("b"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void mapKeyDiff_viewsAreReadOnly() {
+    MapKeyDiff.diff(map("a", 1), map("b", 2)).getIncreased().put("c", 3);
+  }
+
+  @Test
+  public void mapKeyDiff_nullMaps() {
+    Map<String, Integer> map = map("a", 1);
+    Assert.assertSame(map, MapKeyDiff.diff(null, map).getIncreased());
+    Assert.assertNull(MapKeyDiff.diff(null, map).getMissing());
+    Assert.assertSame(map, MapKeyDiff.diff(map, null).getMissing());
+    Assert.assertTrue(MapKeyDiff.<String, Integer>diff(null, null).getSharedKey().isEmpty());
+  }
+
+  @Test
+  public void mapDiff_changedValues() {
+    Map<String, Object> left = new LinkedHashMap<String, Object>();
+    left.put("same", "x");
+    left.put("value", "x");
+    left.put("type", 1L);
+    left.put("nulled", "x");
+    left.put("missing", "x");
+    Map<String, Object> right = new LinkedHashMap<String, Object>();
+    right.put("same", "x");
+    right.put("value", "y");
+    right.put("type", 1);
+    right.put("nulled", null);
+    right.put("new", "y");
+    MapDiff<String, Object> diff = MapDiff.diff(left, right);
+    Assert.assertEquals(Arrays.asList("value", "type", "nulled"), Arrays.asList(diff.getChanged().keySet().toArray()));
+    Assert.assertEquals(Pair.of("x", "y"), diff.getChanged().get("value"));
+    Assert.assertEquals(Collections.singletonMap("new", "y"), diff.getIncreased());
+    Assert.assertEquals(Collections.singletonMap("missing", "x"), diff.getMissing());
+  }
+
+  @Test
+  public void mapDiff_equalMaps() {
+    MapDiff<String, Integer> diff = MapDiff.diff(map("a", 1), map("a", 1));
+    Assert.assertTrue(diff.getIncreased().isEmpty());
+    Assert.assertTrue(diff.getMissing().isEmpty());
+    Assert.assertTrue(diff.getChanged().isEmpty());
+  }
+
+  private static Map<String, Integer> map(Object... keyValues) {
+    Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      map.put((String) keyValues[i], (Integer) keyValues[i + 1]);
+    }
+    return map;
+  }
+}
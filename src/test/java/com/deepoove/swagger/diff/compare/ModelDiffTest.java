@@ -0,0 +1,108 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.deepoove.swagger.diff.model.ElProperty;
+
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.properties.IntegerProperty;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+
+public class ModelDiffTest {
+
+  @Test
+  public void diff_deepChainOnSmallStack_walksWithoutOverflow() throws Exception {
+    Map<String, Model> left = chain(20000, false);
+    Map<String, Model> right = chain(20000, true);
+    InMemoryDiffMetrics metrics = new InMemoryDiffMetrics();
+    AtomicReference<Object> outcome = new AtomicReference<Object>();
+
+    Thread thread = new Thread(null, () -> {
+      try {
+        outcome.set(ModelDiff.build(left, right).maxDepth(Integer.MAX_VALUE).metrics(metrics)
+            .diff(left.get("M0"), right.get("M0"), "M0"));
+      } catch (Throwable e) {
+        outcome.set(e);
+      }
+    }, "small-stack", 128 * 1024);
+    thread.start();
+    thread.join();
+
+    Assert.assertTrue(String.valueOf(outcome.get()), outcome.get() instanceof ModelDiffResult);
+    ModelDiffResult result = (ModelDiffResult) outcome.get();
+    Assert.assertFalse(result.isTruncated());
+    Assert.assertEquals(20000, metrics.getMaxDepth());
+    Assert.assertEquals(20000, metrics.getModels());
+    Assert.assertEquals(0, metrics.getTruncatedModels());
+  }
+
+  @Test
+  public void diff_deeperThanMaxDepth_truncatedWithSameProperties() {
+    Map<String, Model> left = chain(10, false);
+    Map<String, Model> right = chain(10, true);
+    InMemoryDiffMetrics metrics = new InMemoryDiffMetrics();
+
+    ModelDiffResult full = ModelDiff.build(left, right).diff(left.get("M0"), right.get("M0"), "M0");
+    ModelDiffResult cut = ModelDiff.build(left, right).maxDepth(3).metrics(metrics)
+        .diff(left.get("M0"), right.get("M0"), "M0");
+
+    Assert.assertFalse(full.isTruncated());
+    Assert.assertTrue(cut.isTruncated());
+    Assert.assertEquals(3, metrics.getMaxDepth());
+    Assert.assertEquals(1, metrics.getTruncatedModels());
+    Assert.assertEquals(els(full.getIncreased()), els(cut.getIncreased()));
+    Assert.assertEquals(els(full.getMissing()), els(cut.getMissing()));
+    Assert.assertEquals(els(full.getChanged()), els(cut.getChanged()));
+    Assert.assertEquals(full.hasContractChanges(), cut.hasContractChanges());
+  }
+
+  @Test
+  public void diff_refCycle_reportsTopLevelProperties() {
+    Map<String, Model> left = chain(3, false);
+    Map<String, Model> right = chain(3, true);
+    left.get("M2").getProperties().put("next", new RefProperty("#/definitions/M0"));
+    right.get("M2").getProperties().put("next", new RefProperty("#/definitions/M0"));
+
+    ModelDiffResult result = ModelDiff.build(left, right).diff(left.get("M0"), right.get("M0"), "M0");
+
+    Assert.assertEquals("[added]", els(result.getIncreased()).toString());
+    Assert.assertEquals("[removed]", els(result.getMissing()).toString());
+    Assert.assertEquals("[size]", els(result.getChanged()).toString());
+    Assert.assertEquals("M0", result.getChanged().get(0).getParentModelName());
+  }
+
+  /**
+   * Definitions M0 to M(length - 1), each referring to the next one. The changed chain adds,
+   * removes and retypes a property of every definition.
+   */
+  private static Map<String, Model> chain(int length, boolean changed) {
+    Map<String, Model> definitions = new HashMap<String, Model>();
+    for (int i = 0; i < length; i++) {
+      ModelImpl model = new ModelImpl();
+      model.property(changed ? "added" : "removed", new StringProperty());
+      model.property("size", changed ? new StringProperty() : new IntegerProperty());
+      if (i + 1 < length) {
+        model.property("next", new RefProperty("#/definitions/M" + (i + 1)));
+      }
+      definitions.put("M" + i, model);
+    }
+    return definitions;
+  }
+
+  private static List<String> els(List<ElProperty> properties) {
+    List<String> els = new ArrayList<String>(properties.size());
+    for (ElProperty property : properties) {
+      els.add(property.getEl());
+    }
+    return els;
+  }
+}
@@ -0,0 +1,67 @@
+package com.deepoove.swagger.diff.compare;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.swagger.models.parameters.HeaderParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.QueryParameter;
+
+public class ParameterDiffTest {
+
+  private final ParameterDiff parameterDiff = ParameterDiff.build(
+      Collections.emptyMap(), Collections.emptyMap());
+
+  @Test
+  public void diff_sameNameDifferentLocation_notMatched() {
+    Parameter header = new HeaderParameter().name("id").type("string");
+    Parameter query = new QueryParameter().name("id").type("string");
+
+    ParameterDiffResult result = parameterDiff.diff(Collections.singletonList(header), Collections.singletonList(query));
+
+    Assert.assertEquals(Collections.singletonList(query), result.getIncreased());
+    Assert.assertEquals(Collections.singletonList(header), result.getMissing());
+    Assert.assertTrue(result.getChanged().isEmpty());
+  }
+
+  @Test
+  public void diff_reorderedParameters_keepsOrderOfNewParameters() {
+    List<Parameter> left = Arrays.asList(
+        new QueryParameter().name("a").type("string"),
+        new QueryParameter().name("b").type("string").description("old"));
+    Parameter added1 = new QueryParameter().name("c").type("string");
+    Parameter added2 = new HeaderParameter().name("a").type("string");
+    List<Parameter> right = Arrays.asList(
+        added1,
+        new QueryParameter().name("b").type("string").description("new"),
+        added2,
+        new QueryParameter().name("a").type("string"));
+
+    ParameterDiffResult result = parameterDiff.diff(left, right);
+
+    Assert.assertEquals(Arrays.asList(added1, added2), result.getIncreased());
+    Assert.assertTrue(result.getMissing().isEmpty());
+    Assert.assertEquals(1, result.getChanged().size());
+    Assert.assertEquals("b", result.getChanged().get(0).getLeftParameter().getName());
+  }
+
+  @Test
+  public void result_removeIncreasedAndAdd_leaveCallerListsAlone() {
+    Parameter query = new QueryParameter().name("q").type("string");
+    Parameter header = new HeaderParameter().name("h").type("string");
+    ParameterDiffResult result = parameterDiff.diff(Collections.<Parameter>emptyList(), Arrays.asList(query, header));
+    result.removeIncreased(0);
+    Assert.assertEquals(Collections.singletonList(header), result.getIncreased());
+
+    List<Parameter> missing = new ArrayList<>(Collections.singletonList(query));
+    result.setMissing(missing);
+    result.addMissing(Collections.singleton(header));
+    Assert.assertEquals(Arrays.asList(query, header), result.getMissing());
+    Assert.assertEquals(Collections.singletonList(query), missing);
+  }
+}
@@ -0,0 +1,124 @@
+package com.deepoove.swagger.diff.compare;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.swagger.models.Info;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+
+public class SpecFingerprintTest {
+
+  @Test
+  public void of_equalSpecs_sameFingerprints() {
+    SpecFingerprint left = SpecFingerprint.of(spec("a"));
+    SpecFingerprint right = SpecFingerprint.of(spec("a"));
+
+    Assert.assertTrue(SpecFingerprint.same(left.definition("Pet"), right.definition("Pet")));
+    Assert.assertTrue(SpecFingerprint.same(left.path("/pets"), right.path("/pets")));
+  }
+
+  @Test
+  public void of_changedReferencedModel_changesReferrers() {
+    SpecFingerprint left = SpecFingerprint.of(spec("a"));
+    SpecFingerprint right = SpecFingerprint.of(spec("b"));
+
+    Assert.assertFalse(SpecFingerprint.same(left.definition("Tag"), right.definition("Tag")));
+    Assert.assertFalse(SpecFingerprint.same(left.definition("Pet"), right.definition("Pet")));
+    Assert.assertTrue(SpecFingerprint.same(left.definition("Owner"), right.definition("Owner")));
+  }
+
+  @Test
+  public void of_changedReferencedModel_changesReferringProperties() {
+    Swagger changed = spec("a");
+    changed.getDefinitions().get("Pet").getProperties().put("name", new StringProperty());
+    SpecFingerprint left = SpecFingerprint.of(spec("a"));
+    SpecFingerprint right = SpecFingerprint.of(changed);
+
+    Assert.assertFalse(SpecFingerprint.same(left.definition("Pet"), right.definition("Pet")));
+    Assert.assertTrue(SpecFingerprint.same(left.property("Pet", "tag"), right.property("Pet", "tag")));
+    Assert.assertFalse(SpecFingerprint.same(left.property("Pet", "self"), right.property("Pet", "self")));
+    Assert.assertNull(left.property("Pet", "name"));
+
+    SpecFingerprint tagChanged = SpecFingerprint.of(spec("b"));
+    Assert.assertFalse(SpecFingerprint.same(left.property("Pet", "tag"), tagChanged.property("Pet", "tag")));
+  }
+
+  @Test
+  public void of_changedRequiredFlag_changesFingerprint() {
+    Swagger changed = spec("a");
+    changed.getDefinitions().get("Owner").getProperties().get("name").setRequired(true);
+
+    Assert.assertFalse(SpecFingerprint.same(
+        SpecFingerprint.of(spec("a")).definition("Owner"),
+        SpecFingerprint.of(changed).definition("Owner")));
+  }
+
+  @Test
+  public void same_missingFingerprint_neverSame() {
+    Assert.assertFalse(SpecFingerprint.same(null, null));
+    Assert.assertFalse(SpecFingerprint.same(1L, null));
+  }
+
+  @Test
+  public void diff_withFingerprints_sameResultAsWithout() {
+    Swagger oldSpec = spec("a");
+    Swagger newSpec = spec("b");
+    newSpec.getPaths().get("/pets").getGet().addParameter(new QueryParameter().name("limit").type("integer"));
+
+    SpecificationDiffResult plain = SpecificationDiff.build(spec("a"), newSpec).diff();
+    SpecificationDiffResult fingerprinted = SpecificationDiff.build(oldSpec, newSpec).fingerprint(true).diff();
+
+    Assert.assertEquals(plain.getChangedEndpoints().size(), fingerprinted.getChangedEndpoints().size());
+    Assert.assertEquals(
+        plain.getChangedEndpoints().get(0).getChangedOperations().keySet(),
+        fingerprinted.getChangedEndpoints().get(0).getChangedOperations().keySet());
+  }
+
+  @Test
+  public void diffRefs_withPropertyFingerprints_reportsOnlyChangedProperties() {
+    Swagger oldSpec = spec("a");
+    Swagger newSpec = spec("a");
+    oldSpec.getDefinitions().get("Owner").getProperties().put("age", new StringProperty());
+    newSpec.getDefinitions().get("Owner").getProperties().put("age", new StringProperty());
+    newSpec.getDefinitions().get("Owner").getProperties().get("name").setDescription("full name");
+    ModelDiffCache cache = new ModelDiffCache(SpecFingerprint.of(oldSpec), SpecFingerprint.of(newSpec));
+
+    ModelDiffResult plain = ModelDiff.build(oldSpec.getDefinitions(), newSpec.getDefinitions())
+        .diffRefs("Owner", "Owner", "Owner");
+    ModelDiffResult fingerprinted = ModelDiff.build(oldSpec.getDefinitions(), newSpec.getDefinitions(), cache)
+        .diffRefs("Owner", "Owner", "Owner");
+
+    Assert.assertTrue(cache.identicalProperty("Owner", "Owner", "age"));
+    Assert.assertFalse(cache.identicalProperty("Owner", "Owner", "name"));
+    Assert.assertEquals(1, plain.getChanged().size());
+    Assert.assertEquals(1, fingerprinted.getChanged().size());
+    Assert.assertEquals(plain.getChanged().get(0).getEl(), fingerprinted.getChanged().get(0).getEl());
+  }
+
+  private static Swagger spec(String tagDescription) {
+    ModelImpl tag = new ModelImpl().type("object")
+        .property("label", new StringProperty().description(tagDescription));
+    ModelImpl pet = new ModelImpl().type("object")
+        .property("tag", new RefProperty("Tag"))
+        .property("self", new RefProperty("Pet"));
+    ModelImpl owner = new ModelImpl().type("object")
+        .property("name", new StringProperty());
+
+    Operation get = new Operation().summary("list pets")
+        .response(200, new Response().description("OK"))
+        .parameter(new QueryParameter().name("q").type("string"));
+    return new Swagger()
+        .info(new Info().title("pets").version("1"))
+        .model("Tag", tag)
+        .model("Pet", pet)
+        .model("Owner", owner)
+        .path("/pets", new Path().get(get));
+  }
+}
@@ -1,9 +1,20 @@
 package com.deepoove.swagger.diff.compare;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
 import org.junit.Assert;
 import org.junit.Test;
 
 import io.swagger.models.Info;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.QueryParameter;
+import io.swagger.util.Json;
 
 public class SpecificationDiffTest {
 
@@ -66,4 +77,46 @@ public class SpecificationDiffTest {
 
     Assert.assertTrue(result);
   }
+
+  @Test
+  public void diff_parallelWithExtensions_sameResultAsSequential() {
+    Swagger oldSpec = specWithExtensions(2000, false);
+    Swagger newSpec = specWithExtensions(2000, true);
+    SpecificationDiffResult sequential = SpecificationDiff.build(oldSpec, newSpec, true).diff();
+    Assert.assertFalse(sequential.getChangedEndpoints().isEmpty());
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int run = 0; run < 5; run++) {
+        SpecificationDiffResult parallel = SpecificationDiff.build(oldSpec, newSpec, true).executor(pool).diff();
+        Assert.assertEquals(Json.pretty(sequential.getChangedEndpoints()), Json.pretty(parallel.getChangedEndpoints()));
+        Assert.assertEquals(sequential.hasContractChanges(), parallel.hasContractChanges());
+        Assert.assertEquals(sequential.hasOnlyCosmeticChanges(), parallel.hasOnlyCosmeticChanges());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Paths whose path, operation and parameter carry distinct extension values; the changed spec
+   * has equal but other value instances, and a changed value on every seventh path
+   */
+  private static Swagger specWithExtensions(int paths, boolean changed) {
+    Swagger spec = new Swagger().info(new Info().version("1"));
+    for (int i = 0; i < paths; i++) {
+      Map<String, Object> value = new LinkedHashMap<String, Object>();
+      value.put("id", i);
+      value.put("owners", Arrays.asList("a" + i, "b" + i));
+      value.put("level", changed && i % 7 == 0 ? -1 : i % 3);
+      QueryParameter parameter = new QueryParameter().name("q");
+      parameter.setVendorExtension("x-param", new LinkedHashMap<String, Object>(value));
+      Operation operation = new Operation().parameter(parameter).response(200, new Response().description("ok"));
+      operation.setVendorExtension("x-operation", new LinkedHashMap<String, Object>(value));
+      Path path = new Path().get(operation);
+      path.setVendorExtension("x-path", value);
+      spec.path("/items" + i, path);
+    }
+    return spec;
+  }
 }
@@ -0,0 +1,99 @@
+package com.deepoove.swagger.diff.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChangedExtensionGroupTest {
+
+  @Test
+  public void subGroupDifferences_propagateToAncestors() {
+    ChangedExtensionGroup root = new ChangedExtensionGroup();
+    ChangedExtensionGroup child = new ChangedExtensionGroup();
+    ChangedExtensionGroup grandChild = new ChangedExtensionGroup();
+    root.putSubGroup("child", child);
+    child.putSubGroup("grandChild", grandChild);
+    Assert.assertFalse(root.vendorExtensionsAreDiff());
+
+    grandChild.setIncreasedVendorExtensions(extension());
+    Assert.assertTrue(child.vendorExtensionsAreDiff());
+    Assert.assertTrue(root.vendorExtensionsAreDiff());
+    Assert.assertFalse(root.vendorExtensionsAreDiffShallow());
+
+    grandChild.setIncreasedVendorExtensions(Collections.<String, Object>emptyMap());
+    Assert.assertFalse(child.vendorExtensionsAreDiff());
+    Assert.assertFalse(root.vendorExtensionsAreDiff());
+  }
+
+  @Test
+  public void replacedSubGroup_noLongerCounts() {
+    ChangedExtensionGroup root = new ChangedExtensionGroup();
+    ChangedExtensionGroup changed = new ChangedExtensionGroup();
+    // changed through the getter before being put, caught up on insert
+    changed.setMissingVendorExtensions(new LinkedHashMap<String, Object>());
+    changed.getMissingVendorExtensions().put("x-removed", true);
+    root.putSubGroup("responses", changed);
+    Assert.assertTrue(root.vendorExtensionsAreDiff());
+
+    root.putSubGroup("responses", new ChangedExtensionGroup());
+    Assert.assertFalse(root.vendorExtensionsAreDiff());
+    // the replaced group no longer reports to the root
+    changed.setChangedVendorExtensions(Collections.<String, Pair<Object, Object>>emptyMap());
+    changed.setIncreasedVendorExtensions(extension());
+    Assert.assertFalse(root.vendorExtensionsAreDiff());
+  }
+
+  @Test
+  public void getters_returnMapsOwnedByTheGroup() {
+    ChangedExtensionGroup group = new ChangedExtensionGroup();
+    group.getIncreasedVendorExtensions().put("x-added", 1);
+    group.getChangedVendorExtensionPaths().put("x-changed", "$.a");
+    Assert.assertTrue(group.vendorExtensionsAreDiffShallow());
+
+    Map<String, Object> set = extension();
+    group.setMissingVendorExtensions(set);
+    group.getMissingVendorExtensions().put("x-removed", 2);
+    Assert.assertEquals(2, group.getMissingVendorExtensions().size());
+    Assert.assertEquals(1, set.size());
+
+    ChangedExtensionGroup copy = new ChangedExtensionGroup();
+    copy.setVendorExtsFromGroup(group);
+    copy.getIncreasedVendorExtensions().put("x-other", 3);
+    Assert.assertEquals(1, group.getIncreasedVendorExtensions().size());
+  }
+
+  @Test
+  public void subGroupPutThroughGetter_replacedWithoutCounting() {
+    ChangedExtensionGroup root = new ChangedExtensionGroup();
+    ChangedExtensionGroup changed = new ChangedExtensionGroup();
+    changed.setIncreasedVendorExtensions(extension());
+    root.getChangedSubGroups().put("responses", changed);
+
+    root.putSubGroup("responses", new ChangedExtensionGroup());
+    Assert.assertFalse(root.vendorExtensionsAreDiff());
+    root.putSubGroup("responses", changed);
+    Assert.assertTrue(root.vendorExtensionsAreDiff());
+  }
+
+  private static Map<String, Object> extension() {
+    return Collections.<String, Object>singletonMap("x-added", 1);
+  }
+
+  @Test
+  public void emptyGroup_isSharedAndImmutable() {
+    ChangedExtensionGroup root = new ChangedExtensionGroup();
+    root.putSubGroup("info", ChangedExtensionGroup.EMPTY);
+    Assert.assertFalse(root.vendorExtensionsAreDiff());
+    Assert.assertTrue(ChangedExtensionGroup.EMPTY.getChangedSubGroups().isEmpty());
+    try {
+      ChangedExtensionGroup.EMPTY.setIncreasedVendorExtensions(extension());
+      Assert.fail();
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+}
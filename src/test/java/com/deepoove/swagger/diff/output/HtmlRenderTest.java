@@ -0,0 +1,38 @@
+package com.deepoove.swagger.diff.output;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class HtmlRenderTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void render_escapesTheTextOfTheSpecs() throws IOException {
+    JsonNode newSpec = loadSpec("petstore_v2_2.json");
+    ((ObjectNode) newSpec.path("paths").path("/pet/{petId}").path("get")).put("summary", "Find <pet> by \"ID\" & name");
+    SwaggerDiff diff = SwaggerDiff.compareV2(loadSpec("petstore_v2_1.json"), newSpec);
+    String html = new HtmlRender("Changelog", null).render(diff);
+
+    Assert.assertTrue(html.startsWith("<!DOCTYPE html>"));
+    Assert.assertTrue(html.endsWith("</html>\n"));
+    Assert.assertFalse(html.contains("stylesheet"));
+    Assert.assertTrue(html.contains("<title>Changelog</title>"));
+    Assert.assertTrue(html.contains("<li><span class=\"GET\">GET</span>/pet/{petId} <span>Find &lt;pet&gt; by &quot;ID&quot; &amp; name</span></li>"));
+    Assert.assertTrue(html.contains("<li class=\"delete\"><div>Delete password</div><i>//The password for login in clear text</i></li>"));
+  }
+
+  private JsonNode loadSpec(String name) throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+      return mapper.readTree(in);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.deepoove.swagger.diff.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+
+public class JsonReportWriterTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void document_holdsEveryEndpoint() throws IOException {
+    SwaggerDiff diff = SwaggerDiff.compareV2(loadSpec("petstore_v2_1.json"), loadSpec("petstore_v2_2.json"), true);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new JsonReportWriter().write(diff, out);
+
+    JsonNode report = mapper.readTree(out.toByteArray());
+    Assert.assertEquals(diff.getNewEndpoints().size(), report.path("newEndpoints").size());
+    Assert.assertEquals(diff.getMissingEndpoints().size(), report.path("missingEndpoints").size());
+    Assert.assertEquals(diff.getChangedEndpoints().size(), report.path("changedEndpoints").size());
+    Assert.assertEquals(diff.getChangedEndpoints().get(0).getPathUrl(), report.path("changedEndpoints").path(0).path("path").asText());
+  }
+
+  @Test
+  public void document_specWithoutInfo_nullVersion() throws IOException {
+    JsonNode left = loadSpec("petstore_v2_1.json");
+    ((ObjectNode) left).remove("info");
+    SwaggerDiff diff = SwaggerDiff.compareV2(left, loadSpec("petstore_v2_2.json"), true);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new JsonReportWriter().write(diff, out);
+
+    JsonNode report = mapper.readTree(out.toByteArray());
+    Assert.assertTrue(report.path("oldVersion").isNull());
+    Assert.assertEquals(diff.getNewVersion(), report.path("newVersion").asText());
+    Assert.assertEquals(diff.getChangedEndpoints().size(), report.path("changedEndpoints").size());
+  }
+
+  @Test
+  public void ndjson_oneLinePerChange() throws IOException {
+    JsonNode left = loadSpec("petstore_v2_1.json");
+    JsonNode right = loadSpec("petstore_v2_2.json");
+    ((ObjectNode) right).put("x-changed", true);
+    SwaggerDiff diff = SwaggerDiff.compareV2(left, right, true);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new JsonReportWriter(JsonReportWriter.Format.NDJSON).write(diff, out);
+
+    String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    Assert.assertEquals(diff.getNewEndpoints().size() + diff.getMissingEndpoints().size()
+        + diff.getChangedEndpoints().size() + 1, lines.length);
+    for (String line : lines) {
+      Assert.assertTrue(mapper.readTree(line).has("change"));
+    }
+    Assert.assertTrue(mapper.readTree(lines[lines.length - 1]).path("vendorExtensions").path("increased").has("x-changed"));
+  }
+
+  @Test
+  public void listener_writesLinesAsTheDiffRuns() throws IOException {
+    SwaggerParser parser = new SwaggerParser();
+    Swagger oldSpec = parser.read(loadSpec("petstore_v2_1.json"), true);
+    Swagger newSpec = parser.read(loadSpec("petstore_v2_2.json"), true);
+    SwaggerDiff diff = SwaggerDiff.compareV2(oldSpec, newSpec, false);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SwaggerDiff.streamV2(oldSpec, newSpec, false, JsonReportWriter.listener(out));
+
+    String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+    Assert.assertEquals(diff.getNewEndpoints().size() + diff.getMissingEndpoints().size()
+        + diff.getChangedEndpoints().size() + 1, lines.length);
+    Assert.assertEquals("complete", mapper.readTree(lines[lines.length - 1]).path("change").asText());
+  }
+
+  private JsonNode loadSpec(String name) throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+      return mapper.readTree(in);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.deepoove.swagger.diff.output;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class MarkdownRenderTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void render_listsTheChangesOfThePetstore() throws IOException {
+    SwaggerDiff diff = SwaggerDiff.compareV2(loadSpec("petstore_v2_1.json"), loadSpec("petstore_v2_2.json"));
+    StringWriter writer = new StringWriter();
+    new MarkdownRender().render(diff, writer);
+    String markdown = writer.toString();
+
+    Assert.assertTrue(markdown.startsWith("### What's New\n---\n* `GET` /pet/{petId} Find pet by ID\n"));
+    Assert.assertTrue(markdown.contains("* `POST` /pet/{petId} Updates a pet in the store with form data\n"));
+    Assert.assertTrue(markdown.contains("* `GET` /user/{username} Get user by user name  \n    Return Type\n\n"
+        + "        Add newUserFeild //a new user feild demo\n        Delete phone\n"));
+    Assert.assertTrue(markdown.contains("        Delete password //The password for login in clear text\n"));
+    Assert.assertEquals(markdown, new MarkdownRender().render(diff));
+  }
+
+  private JsonNode loadSpec(String name) throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+      return mapper.readTree(in);
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.deepoove.swagger.diff.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class DiffServerTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private DiffServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    server = DiffServer.build(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+        .concurrency(2)
+        .queueSize(4)
+        .start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void diff_specsPostedBefore() throws IOException {
+    String oldHash = request("POST", "/specs", resource("petstore_v2_1.json")).path("hash").asText();
+    String newHash = request("POST", "/specs", resource("petstore_v2_2.json")).path("hash").asText();
+    Assert.assertEquals(oldHash, request("POST", "/specs", resource("petstore_v2_1.json")).path("hash").asText());
+
+    JsonNode diff = request("POST", "/diff?old=" + oldHash + "&new=" + newHash, null);
+    Assert.assertEquals(1, diff.path("newEndpoints").size());
+    Assert.assertEquals(1, diff.path("missingEndpoints").size());
+    Assert.assertTrue(diff.path("changedEndpoints").size() > 0);
+
+    JsonNode stats = request("GET", "/stats", null);
+    Assert.assertEquals(4, stats.path("requests").asInt());
+    Assert.assertEquals(0, stats.path("failures").asInt());
+    Assert.assertEquals(2, stats.path("specCache").path("specs").asInt());
+    Assert.assertTrue(stats.path("latencyMillis").path("p99").asDouble() >= stats.path("latencyMillis").path("p50").asDouble());
+  }
+
+  @Test
+  public void diff_specsInTheBody() throws IOException {
+    String oldHash = request("POST", "/specs", resource("petstore_v2_1.json")).path("hash").asText();
+    ObjectNode body = mapper.createObjectNode();
+    body.put("old", oldHash);
+    body.set("new", mapper.readTree(resource("petstore_v2_2.json")));
+
+    JsonNode diff = request("POST", "/diff", mapper.writeValueAsBytes(body));
+    Assert.assertEquals(1, diff.path("missingEndpoints").size());
+
+    body.put("old", "unknown");
+    Assert.assertEquals(404, status("POST", "/diff", mapper.writeValueAsBytes(body)));
+    Assert.assertEquals(400, status("POST", "/specs", "{".getBytes("UTF-8")));
+    Assert.assertEquals(405, status("GET", "/diff", null));
+    Assert.assertEquals(2, server.getStats().getFailures());
+  }
+
+  @Test
+  public void fullQueue_answered503WhileTheRequestsRun() throws Exception {
+    server.stop(0);
+    server = DiffServer.build(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+        .concurrency(1)
+        .queueSize(0)
+        .start();
+    InetSocketAddress address = server.getAddress();
+    // keeps the only thread waiting for a body that never comes
+    try (Socket busy = new Socket(address.getAddress(), address.getPort())) {
+      busy.getOutputStream().write(("POST /specs HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n\r\n")
+          .getBytes(StandardCharsets.US_ASCII));
+      busy.getOutputStream().flush();
+
+      int status = 0;
+      for (int i = 0; i < 100 && 503 != status; i++) {
+        Thread.sleep(50);
+        status = connect("GET", "/stats", null).getResponseCode();
+      }
+      Assert.assertEquals(503, status);
+      Assert.assertTrue(server.getStats().getRejected() > 0);
+    }
+  }
+
+  @Test
+  public void bothQueuesFull_everyConnectionAnsweredAndClosed() throws Exception {
+    server.stop(0);
+    server = DiffServer.build(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+        .concurrency(1)
+        .queueSize(0)
+        .start();
+    InetSocketAddress address = server.getAddress();
+    try (Socket busy = new Socket(address.getAddress(), address.getPort())) {
+      busy.getOutputStream().write(("POST /specs HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n\r\n")
+          .getBytes(StandardCharsets.US_ASCII));
+      busy.getOutputStream().flush();
+      for (int i = 0; i < 100 && 0 == server.getStats().getRejected(); i++) {
+        Thread.sleep(50);
+        connect("GET", "/stats", null).getResponseCode();
+      }
+      long rejected = server.getStats().getRejected();
+      Assert.assertTrue(rejected > 0);
+
+      // far more requests at once than the single rejector thread and its queue of one take
+      Socket[] sockets = new Socket[32];
+      try {
+        for (int i = 0; i < sockets.length; i++) {
+          sockets[i] = new Socket(address.getAddress(), address.getPort());
+          sockets[i].setSoTimeout(10000);
+          sockets[i].getOutputStream().write(("GET /stats HTTP/1.1\r\nHost: localhost\r\n\r\n")
+              .getBytes(StandardCharsets.US_ASCII));
+          sockets[i].getOutputStream().flush();
+        }
+        for (Socket socket : sockets) {
+          // read up to the end of the stream, a connection left open times out instead
+          String response = new String(readAll(socket.getInputStream()), StandardCharsets.US_ASCII);
+          Assert.assertTrue(response, response.startsWith("HTTP/1.1 503"));
+        }
+      } finally {
+        for (Socket socket : sockets) {
+          if (null != socket) {
+            socket.close();
+          }
+        }
+      }
+      Assert.assertEquals(rejected + sockets.length, server.getStats().getRejected());
+    }
+  }
+
+  private JsonNode request(String method, String path, byte[] body) throws IOException {
+    HttpURLConnection connection = connect(method, path, body);
+    Assert.assertEquals(200, connection.getResponseCode());
+    // the whole response is read, it ends after the request is counted in the stats
+    try (InputStream in = connection.getInputStream()) {
+      return mapper.readTree(readAll(in));
+    }
+  }
+
+  private int status(String method, String path, byte[] body) throws IOException {
+    HttpURLConnection connection = connect(method, path, body);
+    int status = connection.getResponseCode();
+    try (InputStream in = connection.getErrorStream()) {
+      Assert.assertTrue(mapper.readTree(readAll(in)).has("error"));
+    }
+    return status;
+  }
+
+  private HttpURLConnection connect(String method, String path, byte[] body) throws IOException {
+    InetSocketAddress address = server.getAddress();
+    URL url = new URL("http://" + address.getHostString() + ":" + address.getPort() + path);
+    HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    connection.setRequestMethod(method);
+    if (null != body) {
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body);
+      }
+    }
+    return connection;
+  }
+
+  private byte[] resource(String name) throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+      return readAll(in);
+    }
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+}
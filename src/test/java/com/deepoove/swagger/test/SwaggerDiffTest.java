@@ -1,20 +1,35 @@
 package com.deepoove.swagger.test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.deepoove.swagger.diff.LruSpecCache;
 import com.deepoove.swagger.diff.SwaggerDiff;
+import com.deepoove.swagger.diff.SwaggerDiffHistory;
+import com.deepoove.swagger.diff.compare.DiffListener;
 import com.deepoove.swagger.diff.compare.SpecificationDiffResult;
 import com.deepoove.swagger.diff.model.ChangedEndpoint;
 import com.deepoove.swagger.diff.model.ChangedExtensionGroup;
 import com.deepoove.swagger.diff.model.ChangedOperation;
+import com.deepoove.swagger.diff.model.ChangedParameter;
 import com.deepoove.swagger.diff.model.Endpoint;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 
 import io.swagger.models.Contact;
@@ -25,6 +40,7 @@ import io.swagger.models.Path;
 import io.swagger.models.Response;
 import io.swagger.models.Swagger;
 import io.swagger.parser.SwaggerParser;
+import io.swagger.util.Json;
 
 public class SwaggerDiffTest {
 
@@ -369,6 +385,326 @@ public class SwaggerDiffTest {
     Assert.assertTrue(diff.hasOnlyCosmeticChanges());
   }
 
+  @Test
+  public void parallelDiff_sameResultAsSequential() throws IOException {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      SwaggerDiff sequential = SwaggerDiff.compareV2(loadSpec(SWAGGER_V2_DOC1), loadSpec(SWAGGER_V2_DOC2), true);
+      SwaggerDiff parallel = SwaggerDiff.compareV2Parallel(loadSpec(SWAGGER_V2_DOC1), loadSpec(SWAGGER_V2_DOC2), true, pool);
+      Assert.assertEquals(describe(sequential.getNewEndpoints()),
+          describe(SwaggerDiff.compareV2Parallel(loadSpec(SWAGGER_V2_DOC1), loadSpec(SWAGGER_V2_DOC2), true, null).getNewEndpoints()));
+
+      Assert.assertEquals(describe(sequential.getNewEndpoints()), describe(parallel.getNewEndpoints()));
+      Assert.assertEquals(describe(sequential.getMissingEndpoints()), describe(parallel.getMissingEndpoints()));
+      Assert.assertEquals(sequential.getChangedEndpoints().size(), parallel.getChangedEndpoints().size());
+      for (int i = 0; i < sequential.getChangedEndpoints().size(); i++) {
+        ChangedEndpoint left = sequential.getChangedEndpoints().get(i);
+        ChangedEndpoint right = parallel.getChangedEndpoints().get(i);
+        Assert.assertEquals(left.getPathUrl(), right.getPathUrl());
+        Assert.assertEquals(left.getChangedOperations().keySet(), right.getChangedOperations().keySet());
+      }
+      Assert.assertEquals(sequential.hasOnlyCosmeticChanges(), parallel.hasOnlyCosmeticChanges());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void treeDiff_sameResultAsParsedDiff() throws IOException {
+    String[][] pairs = {
+        {SWAGGER_V2_DOC1, SWAGGER_V2_DOC2},
+        {SWAGGER_V2_DOC2, SWAGGER_V2_DOC1},
+        {SWAGGER_V2_EMPTY_DOC, SWAGGER_V2_DOC2},
+        {SWAGGER_V2_DOC1, SWAGGER_V2_EMPTY_DOC},
+        {SWAGGER_V2_DOC2, SWAGGER_V2_DOC2}};
+    for (String[] pair : pairs) {
+      assertSameDiff(SwaggerDiff.compareV2(loadSpec(pair[0]), loadSpec(pair[1]), true),
+          SwaggerDiff.compareV2Tree(loadSpec(pair[0]), loadSpec(pair[1]), true));
+    }
+  }
+
+  @Test
+  public void treeDiff_changedDefinition_reportsUnchangedPathsReferringToIt() throws IOException {
+    JsonNode left = loadSpec(SWAGGER_V2_DOC1);
+    JsonNode right = loadSpec(SWAGGER_V2_DOC1);
+    ((ObjectNode) right.path("definitions").path("Pet").path("properties").path("id")).put("description", "DIFF");
+
+    SwaggerDiff diff = SwaggerDiff.compareV2Tree(left, right, true);
+    Assert.assertFalse(diff.getChangedEndpoints().isEmpty());
+    assertSameDiff(SwaggerDiff.compareV2(left, right, true), diff);
+  }
+
+  @Test
+  public void treeDiff_otherSwaggerVersion_rejected() throws IOException {
+    JsonNode openApi = loadSpec(SWAGGER_V2_DOC2);
+    ((ObjectNode) openApi).remove("swagger");
+    ((ObjectNode) openApi).put("openapi", "3.0.0");
+    try {
+      SwaggerDiff.compareV2Tree(loadSpec(SWAGGER_V2_DOC1), openApi, true);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains("v2.0"));
+    }
+  }
+
+  @Test
+  public void streamedSpecs_sameResultAsJsonNode() throws IOException, URISyntaxException {
+    SwaggerDiff expected = SwaggerDiff.compareV2(loadSpec(SWAGGER_V2_DOC1), loadSpec(SWAGGER_V2_DOC2), true);
+    java.nio.file.Path oldPath = Paths.get(resource(SWAGGER_V2_DOC1).toURI());
+    java.nio.file.Path newPath = Paths.get(resource(SWAGGER_V2_DOC2).toURI());
+
+    assertSameDiff(expected, SwaggerDiff.compareV2(oldPath, newPath, true));
+    assertSameDiff(expected, SwaggerDiff.compareV2(Files.readAllBytes(oldPath), Files.readAllBytes(newPath), true));
+    try (InputStream oldStream = resource(SWAGGER_V2_DOC1).openStream();
+         InputStream newStream = resource(SWAGGER_V2_DOC2).openStream()) {
+      assertSameDiff(expected, SwaggerDiff.compareV2(oldStream, newStream, true));
+    }
+  }
+
+  @Test
+  public void yamlSpecs_sameResultAsJsonNode() throws IOException {
+    YAMLMapper yamlMapper = new YAMLMapper();
+    byte[] oldYaml = yamlMapper.writeValueAsBytes(loadSpec(SWAGGER_V2_DOC1));
+    byte[] newYaml = yamlMapper.writeValueAsBytes(loadSpec(SWAGGER_V2_DOC2));
+
+    assertSameDiff(SwaggerDiff.compareV2(loadSpec(SWAGGER_V2_DOC1), loadSpec(SWAGGER_V2_DOC2), true),
+        SwaggerDiff.compareV2(oldYaml, newYaml, true));
+  }
+
+  @Test
+  public void cachedSpecs_reusedAcrossCompares() throws IOException {
+    LruSpecCache cache = LruSpecCache.maxEntries(2);
+    JsonNode baseline = loadSpec(SWAGGER_V2_DOC1);
+    SwaggerDiff expected = SwaggerDiff.compareV2(baseline, loadSpec(SWAGGER_V2_DOC2), true);
+
+    assertSameDiff(expected, SwaggerDiff.compareV2Cached(baseline, loadSpec(SWAGGER_V2_DOC2), true, cache));
+    Assert.assertEquals(0, cache.getHitCount());
+    Assert.assertEquals(2, cache.getMissCount());
+
+    // an equal tree re-read from the doc hits the cache
+    assertSameDiff(expected, SwaggerDiff.compareV2Cached(loadSpec(SWAGGER_V2_DOC1), loadSpec(SWAGGER_V2_DOC2), true, cache));
+    Assert.assertEquals(2, cache.getHitCount());
+
+    // the third doc evicts the least recently used one, the baseline stays
+    SwaggerDiff.compareV2Cached(baseline, loadSpec(SWAGGER_V2_EMPTY_DOC), true, cache);
+    Assert.assertEquals(1, cache.getEvictionCount());
+    Assert.assertEquals(2, cache.size());
+    assertEqual(SwaggerDiff.compareV2Cached(baseline, baseline, true, cache));
+    Assert.assertEquals(5, cache.getHitCount());
+    Assert.assertEquals(3, cache.getMissCount());
+  }
+
+  @Test
+  public void baseline_compareAll_sameResultAsCompareV2() throws IOException {
+    SwaggerParser parser = new SwaggerParser();
+    Swagger oldSpec = parser.read(loadSpec(SWAGGER_V2_DOC1), true);
+    List<Swagger> newSpecs = new ArrayList<>();
+    for (String name : new String[] {SWAGGER_V2_DOC2, SWAGGER_V2_EMPTY_DOC, SWAGGER_V2_DOC1, SWAGGER_V2_DOC2}) {
+      newSpecs.add(parser.read(loadSpec(name), true));
+    }
+
+    SwaggerDiff.Baseline baseline = SwaggerDiff.baseline(oldSpec, true);
+    List<SwaggerDiff> parallel = baseline.compareAll(newSpecs, new ForkJoinPool(4));
+    List<SwaggerDiff> sequential = baseline.compareAll(newSpecs, null);
+    Assert.assertEquals(newSpecs.size(), parallel.size());
+    for (int i = 0; i < newSpecs.size(); i++) {
+      SwaggerDiff expected = SwaggerDiff.compareV2(oldSpec, newSpecs.get(i), true);
+      assertSameDiff(expected, parallel.get(i));
+      assertSameDiff(expected, sequential.get(i));
+    }
+    assertEqual(parallel.get(2));
+  }
+
+  @Test
+  public void history_diffsConsecutiveVersions() throws IOException, URISyntaxException {
+    String[] versions = {SWAGGER_V2_DOC1, SWAGGER_V2_DOC2, SWAGGER_V2_EMPTY_DOC, SWAGGER_V2_DOC1};
+    List<JsonNode> trees = new ArrayList<>();
+    List<java.nio.file.Path> paths = new ArrayList<>();
+    for (String version : versions) {
+      trees.add(loadSpec(version));
+      paths.add(Paths.get(resource(version).toURI()));
+    }
+
+    SwaggerDiffHistory history = SwaggerDiffHistory.compareV2Trees(trees, true, new ForkJoinPool(4));
+    SwaggerDiffHistory sequential = SwaggerDiffHistory.compareV2Paths(paths, true, null);
+    Assert.assertEquals(versions.length - 1, history.getDiffs().size());
+    int newEndpoints = 0;
+    for (int i = 1; i < versions.length; i++) {
+      SwaggerDiff expected = SwaggerDiff.compareV2(loadSpec(versions[i - 1]), loadSpec(versions[i]), true);
+      assertSameDiff(expected, history.getDiffs().get(i - 1));
+      assertSameDiff(expected, sequential.getDiffs().get(i - 1));
+      SwaggerDiffHistory.Step step = history.getSteps().get(i - 1);
+      Assert.assertEquals(expected.getNewEndpoints().size(), step.getNewEndpointCount());
+      Assert.assertEquals(expected.getMissingEndpoints().size(), step.getMissingEndpointCount());
+      Assert.assertEquals(expected.getChangedEndpoints().size(), step.getChangedEndpointCount());
+      newEndpoints += step.getNewEndpointCount();
+    }
+    Assert.assertEquals(newEndpoints, history.getNewEndpointCount());
+    Assert.assertTrue(SwaggerDiffHistory.compareV2Trees(trees.subList(0, 1), true).getDiffs().isEmpty());
+  }
+
+  @Test
+  public void history_versionWithoutInfo_nullVersion() throws IOException {
+    JsonNode withoutInfo = loadSpec(SWAGGER_V2_DOC2);
+    ((ObjectNode) withoutInfo).remove("info");
+    List<JsonNode> trees = Arrays.asList(loadSpec(SWAGGER_V2_DOC1), withoutInfo, loadSpec(SWAGGER_V2_DOC1));
+
+    SwaggerDiffHistory history = SwaggerDiffHistory.compareV2Trees(trees, true);
+    Assert.assertEquals(2, history.getSteps().size());
+    Assert.assertEquals(history.getDiffs().get(0).getOldVersion(), history.getSteps().get(0).getOldVersion());
+    Assert.assertNull(history.getSteps().get(0).getNewVersion());
+    Assert.assertNull(history.getSteps().get(1).getOldVersion());
+    Assert.assertFalse(history.getDiffs().get(1).getChangedEndpoints().isEmpty());
+  }
+
+  @Test
+  public void breakingChanges_sameAnswerAsFullDiff() throws IOException {
+    SwaggerParser parser = new SwaggerParser();
+    String[] docs = {SWAGGER_V2_DOC1, SWAGGER_V2_DOC2, SWAGGER_V2_EMPTY_DOC};
+    for (String oldDoc : docs) {
+      for (String newDoc : docs) {
+        Swagger oldSpec = parser.read(loadSpec(oldDoc), true);
+        Swagger newSpec = parser.read(loadSpec(newDoc), true);
+        Assert.assertEquals(oldDoc + " -> " + newDoc, isBreaking(SwaggerDiff.compareV2(oldSpec, newSpec)),
+            SwaggerDiff.hasBreakingChanges(oldSpec, newSpec));
+      }
+    }
+    Assert.assertTrue(SwaggerDiff.hasBreakingChanges(loadSpec(SWAGGER_V2_DOC1), loadSpec(SWAGGER_V2_EMPTY_DOC), false));
+    Assert.assertFalse(SwaggerDiff.hasBreakingChanges(loadSpec(SWAGGER_V2_EMPTY_DOC), loadSpec(SWAGGER_V2_DOC1), false));
+  }
+
+  @Test
+  public void breakingChanges_withExtensionsAgreeWithContractChanges() throws IOException {
+    SwaggerParser parser = new SwaggerParser();
+    JsonNode tagExtension = loadSpec(SWAGGER_V2_DOC1);
+    ((ObjectNode) tagExtension.path("tags").path(0)).put("x-changed", true);
+    JsonNode infoExtension = loadSpec(SWAGGER_V2_DOC1);
+    ((ObjectNode) infoExtension.path("info")).put("x-changed", true);
+    List<JsonNode> docs = new ArrayList<>();
+    for (String name : new String[] {SWAGGER_V2_DOC1, SWAGGER_V2_DOC2, SWAGGER_V2_EMPTY_DOC}) {
+      docs.add(loadSpec(name));
+    }
+    docs.add(tagExtension);
+    docs.add(infoExtension);
+    for (int i = 0; i < docs.size(); i++) {
+      for (int j = 0; j < docs.size(); j++) {
+        Swagger oldSpec = parser.read(docs.get(i), true);
+        Swagger newSpec = parser.read(docs.get(j), true);
+        Assert.assertEquals(i + " -> " + j, SwaggerDiff.compareV2(oldSpec, newSpec, true).hasContractChanges(),
+            SwaggerDiff.hasBreakingChanges(oldSpec, newSpec, true));
+      }
+    }
+  }
+
+  @Test
+  public void breakingChanges_reorderedParametersMatchedByLocationAndName() throws IOException {
+    JsonNode left = loadSpec(SWAGGER_V2_DOC1);
+    JsonNode right = loadSpec(SWAGGER_V2_DOC1);
+    ArrayNode parameters = (ArrayNode) right.path("paths").path("/pet/{petId}").path("post").path("parameters");
+    parameters.insert(0, parameters.remove(parameters.size() - 1));
+    Assert.assertFalse(SwaggerDiff.hasBreakingChanges(left, right, false));
+
+    parameters.remove(0);
+    Assert.assertTrue(SwaggerDiff.hasBreakingChanges(left, right, false));
+  }
+
+  @Test
+  public void breakingChanges_vendorExtensionOnlyWithExtensions() throws IOException {
+    JsonNode left = loadSpec(SWAGGER_V2_DOC1);
+    JsonNode right = loadSpec(SWAGGER_V2_DOC1);
+    ((ObjectNode) right.path("paths").path("/pet")).put("x-changed", true);
+
+    Assert.assertFalse(SwaggerDiff.hasBreakingChanges(left, right, false));
+    Assert.assertTrue(SwaggerDiff.hasBreakingChanges(left, right, true));
+    Assert.assertTrue(SwaggerDiff.compareV2(left, right, true).getChangedEndpoints().get(0).vendorExtensionsAreDiff());
+  }
+
+  @Test
+  public void listener_streamsTheDifferencesOfTheResult() throws IOException {
+    SwaggerParser parser = new SwaggerParser();
+    Swagger oldSpec = parser.read(loadSpec(SWAGGER_V2_DOC1), true);
+    Swagger newSpec = parser.read(loadSpec(SWAGGER_V2_DOC2), true);
+    SwaggerDiff diff = SwaggerDiff.compareV2(oldSpec, newSpec, true);
+    List<String> events = new ArrayList<>();
+    boolean[] cosmetic = new boolean[1];
+    SwaggerDiff.streamV2(oldSpec, newSpec, true, new DiffListener() {
+      @Override
+      public void onNewEndpoint(Endpoint endpoint) {
+        events.add("new " + endpoint.getMethod() + " " + endpoint.getPathUrl());
+      }
+
+      @Override
+      public void onMissingEndpoint(Endpoint endpoint) {
+        events.add("missing " + endpoint.getMethod() + " " + endpoint.getPathUrl());
+      }
+
+      @Override
+      public void onChangedOperation(String pathUrl, HttpMethod method, ChangedOperation operation) {
+        events.add("changed " + method + " " + pathUrl);
+      }
+
+      @Override
+      public void onComplete(boolean hasContractChanges, boolean hasOnlyCosmeticChanges) {
+        cosmetic[0] = hasOnlyCosmeticChanges;
+      }
+    });
+
+    List<String> expected = new ArrayList<>();
+    for (Endpoint endpoint : diff.getNewEndpoints()) {
+      expected.add("new " + endpoint.getMethod() + " " + endpoint.getPathUrl());
+    }
+    for (Endpoint endpoint : diff.getMissingEndpoints()) {
+      expected.add("missing " + endpoint.getMethod() + " " + endpoint.getPathUrl());
+    }
+    for (ChangedEndpoint endpoint : diff.getChangedEndpoints()) {
+      for (HttpMethod method : endpoint.getChangedOperations().keySet()) {
+        expected.add("changed " + method + " " + endpoint.getPathUrl());
+      }
+    }
+    Collections.sort(expected);
+    Collections.sort(events);
+    Assert.assertFalse(events.isEmpty());
+    Assert.assertEquals(expected, events);
+    Assert.assertEquals(diff.hasOnlyCosmeticChanges(), cosmetic[0]);
+  }
+
+  private static boolean isBreaking(SwaggerDiff diff) {
+    if (!diff.getMissingEndpoints().isEmpty()) {
+      return true;
+    }
+    for (ChangedEndpoint endpoint : diff.getChangedEndpoints()) {
+      for (ChangedOperation operation : endpoint.getChangedOperations().values()) {
+        if (!operation.getMissingParameters().isEmpty() || !operation.getMissingProps().isEmpty()) {
+          return true;
+        }
+        for (ChangedParameter parameter : operation.getChangedParameters()) {
+          if (!parameter.getMissing().isEmpty()) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private static void assertSameDiff(SwaggerDiff expected, SwaggerDiff actual) throws IOException {
+    Assert.assertEquals(Json.pretty(expected.getNewEndpoints()), Json.pretty(actual.getNewEndpoints()));
+    Assert.assertEquals(Json.pretty(expected.getMissingEndpoints()), Json.pretty(actual.getMissingEndpoints()));
+    Assert.assertEquals(Json.pretty(expected.getChangedEndpoints()), Json.pretty(actual.getChangedEndpoints()));
+    Assert.assertEquals(Json.pretty(expected.getChangedVendorExtensions()), Json.pretty(actual.getChangedVendorExtensions()));
+    Assert.assertEquals(expected.hasOnlyCosmeticChanges(), actual.hasOnlyCosmeticChanges());
+    Assert.assertEquals(expected.getOldVersion(), actual.getOldVersion());
+    Assert.assertEquals(expected.getNewVersion(), actual.getNewVersion());
+  }
+
+  private static List<String> describe(List<Endpoint> endpoints) {
+    List<String> described = new ArrayList<>();
+    for (Endpoint endpoint : endpoints) {
+      described.add(endpoint.getMethod() + " " + endpoint.getPathUrl());
+    }
+    return described;
+  }
+
   private void assertEqual(SwaggerDiff diff) {
     List<Endpoint> newEndpoints = diff.getNewEndpoints();
     List<Endpoint> missingEndpoints = diff.getMissingEndpoints();
@@ -379,7 +715,10 @@ public class SwaggerDiffTest {
   }
 
   private JsonNode loadSpec(String name) throws IOException {
-    URL resource = Thread.currentThread().getContextClassLoader().getResource(name);
-    return OBJECT_MAPPER.readTree(resource);
+    return OBJECT_MAPPER.readTree(resource(name));
+  }
+
+  private static URL resource(String name) {
+    return Thread.currentThread().getContextClassLoader().getResource(name);
   }
 }
@@ -0,0 +1,77 @@
+package com.deepoove.swagger.diff.event;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.deepoove.swagger.diff.SwaggerDiff;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrDiffEventsTest {
+
+  @Test
+  public void compareV2_recording_emitsEventsWithFields() throws Exception {
+    Path dump = Files.createTempFile("swagger-diff", ".jfr");
+    try (Recording recording = new Recording()) {
+      for (String name : new String[] {"Parse", "PathDiff", "OperationDiff", "ModelDiff"}) {
+        recording.enable("com.deepoove.swagger.diff." + name).withThreshold(Duration.ZERO);
+      }
+      recording.start();
+      SwaggerDiff.compareV2(resource("petstore_v2_1.json"), resource("petstore_v2_2.json"));
+      recording.stop();
+      recording.dump(dump);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+      List<RecordedEvent> parses = named(events, "Parse");
+      Assert.assertEquals(2, parses.size());
+      Assert.assertEquals("json", parses.get(0).getString("format"));
+      Assert.assertTrue(parses.get(0).getInt("paths") > 0);
+
+      Assert.assertFalse(named(events, "PathDiff").isEmpty());
+      for (RecordedEvent event : named(events, "PathDiff")) {
+        Assert.assertTrue(event.getString("pathUrl").startsWith("/"));
+      }
+      Assert.assertFalse(named(events, "OperationDiff").isEmpty());
+      for (RecordedEvent event : named(events, "OperationDiff")) {
+        Assert.assertTrue(event.getString("pathUrl").startsWith("/"));
+        Assert.assertNotNull(event.getString("method"));
+      }
+      Assert.assertFalse(named(events, "ModelDiff").isEmpty());
+      for (RecordedEvent event : named(events, "ModelDiff")) {
+        Assert.assertTrue(event.getInt("depth") >= 1);
+      }
+    } finally {
+      Files.deleteIfExists(dump);
+    }
+  }
+
+  @Test
+  public void beginModel_noRecording_noEvent() {
+    Assert.assertNull(DiffEvents.beginModel());
+    DiffEvents.endModel(null, "Pet", 1);
+    try (Recording recording = new Recording()) {
+      recording.enable("com.deepoove.swagger.diff.ModelDiff");
+      recording.start();
+      Assert.assertNotNull(DiffEvents.beginModel());
+    }
+  }
+
+  private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+    return events.stream()
+        .filter(event -> event.getEventType().getName().equals("com.deepoove.swagger.diff." + name))
+        .collect(Collectors.toList());
+  }
+
+  private static Path resource(String name) throws Exception {
+    return Paths.get(JfrDiffEventsTest.class.getClassLoader().getResource(name).toURI());
+  }
+}